@@ -1,12 +1,15 @@
 package com.alertfire;
 
 import javafx.application.Application;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
 import com.alertfire.ui.SimulationMenu;
 import com.alertfire.ui.GridView;
 import com.alertfire.controller.SimulationController;
 import com.alertfire.config.SimulationConfig;
+import com.alertfire.backend.UplinkLoadGenerator;
 import com.alertfire.simulation.PropagationFactory;
 import com.alertfire.simulation.PropagationStrategy;
 
@@ -22,21 +25,22 @@ public class App extends Application {
         // Créer la stratégie de propagation par défaut
         PropagationStrategy strategy = PropagationFactory.createStrategy("SLOW");
 
-        // Créer la vue de la grille avec une taille de cellule appropriée
+        // Créer la vue de la grille ; elle s'ajuste à la fenêtre et se zoome à la molette
         GridView gridView = new GridView(config.getGridWidth(), config.getGridHeight(), config.getCellSize());
 
         // Créer le contrôleur de simulation
         controller = new SimulationController(gridView, strategy, config);
 
         // Générer une forêt aléatoire pour le test initial
-        gridView.generateRandomForest(0.6); // 60% de densité
+        controller.generateRandomForest(0.6); // 60% de densité
 
         // Créer le menu de simulation
         SimulationMenu menu = new SimulationMenu(controller);
 
-        // Configurer la scène avec une taille suffisante pour afficher toute la grille
-        int sceneWidth = config.getGridWidth() * (int)config.getCellSize() + 40;
-        int sceneHeight = config.getGridHeight() * (int)config.getCellSize() + 150; // Plus d'espace pour les boutons
+        // Configurer la scène à la taille demandée, sans dépasser l'écran
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        double sceneWidth = Math.min(config.getWindowWidth(), screen.getWidth());
+        double sceneHeight = Math.min(config.getWindowHeight(), screen.getHeight());
 
         Scene scene = new Scene(menu.getRoot(), sceneWidth, sceneHeight);
 
@@ -53,11 +57,16 @@ public class App extends Application {
     public void stop() {
         // Arrêter la simulation lorsque l'application se ferme
         if (controller != null) {
-            controller.stopSimulation();
+            controller.shutdown();
         }
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Test de charge de la liaison backend, sans interface
+        if (args.length > 0 && args[0].equals("--uplink-load")) {
+            UplinkLoadGenerator.main(args);
+            return;
+        }
         launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.alertfire.backend;
+
+import com.alertfire.metrics.LatencyHistogram;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backend local remplaçant le serveur Flask, pour les essais et les tests de charge.
+ *
+ * Il écoute sur l'hôte, le port et le chemin de l'URL du backend et accepte les tableaux
+ * JSON envoyés par {@link com.alertfire.communication.BackendUplink}. Une latence
+ * (fixe plus une gigue aléatoire) et un taux d'erreurs (réponse 503 par défaut) peuvent être
+ * injectés pour reproduire un backend lent, instable ou qui refuse les lots. Les alertes sont seulement comptées : le
+ * corps est lu d'un bloc, sans être analysé.
+ */
+public class EmbeddedBackend {
+
+    private static final int DEFAULT_PORT = 5000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String path;
+
+    // Injection de latence et d'erreurs, modifiables à chaud
+    private volatile long latencyMs;
+    private volatile long latencyJitterMs;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+
+    // Statistiques
+    private final LatencyHistogram handlingTime = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong alerts = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    /**
+     * Crée le backend sans le démarrer
+     * @param url URL du backend ({@code port 0} : port libre choisi par le système)
+     * @param threads Nombre de requêtes traitées en parallèle
+     */
+    public EmbeddedBackend(URI url, int threads) throws IOException {
+        int port = url.getPort() >= 0 ? url.getPort() : DEFAULT_PORT;
+        String host = url.getHost() != null ? url.getHost() : "localhost";
+        this.path = url.getPath() == null || url.getPath().isEmpty() ? "/" : url.getPath();
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "embedded-backend");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(path, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Backend local démarré sur " + getUrl());
+    }
+
+    /**
+     * Arrête le serveur, en laissant une seconde aux requêtes en cours
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            int count = countAlerts(exchange.getRequestBody());
+            requests.incrementAndGet();
+
+            long delay = latencyMs;
+            if (latencyJitterMs > 0) {
+                delay += ThreadLocalRandom.current().nextLong(latencyJitterMs + 1);
+            }
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                exchange.sendResponseHeaders(errorStatus, -1);
+                return;
+            }
+            alerts.addAndGet(count);
+            exchange.sendResponseHeaders(200, -1);
+        } finally {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            synchronized (handlingTime) {
+                handlingTime.record(micros);
+            }
+        }
+    }
+
+    /**
+     * Lit le corps et compte les objets du tableau JSON (accolades de premier niveau)
+     */
+    private int countAlerts(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int depth = 0;
+        int count = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            bytes.addAndGet(n);
+            for (int k = 0; k < n; k++) {
+                byte b = buffer[k];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                } else if (b == '"') {
+                    inString = true;
+                } else if (b == '{') {
+                    if (depth++ == 0) count++;
+                } else if (b == '}') {
+                    depth--;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * URL effective du backend (utile quand le port a été choisi par le système)
+     */
+    public URI getUrl() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort() + path);
+    }
+
+    public void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.latencyJitterMs = Math.max(0, jitterMs);
+    }
+
+    /**
+     * Part des requêtes rejetées avec le code d'erreur injecté (0 à 1)
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = Math.max(0.0, Math.min(1.0, errorRate));
+    }
+
+    /**
+     * Code HTTP des requêtes rejetées (503 par défaut)
+     */
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    // Statistiques
+
+    /**
+     * Copie de l'histogramme des durées de traitement, en microsecondes
+     */
+    public LatencyHistogram getHandlingTime() {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (handlingTime) {
+            copy.add(handlingTime);
+        }
+        return copy;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Nombre d'alertes acceptées (hors requêtes rejetées par injection d'erreur)
+     */
+    public long getAlertCount() {
+        return alerts.get();
+    }
+
+    public long getBytesReceived() {
+        return bytes.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+}
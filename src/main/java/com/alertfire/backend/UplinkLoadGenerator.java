@@ -0,0 +1,207 @@
+package com.alertfire.backend;
+
+import com.alertfire.communication.BackendUplink;
+import com.alertfire.communication.LoRaFrameCodec;
+import com.alertfire.config.SimulationConfig;
+import com.alertfire.metrics.LatencyHistogram;
+import com.alertfire.model.LoRaMessage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Test de charge de la liaison vers le backend, sur une seule machine.
+ *
+ * Démarre un {@link EmbeddedBackend} sur un port libre, puis envoie à débit constant des
+ * alertes synthétiques par une {@link BackendUplink} réelle (journal dans un répertoire
+ * temporaire). À la fin, rapporte le débit soutenu (alertes et requêtes par seconde,
+ * mesuré jusqu'à l'acquittement de la dernière alerte) et les percentiles de durée des POST.
+ *
+ * Lancement : {@code ./gradlew run --args="--uplink-load --rate 20000 --duration 30"}
+ * <pre>
+ *   --rate N        alertes par seconde (défaut 5000)
+ *   --duration S    durée de l'envoi, en secondes (défaut 20)
+ *   --devices N     nombre de projets simulés (défaut 1000)
+ *   --fire-ratio R  part des alertes feu (défaut 0.1)
+ *   --latency MS    latence injectée dans le backend (défaut 0)
+ *   --jitter MS     gigue ajoutée à la latence (défaut 0)
+ *   --errors R      part des requêtes rejetées par le backend (défaut 0)
+ *   --threads N     requêtes traitées en parallèle par le backend (défaut 4)
+ * </pre>
+ */
+public class UplinkLoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_MS = 30_000;
+
+    private double rate = 5000;
+    private double durationSeconds = 20;
+    private int devices = 1000;
+    private double fireRatio = 0.1;
+    private long latencyMs = 0;
+    private long jitterMs = 0;
+    private double errorRate = 0;
+    private int threads = 4;
+
+    public static void main(String[] args) throws Exception {
+        UplinkLoadGenerator generator = new UplinkLoadGenerator();
+        generator.parse(args);
+        generator.run();
+    }
+
+    private void parse(String[] args) {
+        for (int k = 0; k < args.length; k++) {
+            String name = args[k];
+            if (!name.startsWith("--") || name.equals("--uplink-load")) {
+                continue;
+            }
+            if (k + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + name);
+            }
+            String value = args[++k];
+            switch (name) {
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> durationSeconds = Double.parseDouble(value);
+                case "--devices" -> devices = Integer.parseInt(value);
+                case "--fire-ratio" -> fireRatio = Double.parseDouble(value);
+                case "--latency" -> latencyMs = Long.parseLong(value);
+                case "--jitter" -> jitterMs = Long.parseLong(value);
+                case "--errors" -> errorRate = Double.parseDouble(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Option inconnue: " + name);
+            }
+        }
+    }
+
+    private void run() throws IOException {
+        Path outboxDirectory = Files.createTempDirectory("alertfire-load");
+        SimulationConfig config = new SimulationConfig();
+        config.setOutboxDirectory(outboxDirectory.toString());
+
+        EmbeddedBackend backend = new EmbeddedBackend(URI.create("http://localhost:0/api/receive-alert"), threads);
+        backend.setLatency(latencyMs, jitterMs);
+        backend.setErrorRate(errorRate);
+        backend.start();
+
+        BackendUplink uplink = new BackendUplink(backend.getUrl(), config);
+        uplink.start();
+        try {
+            System.out.println(String.format(Locale.ROOT,
+                    "Charge: %.0f alertes/s pendant %.0f s, %d projets, latence %d+%d ms, erreurs %.1f %%",
+                    rate, durationSeconds, devices, latencyMs, jitterMs, errorRate * 100));
+
+            long start = System.nanoTime();
+            long offered = generate(uplink, backend, start);
+            long end = awaitDrain(uplink, offered);
+            report(uplink, backend, offered, (end - start) / 1e9);
+        } finally {
+            uplink.shutdown();
+            backend.stop();
+            deleteRecursively(outboxDirectory);
+        }
+    }
+
+    /**
+     * Envoie les alertes à débit constant
+     * @return Nombre d'alertes proposées à la liaison
+     */
+    private long generate(BackendUplink uplink, EmbeddedBackend backend, long start) {
+        SplittableRandom random = new SplittableRandom(42);
+        UUID[] uuids = new UUID[devices];
+        int[] sequences = new int[devices];
+        for (int d = 0; d < devices; d++) {
+            uuids[d] = new UUID(random.nextLong(), random.nextLong());
+        }
+        ByteBuffer frame = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+
+        long total = (long) (rate * durationSeconds);
+        double intervalNanos = 1e9 / rate;
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        for (long n = 0; n < total; n++) {
+            // Cadence fixe : on rattrape le retard plutôt que de le reporter
+            long due = start + (long) (n * intervalNanos);
+            long now = System.nanoTime();
+            if (due > now) {
+                LockSupport.parkNanos(due - now);
+            }
+
+            int d = random.nextInt(devices);
+            boolean fire = random.nextDouble() < fireRatio;
+            LoRaMessage message = new LoRaMessage(uuids[d], random.nextInt(1000), random.nextInt(1000),
+                    fire ? 80 + random.nextDouble() * 40 : 20 + random.nextDouble() * 10,
+                    fire ? 2000 + random.nextDouble() * 1000 : 400 + random.nextDouble() * 50,
+                    fire, n / rate, Double.NaN, -1);
+            frame.clear();
+            LoRaFrameCodec.encode(message, d, sequences[d], false, frame);
+            frame.flip();
+            sequences[d] = (sequences[d] + 1) & 0xFFFF;
+            uplink.offer(uuids[d], frame, fire);
+            uplink.flush();
+
+            if (now >= nextReport) {
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+                System.out.println(String.format(Locale.ROOT, "  %5.1f s  proposées %d  reçues %d  en attente %d",
+                        (now - start) / 1e9, n + 1, backend.getAlertCount(), uplink.getQueueDepth()));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Attend que toutes les alertes acceptées par le journal soient acquittées
+     * @return Date de fin, en nanosecondes
+     */
+    private long awaitDrain(BackendUplink uplink, long offered) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_TIMEOUT_MS);
+        long expected = offered - uplink.getDroppedAlerts();
+        while (uplink.getSentAlerts() < expected && System.nanoTime() < deadline) {
+            uplink.flush();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        if (uplink.getSentAlerts() < expected) {
+            System.out.println("Délai dépassé : " + (expected - uplink.getSentAlerts()) + " alertes non acquittées");
+        }
+        return System.nanoTime();
+    }
+
+    private void report(BackendUplink uplink, EmbeddedBackend backend, long offered, double seconds) {
+        LatencyHistogram send = uplink.getSendLatency();
+        LatencyHistogram handling = backend.getHandlingTime();
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "Durée            : %.2f s", seconds));
+        System.out.println(String.format(Locale.ROOT, "Alertes          : %d proposées, %d acquittées, %d refusées par le journal",
+                offered, uplink.getSentAlerts(), uplink.getDroppedAlerts()));
+        System.out.println(String.format(Locale.ROOT, "Débit soutenu    : %.0f alertes/s, %.1f requêtes/s (%.1f alertes par requête)",
+                uplink.getSentAlerts() / seconds, backend.getRequestCount() / seconds,
+                uplink.getSentBatches() == 0 ? 0.0 : (double) uplink.getSentAlerts() / uplink.getSentBatches()));
+        System.out.println(String.format(Locale.ROOT, "Erreurs          : %d injectées, %d nouvelles tentatives",
+                backend.getInjectedErrorCount(), uplink.getRetries()));
+        System.out.println(String.format(Locale.ROOT, "Volume reçu      : %.1f Mo", backend.getBytesReceived() / 1e6));
+        System.out.println("Durée des POST (ms)      " + percentiles(send));
+        System.out.println("Traitement backend (ms)  " + percentiles(handling));
+    }
+
+    private static String percentiles(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f",
+                histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0,
+                histogram.percentile(99) / 1000.0, histogram.percentile(99.9) / 1000.0,
+                histogram.getMax() / 1000.0);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.out.println("Impossible de supprimer " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Regroupement des alertes feu au niveau du maître.
+ *
+ * La forêt est découpée en zones carrées. La première alerte d'une zone ouvre une
+ * fenêtre de temps et est transmise telle quelle au backend, pour ne pas retarder la
+ * première détection. Les alertes suivantes de la zone sont seulement cumulées ; à la
+ * fin de la fenêtre, un unique résumé est envoyé (températures et CO2 max et moyens,
+ * nombre d'alertes, projets contributeurs), et la zone est libérée.
+ *
+ * Chaque zone active occupe une place fixe : compteurs, liste bornée d'identifiants et
+ * estimation du nombre de projets distincts par comptage linéaire sur 64 bits. La charge
+ * du backend dépend ainsi du nombre de foyers et non du nombre de capteurs.
+ */
+public class AlertAggregator {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int MAX_LISTED = AlertSummary.MAX_LISTED_DEVICES;
+
+    private final int clusterCells;
+    private final double window;
+    private final AlertSummary summary = new AlertSummary();
+    private final int[] listedScratch = new int[MAX_LISTED];
+
+    // Table zone -> emplacement, adressage ouvert
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+
+    // Zones actives
+    private int activeCount = 0;
+    private int[] clusterRow = new int[16];
+    private int[] clusterCol = new int[16];
+    private double[] windowStart = new double[16];
+    private double[] lastTime = new double[16];
+    private int[] alertCount = new int[16];
+    private double[] temperatureSum = new double[16];
+    private double[] temperatureMax = new double[16];
+    private double[] co2Sum = new double[16];
+    private double[] co2Max = new double[16];
+    private long[] hottestMsb = new long[16];
+    private long[] hottestLsb = new long[16];
+    private long[] distinctSketch = new long[16];
+    private int[] listedCount = new int[16];
+    private int[] listed = new int[16 * MAX_LISTED];
+
+    // Statistiques
+    private long absorbed = 0;
+    private long summaries = 0;
+
+    /**
+     * @param clusterCells Côté d'une zone, en cellules
+     * @param window Durée d'une fenêtre de regroupement, en secondes simulées
+     */
+    public AlertAggregator(int clusterCells, double window) {
+        this.clusterCells = Math.max(1, clusterCells);
+        this.window = window;
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    /**
+     * Cumule une alerte reçue par le maître
+     * @param message Message reçu
+     * @return true si l'alerte est absorbée dans un résumé, false si elle doit être transmise telle quelle
+     */
+    public boolean absorb(LoRaMessage message) {
+        if (!message.isFireDetected()) {
+            return false;
+        }
+        int row = Math.floorDiv(message.getRow(), clusterCells);
+        int col = Math.floorDiv(message.getCol(), clusterCells);
+        long key = ((long) row << 32) | (col & 0xFFFFFFFFL);
+        double time = message.getReceivedTime();
+
+        int slot = find(key);
+        boolean opened = slot < 0;
+        if (opened) {
+            slot = open(key, row, col, time);
+        }
+
+        alertCount[slot]++;
+        lastTime[slot] = Math.max(lastTime[slot], time);
+        temperatureSum[slot] += message.getTemperature();
+        co2Sum[slot] += message.getCO2Level();
+        co2Max[slot] = Math.max(co2Max[slot], message.getCO2Level());
+        if (message.getTemperature() >= temperatureMax[slot]) {
+            temperatureMax[slot] = message.getTemperature();
+            hottestMsb[slot] = message.getUuid().getMostSignificantBits();
+            hottestLsb[slot] = message.getUuid().getLeastSignificantBits();
+        }
+
+        int device = message.getDeviceId() >= 0 ? message.getDeviceId() : message.getUuid().hashCode();
+        distinctSketch[slot] |= 1L << (mix(device) & 63);
+        addListed(slot, device);
+
+        if (!opened) {
+            absorbed++;
+        }
+        return !opened;
+    }
+
+    /**
+     * Envoie le résumé des zones dont la fenêtre est écoulée
+     * @param now Temps de simulation courant
+     * @param sink Reçoit chaque résumé ; l'objet est réutilisé d'un appel à l'autre
+     */
+    public void flush(double now, Consumer<AlertSummary> sink) {
+        for (int slot = activeCount - 1; slot >= 0; slot--) {
+            if (now - windowStart[slot] >= window) {
+                emit(slot, sink);
+                close(slot);
+            }
+        }
+    }
+
+    /**
+     * Envoie le résumé de toutes les zones actives (fermeture)
+     */
+    public void flushAll(Consumer<AlertSummary> sink) {
+        flush(Double.POSITIVE_INFINITY, sink);
+    }
+
+    /**
+     * Abandonne les zones actives sans envoyer de résumé
+     */
+    public void clear() {
+        while (activeCount > 0) {
+            close(activeCount - 1);
+        }
+    }
+
+    private void emit(int slot, Consumer<AlertSummary> sink) {
+        // Une zone dont seule la première alerte est arrivée n'a rien à résumer
+        if (alertCount[slot] <= 1) {
+            return;
+        }
+        int n = alertCount[slot];
+        summary.setHottestDevice(new UUID(hottestMsb[slot], hottestLsb[slot]));
+        summary.setCluster(clusterRow[slot], clusterCol[slot]);
+        summary.setWindow(windowStart[slot], lastTime[slot]);
+        summary.setAlertCount(n);
+        // L'estimation ne peut dépasser le nombre d'alertes reçues
+        summary.setDeviceCount(Math.min(n, Math.max(listedCount[slot], estimateDistinct(distinctSketch[slot]))));
+        summary.setTemperatures(temperatureMax[slot], temperatureSum[slot] / n);
+        summary.setCO2Levels(co2Max[slot], co2Sum[slot] / n);
+        System.arraycopy(listed, slot * MAX_LISTED, listedScratch, 0, listedCount[slot]);
+        summary.setDeviceIds(listedScratch, listedCount[slot]);
+        summaries++;
+        sink.accept(summary);
+    }
+
+    private void addListed(int slot, int device) {
+        int base = slot * MAX_LISTED;
+        int count = listedCount[slot];
+        for (int k = 0; k < count; k++) {
+            if (listed[base + k] == device) return;
+        }
+        if (count < MAX_LISTED) {
+            listed[base + count] = device;
+            listedCount[slot] = count + 1;
+        }
+    }
+
+    /**
+     * Nombre de projets distincts estimé par comptage linéaire
+     */
+    private static int estimateDistinct(long sketch) {
+        int zeros = 64 - Long.bitCount(sketch);
+        if (zeros == 0) {
+            return (int) Math.round(64 * Math.log(64));
+        }
+        return (int) Math.round(-64 * Math.log(zeros / 64.0));
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B1;
+        return h ^ (h >>> 16);
+    }
+
+    // Table de hachage zone -> emplacement (sondage linéaire)
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+            if (keys[i] == EMPTY_KEY) return -1;
+        }
+    }
+
+    private void put(long key, int value) {
+        if ((activeCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY_KEY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void remove(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        // Décalage arrière pour garder les chaînes de sondage contiguës
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY_KEY) break;
+            int ideal = hash(keys[j]) & mask;
+            if (((j - ideal) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY_KEY;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        int mask = capacity - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldKeys[k] == EMPTY_KEY) continue;
+            int i = hash(oldKeys[k]) & mask;
+            while (keys[i] != EMPTY_KEY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[k];
+            values[i] = oldValues[k];
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Emplacements des zones : les zones actives occupent les emplacements 0 à activeCount - 1
+
+    private int open(long key, int row, int col, double time) {
+        if (activeCount == clusterRow.length) {
+            grow(activeCount * 2);
+        }
+        int slot = activeCount++;
+        clusterRow[slot] = row;
+        clusterCol[slot] = col;
+        windowStart[slot] = time;
+        lastTime[slot] = time;
+        alertCount[slot] = 0;
+        temperatureSum[slot] = 0;
+        temperatureMax[slot] = Double.NEGATIVE_INFINITY;
+        co2Sum[slot] = 0;
+        co2Max[slot] = 0;
+        distinctSketch[slot] = 0;
+        listedCount[slot] = 0;
+        put(key, slot);
+        return slot;
+    }
+
+    /**
+     * Libère une zone, en déplaçant la dernière zone active à sa place
+     */
+    private void close(int slot) {
+        remove(((long) clusterRow[slot] << 32) | (clusterCol[slot] & 0xFFFFFFFFL));
+        int last = --activeCount;
+        if (slot != last) {
+            moveSlot(last, slot);
+        }
+    }
+
+    private void moveSlot(int from, int to) {
+        clusterRow[to] = clusterRow[from];
+        clusterCol[to] = clusterCol[from];
+        windowStart[to] = windowStart[from];
+        lastTime[to] = lastTime[from];
+        alertCount[to] = alertCount[from];
+        temperatureSum[to] = temperatureSum[from];
+        temperatureMax[to] = temperatureMax[from];
+        co2Sum[to] = co2Sum[from];
+        co2Max[to] = co2Max[from];
+        hottestMsb[to] = hottestMsb[from];
+        hottestLsb[to] = hottestLsb[from];
+        distinctSketch[to] = distinctSketch[from];
+        listedCount[to] = listedCount[from];
+        System.arraycopy(listed, from * MAX_LISTED, listed, to * MAX_LISTED, MAX_LISTED);
+
+        long key = ((long) clusterRow[to] << 32) | (clusterCol[to] & 0xFFFFFFFFL);
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = to;
+                break;
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        clusterRow = Arrays.copyOf(clusterRow, capacity);
+        clusterCol = Arrays.copyOf(clusterCol, capacity);
+        windowStart = Arrays.copyOf(windowStart, capacity);
+        lastTime = Arrays.copyOf(lastTime, capacity);
+        alertCount = Arrays.copyOf(alertCount, capacity);
+        temperatureSum = Arrays.copyOf(temperatureSum, capacity);
+        temperatureMax = Arrays.copyOf(temperatureMax, capacity);
+        co2Sum = Arrays.copyOf(co2Sum, capacity);
+        co2Max = Arrays.copyOf(co2Max, capacity);
+        hottestMsb = Arrays.copyOf(hottestMsb, capacity);
+        hottestLsb = Arrays.copyOf(hottestLsb, capacity);
+        distinctSketch = Arrays.copyOf(distinctSketch, capacity);
+        listedCount = Arrays.copyOf(listedCount, capacity);
+        listed = Arrays.copyOf(listed, capacity * MAX_LISTED);
+    }
+
+    // Statistiques
+
+    /**
+     * Nombre de zones dont la fenêtre est ouverte
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Nombre d'alertes absorbées dans un résumé plutôt que transmises
+     */
+    public long getAbsorbedCount() {
+        return absorbed;
+    }
+
+    public long getSummaryCount() {
+        return summaries;
+    }
+
+    /**
+     * Écrit le bilan du regroupement en CSV
+     */
+    public void writeReport(Appendable out) throws IOException {
+        out.append("aggregation_absorbed,aggregation_summaries,aggregation_active\n")
+                .append(Long.toString(absorbed)).append(',')
+                .append(Long.toString(summaries)).append(',')
+                .append(Integer.toString(activeCount)).append('\n');
+    }
+}
@@ -0,0 +1,664 @@
+package com.alertfire.communication;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal persistant des alertes à envoyer au backend.
+ *
+ * Les alertes, sous forme de trames binaires (voir {@link LoRaFrameCodec}), et les
+ * résumés d'incendie du maître (voir {@link AlertAggregator}) sont écrits dans des
+ * enregistrements de taille fixe, regroupés en segments projetés en mémoire : un ajout
+ * se résume à quelques écritures dans la projection, sans appel système ni verrou. Un seul thread écrit
+ * (la simulation) et un seul thread lit (la liaison backend) ; le lecteur ne voit une
+ * alerte qu'une fois sa position publiée.
+ *
+ * La position de lecture n'avance qu'à l'acquittement d'un lot par le backend et est
+ * conservée dans un petit fichier projeté : après un redémarrage, les alertes non
+ * acquittées sont renvoyées dans l'ordre. Les segments entièrement acquittés sont
+ * supprimés.
+ *
+ * L'ajout ne fait jamais d'entrée-sortie : un thread de maintenance crée à l'avance le
+ * segment suivant, que l'écrivain n'a plus qu'à adopter quand le sien est plein. Si ce
+ * segment n'est pas encore prêt, les mesures sont refusées et les alertes feu et résumés
+ * attendent dans un tampon en mémoire, recopié dans le segment dès qu'il arrive.
+ *
+ * L'espace disque est borné par un nombre de segments. À l'approche de la limite, les
+ * mesures sans feu sont refusées et le thread de maintenance compacte, sur place, les
+ * segments en attente en ne gardant que les alertes feu et les résumés. Ceux-ci ne sont
+ * jamais refusés faute de segments : si la compaction ne libère rien, la limite est dépassée.
+ */
+public class AlertOutbox {
+
+    public static final int RECORD_SIZE = 64;
+    public static final int PAYLOAD_SIZE = 60;
+
+    // Nature des enregistrements
+    public static final byte TELEMETRY = 1;
+    public static final byte FIRE = 2;
+    public static final byte SUMMARY = 3;
+
+    private static final int MAX_SEGMENT_RECORDS = (1 << 24) - 1;
+    private static final int SLOT_BITS = 24;
+
+    // Enregistrement : nature (1, 0 si vide), réservé (3), contenu (60)
+    // Alerte : UUID (16) puis trame ; résumé : voir AlertSummary
+    private static final byte EMPTY = 0;
+    private static final int PAYLOAD_OFFSET = 4;
+    private static final int UUID_OFFSET = PAYLOAD_OFFSET;
+    private static final int FRAME_OFFSET = PAYLOAD_OFFSET + 16;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Alertes feu et résumés en attente d'un segment, au plus
+    private static final int PENDING_RECORDS = 4096;
+    private static final long MAINTENANCE_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String CURSOR_FILE = "cursor.pos";
+
+    /**
+     * Reçoit les enregistrements lus dans le journal
+     */
+    public interface RecordConsumer {
+        /**
+         * @param kind {@link #TELEMETRY}, {@link #FIRE} ou {@link #SUMMARY}
+         * @param payload Contenu de l'enregistrement, de sa position à sa limite
+         */
+        void accept(byte kind, ByteBuffer payload);
+    }
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicInteger segmentCount = new AtomicInteger();
+    private final AtomicReference<Segment> spare = new AtomicReference<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final MappedByteBuffer cursorFile;
+    private final FileChannel cursorChannel;
+    private final Thread maintainer;
+    private volatile boolean closed = false;
+
+    // Écriture (thread de simulation)
+    private Segment head;
+    private int writeSlot;
+    private final ByteBuffer pending = ByteBuffer.allocate(PENDING_RECORDS * RECORD_SIZE);
+    private int pendingFirst = 0;
+    private int pendingCount = 0;
+    private ByteBuffer target; // destination de l'enregistrement réservé
+    private int targetBase;
+    private volatile long published;
+    private volatile long appended = 0;
+    private long overflowWarnings = 0;
+
+    // Lecture (thread de la liaison), sous verrou
+    private long readSegment;
+    private int readSlot;
+    private volatile long removed = 0;
+    private volatile long refused = 0;
+    private volatile long compacted = 0;
+    private final long recovered;
+
+    // Maintenance : dernier segment fermé déjà compacté
+    private long compactedBefore = -1;
+
+    /**
+     * Ouvre le journal, en reprenant les segments et la position de lecture existants
+     * @param directory Répertoire du journal
+     * @param segmentRecords Nombre d'alertes par segment
+     * @param maxSegments Nombre de segments au-delà duquel les mesures sont refusées
+     */
+    public AlertOutbox(Path directory, int segmentRecords, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = Math.max(1, Math.min(MAX_SEGMENT_RECORDS, segmentRecords));
+        this.maxSegments = Math.max(2, maxSegments);
+        Files.createDirectories(directory);
+
+        cursorChannel = FileChannel.open(directory.resolve(CURSOR_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        cursorFile = cursorChannel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        readSegment = cursorFile.getLong(0);
+        readSlot = cursorFile.getInt(8);
+
+        recovered = recover();
+        if (recovered > 0) {
+            System.out.println("Journal d'alertes: " + recovered + " alertes en attente, reprise de l'envoi");
+        }
+
+        maintainer = new Thread(this::maintain, "alert-outbox");
+        maintainer.setDaemon(true);
+        maintainer.start();
+    }
+
+    /**
+     * Relit les segments présents sur le disque
+     * @return Nombre d'alertes non acquittées
+     */
+    private long recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        ids.sort(null);
+
+        for (long id : ids) {
+            if (id < readSegment) {
+                // Déjà acquitté avant l'arrêt
+                Files.deleteIfExists(segmentPath(id));
+                continue;
+            }
+            Segment segment = Segment.open(segmentPath(id), id);
+            segment.end = segment.scanEnd();
+            segments.put(id, segment);
+        }
+        segmentCount.set(segments.size());
+
+        if (segments.isEmpty()) {
+            head = createSegment(Math.max(0, readSegment));
+            readSegment = head.id;
+            readSlot = 0;
+        } else {
+            Map.Entry<Long, Segment> first = segments.firstEntry();
+            if (first.getKey() != readSegment) {
+                readSegment = first.getKey();
+                readSlot = 0;
+            }
+            Segment last = segments.lastEntry().getValue();
+            head = last.end < last.capacity ? last : createSegment(last.id + 1);
+        }
+        if (head.id != readSegment) {
+            readSlot = Math.min(readSlot, segments.get(readSegment).end);
+        } else {
+            readSlot = Math.min(readSlot, head.end);
+        }
+        writeSlot = head.end;
+        published = pack(head.id, writeSlot);
+        storeCursor();
+
+        long pending = 0;
+        for (Segment segment : segments.values()) {
+            pending += segment.end - (segment.id == readSegment ? readSlot : 0);
+        }
+        return pending;
+    }
+
+    /**
+     * Ajoute une alerte au journal (thread de simulation uniquement)
+     * @param uuid UUID du projet émetteur
+     * @param frame Trame codée, lue à partir de sa position sans la modifier
+     * @param fire Vrai pour une alerte feu, qui n'est jamais refusée
+     * @return false si l'alerte a été refusée
+     */
+    public boolean append(UUID uuid, ByteBuffer frame, boolean fire) {
+        if (!reserve(fire)) {
+            return false;
+        }
+        target.putLong(targetBase + UUID_OFFSET, uuid.getMostSignificantBits());
+        target.putLong(targetBase + UUID_OFFSET + 8, uuid.getLeastSignificantBits());
+        target.put(targetBase + FRAME_OFFSET, frame, frame.position(), LoRaFrameCodec.FRAME_SIZE);
+        publish(fire ? FIRE : TELEMETRY);
+        return true;
+    }
+
+    /**
+     * Ajoute un résumé d'incendie au journal (thread de simulation uniquement) ; jamais refusé
+     * faute de segments
+     * @param summary Résumé codé, lu à partir de sa position sans la modifier
+     */
+    public boolean appendSummary(ByteBuffer summary) {
+        if (!reserve(true)) {
+            return false;
+        }
+        target.put(targetBase + PAYLOAD_OFFSET, summary, summary.position(),
+                Math.min(PAYLOAD_SIZE, summary.remaining()));
+        publish(SUMMARY);
+        return true;
+    }
+
+    /**
+     * Recopie dans le segment courant les alertes en attente, si un segment est prêt
+     * (thread de simulation uniquement)
+     */
+    public void flushPending() {
+        if (pendingCount > 0) {
+            drainPending();
+        }
+    }
+
+    /**
+     * Choisit l'emplacement du prochain enregistrement : le segment courant, le segment
+     * suivant s'il est prêt, ou pour une alerte prioritaire le tampon d'attente
+     */
+    private boolean reserve(boolean priority) {
+        if (closed) {
+            return false;
+        }
+        if (!priority && segmentCount.get() >= maxSegments - 1) {
+            refused++;
+            return false;
+        }
+        if (pendingCount > 0) {
+            drainPending();
+        }
+        if (pendingCount == 0 && (writeSlot < head.capacity || rotate())) {
+            target = head.buffer;
+            targetBase = writeSlot * RECORD_SIZE;
+            return true;
+        }
+        // Pas de segment prêt : seules les alertes prioritaires attendent, dans l'ordre
+        if (!priority || pendingFirst + pendingCount == PENDING_RECORDS) {
+            if (priority && overflowWarnings++ % 100 == 0) {
+                System.out.println("Journal d'alertes: segment suivant pas prêt, alerte feu perdue");
+            }
+            refused++;
+            return false;
+        }
+        target = pending;
+        targetBase = (pendingFirst + pendingCount) * RECORD_SIZE;
+        return true;
+    }
+
+    private void publish(byte kind) {
+        // La nature est écrite en dernier : un enregistrement incomplet n'est jamais relu
+        target.put(targetBase, kind);
+        appended++;
+        if (target == pending) {
+            pendingCount++;
+            return;
+        }
+        writeSlot++;
+        published = pack(head.id, writeSlot);
+    }
+
+    /**
+     * Recopie les alertes en attente dans le segment courant, tant qu'il y a de la place
+     */
+    private void drainPending() {
+        while (pendingCount > 0) {
+            if (writeSlot == head.capacity && !rotate()) {
+                return;
+            }
+            int base = writeSlot * RECORD_SIZE;
+            int from = pendingFirst * RECORD_SIZE;
+            head.buffer.put(base + 1, pending, from + 1, RECORD_SIZE - 1);
+            head.buffer.put(base, pending.get(from));
+            writeSlot++;
+            published = pack(head.id, writeSlot);
+            pendingFirst++;
+            pendingCount--;
+        }
+        pendingFirst = 0;
+    }
+
+    /**
+     * Ferme le segment courant et adopte le segment préparé par le thread de maintenance
+     * @return false si aucun segment n'est prêt
+     */
+    private boolean rotate() {
+        Segment next = spare.get();
+        if (next == null) {
+            return false;
+        }
+        spare.set(null);
+        if (segmentCount.get() >= maxSegments && overflowWarnings++ % 100 == 0) {
+            System.out.println("Journal d'alertes plein: dépassement de la limite pour une alerte feu");
+        }
+        head.end = writeSlot;
+        segments.put(next.id, next);
+        segmentCount.incrementAndGet();
+        head = next;
+        writeSlot = 0;
+        published = pack(head.id, 0);
+        LockSupport.unpark(maintainer);
+        return true;
+    }
+
+    /**
+     * Boucle du thread de maintenance : prépare le segment suivant et compacte près de la limite
+     */
+    private void maintain() {
+        while (!closed) {
+            prepareSpare();
+            if (segmentCount.get() >= maxSegments - 1) {
+                compact();
+            }
+            LockSupport.parkNanos(MAINTENANCE_PERIOD_NANOS);
+        }
+    }
+
+    /**
+     * Crée le segment qui suivra le segment courant, s'il n'est pas déjà prêt
+     */
+    private void prepareSpare() {
+        if (spare.get() != null) {
+            return;
+        }
+        try {
+            // Seul l'écrivain fait avancer le segment courant, et seulement en adoptant celui-ci
+            long id = (published >>> SLOT_BITS) + 1;
+            spare.set(Segment.create(segmentPath(id), id, segmentRecords));
+        } catch (IOException e) {
+            System.out.println("Erreur du journal d'alertes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ne garde que les alertes feu et les résumés des segments fermés qui n'ont pas encore été lus,
+     * regroupés sur place dans le moins de segments possible
+     */
+    private void compact() {
+        long headId = published >>> SLOT_BITS; // les segments précédents sont fermés
+        if (headId == compactedBefore) {
+            return;
+        }
+        lock.lock();
+        try {
+            List<Segment> sealed = new ArrayList<>(segments.subMap(readSegment, false, headId, false).values());
+            compactedBefore = headId;
+            if (sealed.isEmpty()) {
+                return;
+            }
+
+            // L'emplacement de destination ne dépasse jamais l'emplacement lu
+            int total = 0;
+            int kept = 0;
+            int index = 0;
+            Segment destination = sealed.get(0);
+            int slotOut = 0;
+            for (Segment source : sealed) {
+                total += source.end;
+                for (int slot = 0; slot < source.end; slot++) {
+                    int base = slot * RECORD_SIZE;
+                    if (source.buffer.get(base) == TELEMETRY) {
+                        continue;
+                    }
+                    if (slotOut == destination.capacity) {
+                        destination.end = slotOut;
+                        destination = sealed.get(++index);
+                        slotOut = 0;
+                    }
+                    if (destination != source || slotOut != slot) {
+                        destination.buffer.put(slotOut * RECORD_SIZE, source.buffer, base, RECORD_SIZE);
+                    }
+                    slotOut++;
+                    kept++;
+                }
+            }
+            destination.end = slotOut;
+            if (slotOut < destination.capacity) {
+                destination.buffer.put(slotOut * RECORD_SIZE, EMPTY);
+            }
+            for (int k = index + 1; k < sealed.size(); k++) {
+                delete(sealed.get(k));
+            }
+
+            compacted += total - kept;
+            removed += total - kept;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lit, sans les acquitter, les prochaines alertes du segment en cours de lecture
+     * @param max Nombre maximal d'alertes
+     * @param consumer Reçoit chaque enregistrement ; le contenu n'est valide que pendant l'appel
+     * @return Nombre d'alertes lues
+     */
+    public int read(int max, RecordConsumer consumer) {
+        lock.lock();
+        try {
+            Segment segment = readableSegment();
+            if (segment == null) {
+                return 0;
+            }
+            int end = Math.min(endOf(segment), readSlot + max);
+            ByteBuffer view = segment.buffer.duplicate();
+            for (int slot = readSlot; slot < end; slot++) {
+                int base = slot * RECORD_SIZE;
+                view.limit(base + PAYLOAD_OFFSET + PAYLOAD_SIZE).position(base + PAYLOAD_OFFSET);
+                consumer.accept(view.get(base), view);
+                view.clear();
+            }
+            return end - readSlot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquitte les alertes lues par le dernier appel à {@link #read}
+     * @param count Nombre d'alertes acquittées
+     */
+    public void acknowledge(int count) {
+        lock.lock();
+        try {
+            readSlot += count;
+            removed += count;
+            readableSegment(); // supprime le segment s'il est épuisé
+            storeCursor();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nombre d'alertes lisibles d'un seul tenant à la position de lecture
+     */
+    public int available() {
+        lock.lock();
+        try {
+            Segment segment = readableSegment();
+            return segment == null ? 0 : endOf(segment) - readSlot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Segment à lire, en passant les segments fermés entièrement acquittés (sous verrou)
+     */
+    private Segment readableSegment() {
+        long position = published;
+        long publishedSegment = position >>> SLOT_BITS;
+        while (true) {
+            Segment segment = segments.get(readSegment);
+            if (segment == null) {
+                Long next = segments.ceilingKey(readSegment);
+                if (next == null) {
+                    return null;
+                }
+                readSegment = next;
+                readSlot = 0;
+                continue;
+            }
+            if (segment.id < publishedSegment && readSlot >= segment.end) {
+                delete(segment);
+                readSegment = segment.id + 1;
+                readSlot = 0;
+                continue;
+            }
+            return segment;
+        }
+    }
+
+    private int endOf(Segment segment) {
+        long position = published;
+        return segment.id == position >>> SLOT_BITS ? (int) (position & ((1L << SLOT_BITS) - 1)) : segment.end;
+    }
+
+    /**
+     * Force l'écriture sur disque et ferme les fichiers
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(maintainer);
+        try {
+            maintainer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.close();
+            }
+            Segment unused = spare.getAndSet(null);
+            if (unused != null) {
+                unused.close();
+                Files.deleteIfExists(unused.path);
+            }
+            cursorFile.force();
+            cursorChannel.close();
+        } catch (IOException e) {
+            System.out.println("Erreur à la fermeture du journal d'alertes: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = Segment.create(segmentPath(id), id, segmentRecords);
+        segments.put(id, segment);
+        segmentCount.incrementAndGet();
+        return segment;
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.id);
+        segmentCount.decrementAndGet();
+        try {
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            System.out.println("Erreur du journal d'alertes: " + e.getMessage());
+        }
+    }
+
+    private void storeCursor() {
+        cursorFile.putLong(0, readSegment);
+        cursorFile.putInt(8, readSlot);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static long pack(long segmentId, int slot) {
+        return (segmentId << SLOT_BITS) | slot;
+    }
+
+    // Statistiques
+
+    /**
+     * Nombre d'alertes en attente d'acquittement
+     */
+    public long getPendingCount() {
+        return recovered + appended - removed;
+    }
+
+    /**
+     * Nombre de mesures refusées faute de place
+     */
+    public long getRefusedCount() {
+        return refused;
+    }
+
+    /**
+     * Nombre de mesures supprimées par compaction
+     */
+    public long getCompactedCount() {
+        return compacted;
+    }
+
+    /**
+     * Vrai si le segment suivant est prêt à être adopté
+     */
+    boolean isSpareReady() {
+        return spare.get() != null;
+    }
+
+    public int getSegmentCount() {
+        return segmentCount.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Un fichier de segment projeté en mémoire
+     */
+    private static final class Segment {
+        volatile long id;
+        volatile Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        volatile int end; // nombre d'enregistrements, une fois le segment fermé
+
+        private Segment(Path path, long id, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment create(Path path, long id, int records) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+            return new Segment(path, id, channel, buffer, records);
+        }
+
+        static Segment open(Path path, long id) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int records = (int) Math.min(MAX_SEGMENT_RECORDS, channel.size() / RECORD_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+            return new Segment(path, id, channel, buffer, records);
+        }
+
+        /**
+         * Position du premier emplacement vide
+         */
+        int scanEnd() {
+            for (int slot = 0; slot < capacity; slot++) {
+                if (buffer.get(slot * RECORD_SIZE) == EMPTY) {
+                    return slot;
+                }
+            }
+            return capacity;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.alertfire.communication;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Résumé des alertes feu d'une zone pendant une fenêtre de temps (voir {@link AlertAggregator}).
+ *
+ * L'objet est mutable et réutilisé ; il se code sur {@link #ENCODED_SIZE} octets :
+ * <pre>
+ *  0-15   UUID du projet ayant mesuré la température maximale
+ *  16-19  ligne et colonne de la zone (16 bits chacune)
+ *  20-27  début et fin de la fenêtre, en dixièmes de seconde
+ *  28-31  nombre d'alertes, nombre estimé de projets distincts (16 bits chacun)
+ *  32-39  température max et moyenne (dixièmes de degré, signé), CO2 max et moyen (ppm)
+ *  40     nombre d'identifiants listés
+ *  41-58  identifiants courts des premiers projets contributeurs (24 bits chacun)
+ * </pre>
+ */
+public class AlertSummary {
+
+    public static final int MAX_LISTED_DEVICES = 6;
+    public static final int ENCODED_SIZE = 41 + 3 * MAX_LISTED_DEVICES;
+
+    private UUID hottestDevice;
+    private int clusterRow;
+    private int clusterCol;
+    private long windowStartTenths;
+    private long windowEndTenths;
+    private int alertCount;
+    private int deviceCount;
+    private int maxTemperatureTenths;
+    private int meanTemperatureTenths;
+    private int maxCO2;
+    private int meanCO2;
+    private int listedCount;
+    private final int[] deviceIds = new int[MAX_LISTED_DEVICES];
+
+    /**
+     * Code le résumé dans le tampon, à sa position courante
+     */
+    public void encode(ByteBuffer buffer) {
+        if (buffer.remaining() < ENCODED_SIZE) {
+            throw new BufferOverflowException();
+        }
+        buffer.putLong(hottestDevice.getMostSignificantBits());
+        buffer.putLong(hottestDevice.getLeastSignificantBits());
+        buffer.putShort((short) LoRaFrameCodec.clamp(clusterRow, 0, 0xFFFF));
+        buffer.putShort((short) LoRaFrameCodec.clamp(clusterCol, 0, 0xFFFF));
+        buffer.putInt((int) Math.max(0, Math.min(0xFFFFFFFFL, windowStartTenths)));
+        buffer.putInt((int) Math.max(0, Math.min(0xFFFFFFFFL, windowEndTenths)));
+        buffer.putShort((short) LoRaFrameCodec.clamp(alertCount, 0, 0xFFFF));
+        buffer.putShort((short) LoRaFrameCodec.clamp(deviceCount, 0, 0xFFFF));
+        buffer.putShort((short) LoRaFrameCodec.clamp(maxTemperatureTenths, Short.MIN_VALUE, Short.MAX_VALUE));
+        buffer.putShort((short) LoRaFrameCodec.clamp(meanTemperatureTenths, Short.MIN_VALUE, Short.MAX_VALUE));
+        buffer.putShort((short) LoRaFrameCodec.clamp(maxCO2, 0, 0xFFFF));
+        buffer.putShort((short) LoRaFrameCodec.clamp(meanCO2, 0, 0xFFFF));
+        buffer.put((byte) listedCount);
+        for (int k = 0; k < MAX_LISTED_DEVICES; k++) {
+            int id = k < listedCount ? deviceIds[k] : 0;
+            buffer.put((byte) (id >>> 16));
+            buffer.putShort((short) id);
+        }
+    }
+
+    /**
+     * Relit un résumé codé, à la position courante du tampon
+     */
+    public void decode(ByteBuffer buffer) {
+        if (buffer.remaining() < ENCODED_SIZE) {
+            throw new BufferUnderflowException();
+        }
+        hottestDevice = new UUID(buffer.getLong(), buffer.getLong());
+        clusterRow = buffer.getShort() & 0xFFFF;
+        clusterCol = buffer.getShort() & 0xFFFF;
+        windowStartTenths = buffer.getInt() & 0xFFFFFFFFL;
+        windowEndTenths = buffer.getInt() & 0xFFFFFFFFL;
+        alertCount = buffer.getShort() & 0xFFFF;
+        deviceCount = buffer.getShort() & 0xFFFF;
+        maxTemperatureTenths = buffer.getShort();
+        meanTemperatureTenths = buffer.getShort();
+        maxCO2 = buffer.getShort() & 0xFFFF;
+        meanCO2 = buffer.getShort() & 0xFFFF;
+        listedCount = Math.min(MAX_LISTED_DEVICES, buffer.get() & 0xFF);
+        for (int k = 0; k < MAX_LISTED_DEVICES; k++) {
+            deviceIds[k] = ((buffer.get() & 0xFF) << 16) | (buffer.getShort() & 0xFFFF);
+        }
+    }
+
+    /**
+     * Ajoute la représentation JSON du résumé, pour le backend
+     */
+    public StringBuilder appendJson(StringBuilder out) {
+        out.append("{\"type\":\"fire_summary\",\"uuid\":\"").append(hottestDevice).append('"')
+                .append(",\"cluster_row\":").append(clusterRow)
+                .append(",\"cluster_col\":").append(clusterCol)
+                .append(",\"window_start\":");
+        LoRaFrameCodec.appendTenths(out, windowStartTenths);
+        out.append(",\"window_end\":");
+        LoRaFrameCodec.appendTenths(out, windowEndTenths);
+        out.append(",\"alerts\":").append(alertCount)
+                .append(",\"devices\":").append(deviceCount)
+                .append(",\"device_ids\":[");
+        for (int k = 0; k < listedCount; k++) {
+            if (k > 0) out.append(',');
+            out.append(deviceIds[k]);
+        }
+        out.append("],\"temperature_max\":");
+        LoRaFrameCodec.appendTenths(out, maxTemperatureTenths);
+        out.append(",\"temperature_mean\":");
+        LoRaFrameCodec.appendTenths(out, meanTemperatureTenths);
+        out.append(",\"co2_max\":").append(maxCO2)
+                .append(",\"co2_mean\":").append(meanCO2);
+        return out.append(",\"fire_detected\":true,\"source\":\"simulated\"}");
+    }
+
+    // Getters et setters
+
+    public UUID getHottestDevice() {
+        return hottestDevice;
+    }
+
+    public void setHottestDevice(UUID hottestDevice) {
+        this.hottestDevice = hottestDevice;
+    }
+
+    public int getClusterRow() {
+        return clusterRow;
+    }
+
+    public int getClusterCol() {
+        return clusterCol;
+    }
+
+    public void setCluster(int clusterRow, int clusterCol) {
+        this.clusterRow = clusterRow;
+        this.clusterCol = clusterCol;
+    }
+
+    public long getWindowStartTenths() {
+        return windowStartTenths;
+    }
+
+    public long getWindowEndTenths() {
+        return windowEndTenths;
+    }
+
+    public void setWindow(double start, double end) {
+        this.windowStartTenths = Math.round(start * 10.0);
+        this.windowEndTenths = Math.round(end * 10.0);
+    }
+
+    public int getAlertCount() {
+        return alertCount;
+    }
+
+    public void setAlertCount(int alertCount) {
+        this.alertCount = alertCount;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    public void setDeviceCount(int deviceCount) {
+        this.deviceCount = deviceCount;
+    }
+
+    public double getMaxTemperature() {
+        return maxTemperatureTenths / 10.0;
+    }
+
+    public double getMeanTemperature() {
+        return meanTemperatureTenths / 10.0;
+    }
+
+    public void setTemperatures(double max, double mean) {
+        this.maxTemperatureTenths = (int) Math.round(max * 10.0);
+        this.meanTemperatureTenths = (int) Math.round(mean * 10.0);
+    }
+
+    public int getMaxCO2() {
+        return maxCO2;
+    }
+
+    public int getMeanCO2() {
+        return meanCO2;
+    }
+
+    public void setCO2Levels(double max, double mean) {
+        this.maxCO2 = (int) Math.round(max);
+        this.meanCO2 = (int) Math.round(mean);
+    }
+
+    public int getListedCount() {
+        return listedCount;
+    }
+
+    public int getDeviceId(int k) {
+        return deviceIds[k];
+    }
+
+    /**
+     * Remplace la liste des identifiants de projets contributeurs (tronquée à {@link #MAX_LISTED_DEVICES})
+     */
+    public void setDeviceIds(int[] ids, int count) {
+        listedCount = Math.min(MAX_LISTED_DEVICES, count);
+        System.arraycopy(ids, 0, deviceIds, 0, listedCount);
+    }
+}
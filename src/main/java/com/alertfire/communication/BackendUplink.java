@@ -0,0 +1,320 @@
+package com.alertfire.communication;
+
+import com.alertfire.config.SimulationConfig;
+import com.alertfire.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Liaison asynchrone vers le backend.
+ *
+ * Les alertes sont d'abord écrites dans un journal persistant ({@link AlertOutbox}), sans
+ * jamais bloquer l'appelant. Un unique thread les relit par fenêtre de temps, les traduit
+ * en JSON et les envoie en un seul POST (tableau JSON), via un {@link HttpClient} partagé
+ * qui garde ses connexions ouvertes. Un lot n'est retiré du journal qu'à la réponse 2xx ;
+ * tant que le backend est injoignable ou répond 5xx, 408 ou 429, il est renvoyé avec un
+ * délai exponentiel, et les alertes restantes repartent dans l'ordre au retour du backend
+ * ou au redémarrage. Un lot refusé définitivement (autre réponse 4xx) est retiré du journal
+ * et compté, pour ne pas bloquer les alertes suivantes.
+ */
+public class BackendUplink {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    private static final long BASE_BACKOFF_MS = 200;
+    private static final long MAX_BACKOFF_MS = 5000;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final URI endpoint;
+    private final AlertOutbox outbox;
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+
+    private volatile boolean running = false;
+    private Thread worker;
+
+    // Traduction des trames en JSON (thread d'envoi)
+    private final LoRaFrame frame = new LoRaFrame();
+    private final AlertSummary summary = new AlertSummary();
+    private final StringBuilder body = new StringBuilder(4096);
+
+    // Statistiques
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long sentAlerts = 0;
+    private volatile long sentBatches = 0;
+    private volatile long failedAlerts = 0;
+    private volatile long rejectedAlerts = 0;
+    private volatile long retries = 0;
+
+    /**
+     * @param endpoint URL du backend
+     * @param config Paramètres du journal et de la fenêtre de regroupement
+     */
+    public BackendUplink(URI endpoint, SimulationConfig config) {
+        this.endpoint = endpoint;
+        this.batchWindowMs = config.getUplinkBatchWindowMs();
+        this.maxBatchSize = config.getUplinkMaxBatchSize();
+        try {
+            this.outbox = new AlertOutbox(Path.of(config.getOutboxDirectory()),
+                    config.getOutboxSegmentRecords(), config.getOutboxMaxSegments());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'ouvrir le journal d'alertes", e);
+        }
+    }
+
+    /**
+     * Démarre le thread d'envoi
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "backend-uplink");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Arrête le thread d'envoi ; les alertes non acquittées restent dans le journal
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        outbox.close();
+    }
+
+    /**
+     * Dépose une alerte à envoyer, sans bloquer
+     * @param uuid UUID du projet émetteur
+     * @param frame Trame codée de l'alerte, à partir de sa position
+     * @param fire Vrai pour une alerte feu, jamais refusée
+     * @return false si le journal est plein et la mesure refusée
+     */
+    public boolean offer(UUID uuid, ByteBuffer frame, boolean fire) {
+        if (outbox.append(uuid, frame, fire)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Dépose un résumé d'incendie à envoyer, sans bloquer ; jamais refusé faute de place
+     * @param encoded Résumé codé, à partir de sa position
+     */
+    public boolean offerSummary(ByteBuffer encoded) {
+        if (outbox.appendSummary(encoded)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Recopie dans le journal les alertes feu mises en attente faute de segment prêt
+     * (thread de simulation)
+     */
+    public void flush() {
+        outbox.flushPending();
+    }
+
+    private void run() {
+        long firstPending = -1;
+        while (running) {
+            try {
+                int available = outbox.available();
+                if (available == 0) {
+                    firstPending = -1;
+                    LockSupport.parkNanos(IDLE_POLL_NANOS);
+                    continue;
+                }
+
+                // Attendre la fin de la fenêtre de regroupement, ou un lot complet
+                long now = System.nanoTime();
+                if (firstPending < 0) {
+                    firstPending = now;
+                }
+                if (available < maxBatchSize
+                        && now - firstPending < TimeUnit.MILLISECONDS.toNanos(batchWindowMs)) {
+                    LockSupport.parkNanos(IDLE_POLL_NANOS);
+                    continue;
+                }
+
+                sendWithRetry();
+                firstPending = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (Thread.interrupted()) {
+                return;
+            }
+        }
+    }
+
+    private void sendWithRetry() throws InterruptedException {
+        body.setLength(0);
+        body.append('[');
+        int count = outbox.read(maxBatchSize, this::appendRecord);
+        body.append(']');
+        if (count == 0) {
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        for (int attempt = 0; running; attempt++) {
+            if (attempt > 0) {
+                retries++;
+                Thread.sleep(backoff(attempt));
+            }
+            String error;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                synchronized (sendLatency) {
+                    sendLatency.record(micros);
+                }
+                if (response.statusCode() / 100 == 2) {
+                    outbox.acknowledge(count);
+                    sentAlerts += count;
+                    sentBatches++;
+                    if (attempt > 0) {
+                        System.out.println("Backend de nouveau joignable, reprise de l'envoi");
+                    }
+                    return;
+                }
+                if (!isRetryable(response.statusCode())) {
+                    outbox.acknowledge(count);
+                    rejectedAlerts += count;
+                    System.out.println("Lot refusé par le backend (HTTP " + response.statusCode() + "), "
+                            + count + " alertes abandonnées");
+                    return;
+                }
+                error = "HTTP " + response.statusCode();
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+
+            if (attempt == 0) {
+                failedAlerts += count;
+                System.out.println("Erreur d'envoi au backend (" + count + " alertes conservées): " + error);
+            }
+        }
+    }
+
+    private void appendRecord(byte kind, ByteBuffer payload) {
+        if (body.length() > 1) {
+            body.append(',');
+        }
+        if (kind == AlertOutbox.SUMMARY) {
+            summary.decode(payload);
+            summary.appendJson(body);
+            return;
+        }
+        // Le maître décode la trame reçue et la traduit en JSON pour le backend
+        UUID uuid = new UUID(payload.getLong(), payload.getLong());
+        LoRaFrameCodec.decode(payload, frame);
+        LoRaFrameCodec.appendJson(frame, uuid, body);
+    }
+
+    /**
+     * Vrai si une réponse d'erreur peut réussir au prochain essai : erreurs serveur,
+     * délai dépassé (408) et limitation de débit (429)
+     */
+    static boolean isRetryable(int status) {
+        return status / 100 != 4 || status == 408 || status == 429;
+    }
+
+    private static long backoff(int attempt) {
+        long delay = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+        // Gigue pour éviter que plusieurs liaisons ne réessaient en même temps
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    // Statistiques
+
+    /**
+     * Nombre d'alertes en attente d'envoi
+     */
+    public long getQueueDepth() {
+        return outbox.getPendingCount();
+    }
+
+    public AlertOutbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Copie de l'histogramme des durées des requêtes POST, en microsecondes
+     */
+    public LatencyHistogram getSendLatency() {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (sendLatency) {
+            copy.add(sendLatency);
+        }
+        return copy;
+    }
+
+    public long getSentAlerts() {
+        return sentAlerts;
+    }
+
+    public long getSentBatches() {
+        return sentBatches;
+    }
+
+    public long getFailedAlerts() {
+        return failedAlerts;
+    }
+
+    /**
+     * Nombre d'alertes abandonnées parce que le backend a refusé leur lot (réponse 4xx)
+     */
+    public long getRejectedAlerts() {
+        return rejectedAlerts;
+    }
+
+    public long getDroppedAlerts() {
+        return dropped.get();
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,165 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bus d'événements LoRa sur un tampon circulaire préalloué.
+ *
+ * Un seul thread publie (la simulation) ; la publication écrit dans l'emplacement
+ * suivant et ne bloque jamais, quitte à écraser le plus ancien message. Chaque abonné
+ * lit à son rythme sur son propre thread, avec sa propre position. Un abonné trop lent
+ * pour suivre est dépassé : il saute alors directement au plus ancien message encore
+ * présent, et les messages perdus sont comptés. La mémoire utilisée ne dépend donc pas
+ * de la vitesse des abonnés.
+ */
+public class LoRaEventBus {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Slot[] slots;
+    private final int mask;
+    private volatile long cursor = -1; // dernière séquence publiée
+
+    /**
+     * @param capacity Nombre d'emplacements, arrondi à la puissance de deux supérieure ou égale (au moins 2)
+     */
+    public LoRaEventBus(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Publie un message (un seul thread publicateur)
+     */
+    public void publish(LoRaMessage message) {
+        long sequence = cursor + 1;
+        Slot slot = slots[(int) (sequence & mask)];
+        // Emplacement marqué en cours d'écriture pour qu'un abonné dépassé le rejette
+        slot.sequence = -1;
+        slot.message = message;
+        slot.sequence = sequence;
+        cursor = sequence;
+    }
+
+    /**
+     * Abonne un écouteur, exécuté sur son propre thread
+     * @param name Nom de l'abonné (nom du thread)
+     * @param handler Traitement des messages
+     */
+    public Subscription subscribe(String name, Consumer<LoRaMessage> handler) {
+        Subscription subscription = new Subscription(name, handler, cursor + 1);
+        subscription.start();
+        return subscription;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Nombre total de messages publiés
+     */
+    public long getPublishedCount() {
+        return cursor + 1;
+    }
+
+    private static final class Slot {
+        volatile long sequence = -1;
+        volatile LoRaMessage message;
+    }
+
+    /**
+     * Un abonné du bus et son thread de lecture
+     */
+    public final class Subscription {
+        private final String name;
+        private final Consumer<LoRaMessage> handler;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private long next;
+
+        private volatile long processed = 0;
+        private volatile long skipped = 0;
+
+        private Subscription(String name, Consumer<LoRaMessage> handler, long start) {
+            this.name = name;
+            this.handler = handler;
+            this.next = start;
+            this.thread = new Thread(this::run, "lora-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void run() {
+            while (running) {
+                long available = cursor;
+                if (next > available) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                while (next <= available && running) {
+                    // Dépassé par le publicateur : reprendre au plus ancien message présent
+                    long oldest = cursor - mask;
+                    if (next < oldest) {
+                        skipped += oldest - next;
+                        next = oldest;
+                    }
+                    Slot slot = slots[(int) (next & mask)];
+                    long before = slot.sequence;
+                    LoRaMessage message = slot.message;
+                    if (before != next || slot.sequence != next) {
+                        continue; // écrasé pendant la lecture
+                    }
+                    next++;
+                    try {
+                        handler.accept(message);
+                    } catch (RuntimeException e) {
+                        System.out.println("Erreur de l'abonné " + name + ": " + e.getMessage());
+                    }
+                    processed++;
+                }
+            }
+        }
+
+        /**
+         * Arrête le thread de lecture
+         */
+        public void close() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getProcessedCount() {
+            return processed;
+        }
+
+        /**
+         * Nombre de messages perdus parce que l'abonné a été dépassé
+         */
+        public long getSkippedCount() {
+            return skipped;
+        }
+
+        /**
+         * Nombre de messages publiés pas encore lus
+         */
+        public long getLag() {
+            return Math.max(0, cursor + 1 - next);
+        }
+    }
+}
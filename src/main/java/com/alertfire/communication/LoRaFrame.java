@@ -0,0 +1,111 @@
+package com.alertfire.communication;
+
+/**
+ * Contenu décodé d'une trame LoRa binaire (voir {@link LoRaFrameCodec}).
+ * L'objet est mutable pour être réutilisé d'un décodage à l'autre.
+ */
+public class LoRaFrame {
+    private int deviceId;
+    private int sequence;
+    private boolean fireDetected;
+    private boolean master;
+    private int temperatureTenths;
+    private int co2Level;
+    private int row;
+    private int col;
+    private long simulationTimeTenths;
+    private int hopCount;
+
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(int deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isFireDetected() {
+        return fireDetected;
+    }
+
+    public void setFireDetected(boolean fireDetected) {
+        this.fireDetected = fireDetected;
+    }
+
+    public boolean isMaster() {
+        return master;
+    }
+
+    public void setMaster(boolean master) {
+        this.master = master;
+    }
+
+    /**
+     * Température en dixièmes de degré
+     */
+    public int getTemperatureTenths() {
+        return temperatureTenths;
+    }
+
+    public void setTemperatureTenths(int temperatureTenths) {
+        this.temperatureTenths = temperatureTenths;
+    }
+
+    public double getTemperature() {
+        return temperatureTenths / 10.0;
+    }
+
+    /**
+     * Niveau de CO2 en ppm
+     */
+    public int getCO2Level() {
+        return co2Level;
+    }
+
+    public void setCO2Level(int co2Level) {
+        this.co2Level = co2Level;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public void setCol(int col) {
+        this.col = col;
+    }
+
+    /**
+     * Temps simulé d'émission en dixièmes de seconde
+     */
+    public long getSimulationTimeTenths() {
+        return simulationTimeTenths;
+    }
+
+    public void setSimulationTimeTenths(long simulationTimeTenths) {
+        this.simulationTimeTenths = simulationTimeTenths;
+    }
+
+    public int getHopCount() {
+        return hopCount;
+    }
+
+    public void setHopCount(int hopCount) {
+        this.hopCount = hopCount;
+    }
+}
@@ -0,0 +1,184 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Codage binaire des messages LoRa, sur une trame de taille fixe.
+ *
+ * Format (octets, gros-boutiste) :
+ * <pre>
+ *  0      version (4 bits hauts) et drapeaux (bit 0 : feu détecté, bit 1 : maître)
+ *  1-3    identifiant court du projet (24 bits)
+ *  4-5    numéro de séquence (16 bits, rebouclé)
+ *  6-7    température en dixièmes de degré (signé)
+ *  8-9    CO2 en ppm
+ *  10-11  ligne
+ *  12-13  colonne
+ *  14-17  temps simulé d'émission en dixièmes de seconde
+ *  18     nombre de sauts radio
+ * </pre>
+ * Les valeurs hors plage sont saturées. Le codage et le décodage lisent et écrivent
+ * directement dans un {@link ByteBuffer} fourni par l'appelant, à sa position courante,
+ * et dans un {@link LoRaFrame} réutilisable : aucune allocation par message.
+ */
+public final class LoRaFrameCodec {
+
+    public static final int FRAME_SIZE = 19;
+    public static final int VERSION = 1;
+
+    private static final int FLAG_FIRE = 0x01;
+    private static final int FLAG_MASTER = 0x02;
+
+    // Paramètres radio pour l'estimation du temps d'antenne (EU868, 125 kHz, CR 4/5)
+    private static final double BANDWIDTH_HZ = 125_000.0;
+    private static final int PREAMBLE_SYMBOLS = 8;
+    private static final int CODING_RATE = 1;
+
+    private LoRaFrameCodec() {
+    }
+
+    /**
+     * Code un message dans le tampon, à sa position courante
+     * @param message Message à coder
+     * @param deviceId Identifiant court du projet émetteur
+     * @param sequence Numéro de séquence du projet émetteur
+     * @param isMaster Vrai si l'émetteur est un maître
+     * @param buffer Tampon de destination (au moins {@link #FRAME_SIZE} octets restants)
+     */
+    public static void encode(LoRaMessage message, int deviceId, int sequence, boolean isMaster, ByteBuffer buffer) {
+        writeFrame(buffer,
+                flags(message.isFireDetected(), isMaster),
+                deviceId,
+                sequence,
+                (int) Math.round(message.getTemperature() * 10.0),
+                (int) Math.round(message.getCO2Level()),
+                message.getRow(),
+                message.getCol(),
+                Math.round(message.getSimulationTime() * 10.0),
+                message.getHopCount());
+    }
+
+    /**
+     * Code une trame déjà décodée (par exemple pour la relayer)
+     */
+    public static void encode(LoRaFrame frame, ByteBuffer buffer) {
+        writeFrame(buffer,
+                flags(frame.isFireDetected(), frame.isMaster()),
+                frame.getDeviceId(),
+                frame.getSequence(),
+                frame.getTemperatureTenths(),
+                frame.getCO2Level(),
+                frame.getRow(),
+                frame.getCol(),
+                frame.getSimulationTimeTenths(),
+                frame.getHopCount());
+    }
+
+    /**
+     * Décode une trame lue à la position courante du tampon
+     * @param buffer Tampon source
+     * @param frame Trame à remplir
+     * @throws IllegalArgumentException si la version n'est pas reconnue
+     */
+    public static void decode(ByteBuffer buffer, LoRaFrame frame) {
+        if (buffer.remaining() < FRAME_SIZE) {
+            throw new BufferUnderflowException();
+        }
+        int header = buffer.get() & 0xFF;
+        if ((header >>> 4) != VERSION) {
+            throw new IllegalArgumentException("Version de trame LoRa inconnue: " + (header >>> 4));
+        }
+        frame.setFireDetected((header & FLAG_FIRE) != 0);
+        frame.setMaster((header & FLAG_MASTER) != 0);
+        frame.setDeviceId(((buffer.get() & 0xFF) << 16) | (buffer.getShort() & 0xFFFF));
+        frame.setSequence(buffer.getShort() & 0xFFFF);
+        frame.setTemperatureTenths(buffer.getShort());
+        frame.setCO2Level(buffer.getShort() & 0xFFFF);
+        frame.setRow(buffer.getShort() & 0xFFFF);
+        frame.setCol(buffer.getShort() & 0xFFFF);
+        frame.setSimulationTimeTenths(buffer.getInt() & 0xFFFFFFFFL);
+        frame.setHopCount(buffer.get() & 0xFF);
+    }
+
+    /**
+     * Ajoute la représentation JSON d'une trame, pour le backend
+     * @param frame Trame décodée
+     * @param uuid UUID du projet émetteur, résolu par le maître à partir de l'identifiant court
+     * @param out Destination
+     */
+    public static StringBuilder appendJson(LoRaFrame frame, UUID uuid, StringBuilder out) {
+        out.append("{\"uuid\":\"").append(uuid).append('"')
+                .append(",\"device_id\":").append(frame.getDeviceId())
+                .append(",\"sequence\":").append(frame.getSequence())
+                .append(",\"row\":").append(frame.getRow())
+                .append(",\"col\":").append(frame.getCol())
+                .append(",\"temperature\":");
+        appendTenths(out, frame.getTemperatureTenths());
+        out.append(",\"co2_level\":").append(frame.getCO2Level())
+                .append(",\"fire_detected\":").append(frame.isFireDetected())
+                .append(",\"hops\":").append(frame.getHopCount())
+                .append(",\"simulation_time\":");
+        appendTenths(out, frame.getSimulationTimeTenths());
+        return out.append(",\"source\":\"simulated\"}");
+    }
+
+    /**
+     * Temps d'antenne d'une trame LoRa (formule Semtech, en-tête explicite, CRC actif)
+     * @param payloadBytes Taille de la charge utile en octets
+     * @param spreadingFactor Facteur d'étalement (7 à 12)
+     * @return Durée d'émission en secondes
+     */
+    public static double airtimeSeconds(int payloadBytes, int spreadingFactor) {
+        double symbolTime = (1 << spreadingFactor) / BANDWIDTH_HZ;
+        int lowDataRate = spreadingFactor >= 11 ? 1 : 0;
+        double numerator = 8.0 * payloadBytes - 4.0 * spreadingFactor + 28 + 16;
+        double payloadSymbols = 8 + Math.max(
+                Math.ceil(numerator / (4.0 * (spreadingFactor - 2 * lowDataRate))) * (CODING_RATE + 4), 0);
+        return (PREAMBLE_SYMBOLS + 4.25 + payloadSymbols) * symbolTime;
+    }
+
+    private static int flags(boolean fireDetected, boolean isMaster) {
+        return (VERSION << 4) | (fireDetected ? FLAG_FIRE : 0) | (isMaster ? FLAG_MASTER : 0);
+    }
+
+    private static void writeFrame(ByteBuffer buffer, int header, int deviceId, int sequence,
+                                   int temperatureTenths, int co2, int row, int col,
+                                   long timeTenths, int hops) {
+        if (buffer.remaining() < FRAME_SIZE) {
+            throw new BufferOverflowException();
+        }
+        buffer.put((byte) header);
+        buffer.put((byte) (deviceId >>> 16));
+        buffer.putShort((short) deviceId);
+        buffer.putShort((short) sequence);
+        buffer.putShort((short) clamp(temperatureTenths, Short.MIN_VALUE, Short.MAX_VALUE));
+        buffer.putShort((short) clamp(co2, 0, 0xFFFF));
+        buffer.putShort((short) clamp(row, 0, 0xFFFF));
+        buffer.putShort((short) clamp(col, 0, 0xFFFF));
+        buffer.putInt((int) Math.max(0, Math.min(0xFFFFFFFFL, timeTenths)));
+        buffer.put((byte) clamp(hops, 0, 0xFF));
+    }
+
+    /**
+     * Borne une valeur avant de la réduire à la taille de son champ
+     */
+    static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Écrit une valeur en dixièmes sous forme décimale, sans passer par un double
+     */
+    static void appendTenths(StringBuilder out, long tenths) {
+        if (tenths < 0) {
+            out.append('-');
+            tenths = -tenths;
+        }
+        out.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
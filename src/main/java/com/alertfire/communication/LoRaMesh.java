@@ -0,0 +1,299 @@
+package com.alertfire.communication;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Réseau maillé LoRa entre les projets.
+ *
+ * Un esclave n'atteint pas directement le récepteur : son message est relayé de voisin
+ * en voisin jusqu'au maître le plus proche en nombre de sauts. Les voisins (projets à
+ * portée radio) sont trouvés grâce à une table de hachage spatiale dont les cases ont la
+ * taille de la portée : seules les 9 cases autour d'un projet sont examinées. Les routes
+ * sont calculées par un parcours en largeur partant de tous les maîtres à la fois, puis
+ * gardées en cache jusqu'au prochain ajout ou retrait de projet.
+ *
+ * Les projets sont désignés par leur indice dans le {@code SensorArray}.
+ */
+public class LoRaMesh {
+
+    private static final int MAX_TRACKED_HOPS = 32;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double rangeSq;
+    private final int bucketSize;
+
+    // Projets
+    private int size = 0;
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int[] cols = new int[INITIAL_CAPACITY];
+    private boolean[] master = new boolean[INITIAL_CAPACITY];
+    private long version = 0;
+
+    // Routes en cache
+    private long routedVersion = -1;
+    private int[] hops = new int[0];
+    private int[] nextHop = new int[0];
+    private int[] neighbourStart = new int[1];
+    private int[] neighbours = new int[0];
+    private int reachable = 0;
+
+    // Statistiques de livraison
+    private long sent = 0;
+    private long delivered = 0;
+    private final long[] deliveredByHops = new long[MAX_TRACKED_HOPS + 1];
+
+    /**
+     * @param rangeCells Portée radio, en cellules
+     */
+    public LoRaMesh(double rangeCells) {
+        this.rangeSq = rangeCells * rangeCells;
+        this.bucketSize = Math.max(1, (int) Math.ceil(rangeCells));
+    }
+
+    /**
+     * Ajoute ou remplace un projet ; les routes seront recalculées
+     */
+    public void addNode(int index, int row, int col, boolean isMaster) {
+        if (index >= rows.length) {
+            int capacity = Math.max(index + 1, rows.length * 2);
+            rows = Arrays.copyOf(rows, capacity);
+            cols = Arrays.copyOf(cols, capacity);
+            master = Arrays.copyOf(master, capacity);
+        }
+        rows[index] = row;
+        cols[index] = col;
+        master[index] = isMaster;
+        size = Math.max(size, index + 1);
+        version++;
+    }
+
+    /**
+     * Retire les projets d'indice supérieur ou égal à {@code newSize}
+     */
+    public void truncate(int newSize) {
+        if (newSize < size) {
+            size = newSize;
+            version++;
+        }
+    }
+
+    /**
+     * Cherche la route d'un message jusqu'à un maître et le compte comme envoyé
+     * @param device Indice du projet émetteur (négatif : émetteur hors réseau, livré directement)
+     * @return Nombre de sauts, ou -1 si aucun maître n'est joignable
+     */
+    public int route(int device) {
+        sent++;
+        if (device < 0) {
+            return 0;
+        }
+        ensureRoutes();
+        return device < size ? hops[device] : -1;
+    }
+
+    /**
+     * Compte un message arrivé jusqu'à un maître
+     * @param hops Nombre de sauts effectués
+     */
+    public void recordDelivered(int hops) {
+        delivered++;
+        deliveredByHops[Math.min(MAX_TRACKED_HOPS, hops)]++;
+    }
+
+    /**
+     * Vrai si les deux projets sont à portée radio l'un de l'autre
+     */
+    public boolean inRange(int a, int b) {
+        int dr = rows[a] - rows[b];
+        int dc = cols[a] - cols[b];
+        return (double) dr * dr + (double) dc * dc <= rangeSq;
+    }
+
+    /**
+     * Distance entre deux projets rapportée à la portée radio (0 à 1 pour deux voisins)
+     */
+    public double rangeFraction(int a, int b) {
+        int dr = rows[a] - rows[b];
+        int dc = cols[a] - cols[b];
+        return Math.sqrt(((double) dr * dr + (double) dc * dc) / rangeSq);
+    }
+
+    /**
+     * Nombre de sauts entre un projet et son maître (-1 si injoignable)
+     */
+    public int getHops(int device) {
+        ensureRoutes();
+        return hops[device];
+    }
+
+    /**
+     * Projet suivant sur la route vers le maître (-1 pour un maître ou un projet injoignable)
+     */
+    public int getNextHop(int device) {
+        ensureRoutes();
+        return nextHop[device];
+    }
+
+    /**
+     * Nombre de projets ayant une route vers un maître
+     */
+    public int getReachableCount() {
+        ensureRoutes();
+        return reachable;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Recalcule les voisinages et les routes si des projets ont changé
+     */
+    private void ensureRoutes() {
+        if (routedVersion == version) {
+            return;
+        }
+        buildNeighbours();
+        buildRoutes();
+        routedVersion = version;
+    }
+
+    /**
+     * Listes de voisins (format compact : début de liste par projet, puis voisins)
+     */
+    private void buildNeighbours() {
+        // Table de hachage spatiale, chaînée par projet
+        int tableSize = Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1;
+        int[] head = new int[tableSize];
+        int[] next = new int[size];
+        Arrays.fill(head, -1);
+        for (int i = 0; i < size; i++) {
+            int slot = slotOf(Math.floorDiv(rows[i], bucketSize), Math.floorDiv(cols[i], bucketSize), tableSize);
+            next[i] = head[slot];
+            head[slot] = i;
+        }
+
+        // Deux passes : compter, puis remplir
+        neighbourStart = new int[size + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                int bucketRow = Math.floorDiv(rows[i], bucketSize);
+                int bucketCol = Math.floorDiv(cols[i], bucketSize);
+                int count = 0;
+                for (int br = bucketRow - 1; br <= bucketRow + 1; br++) {
+                    for (int bc = bucketCol - 1; bc <= bucketCol + 1; bc++) {
+                        for (int j = head[slotOf(br, bc, tableSize)]; j != -1; j = next[j]) {
+                            // Écarter les projets d'une autre case tombés dans la même chaîne
+                            if (j == i || Math.floorDiv(rows[j], bucketSize) != br
+                                    || Math.floorDiv(cols[j], bucketSize) != bc) continue;
+                            int dr = rows[i] - rows[j];
+                            int dc = cols[i] - cols[j];
+                            if ((double) dr * dr + (double) dc * dc <= rangeSq) {
+                                if (pass == 1) {
+                                    neighbours[neighbourStart[i] + count] = j;
+                                }
+                                count++;
+                            }
+                        }
+                    }
+                }
+                if (pass == 0) {
+                    neighbourStart[i] = total;
+                }
+                total += count;
+            }
+            if (pass == 0) {
+                neighbourStart[size] = total;
+                neighbours = new int[total];
+            }
+        }
+    }
+
+    /**
+     * Parcours en largeur depuis tous les maîtres
+     */
+    private void buildRoutes() {
+        hops = new int[size];
+        nextHop = new int[size];
+        Arrays.fill(hops, -1);
+        Arrays.fill(nextHop, -1);
+
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (master[i]) {
+                hops[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        for (int headIndex = 0; headIndex < tail; headIndex++) {
+            int u = queue[headIndex];
+            for (int k = neighbourStart[u]; k < neighbourStart[u + 1]; k++) {
+                int v = neighbours[k];
+                if (hops[v] < 0) {
+                    hops[v] = hops[u] + 1;
+                    nextHop[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        reachable = tail;
+    }
+
+    private static int slotOf(int bucketRow, int bucketCol, int tableSize) {
+        int h = bucketRow * 0x9E3779B1 + bucketCol * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & (tableSize - 1);
+    }
+
+    // Statistiques
+
+    public long getSentCount() {
+        return sent;
+    }
+
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    /**
+     * Part des messages arrivés jusqu'à un maître
+     */
+    public double getDeliveryRatio() {
+        return sent == 0 ? 1.0 : (double) delivered / sent;
+    }
+
+    /**
+     * Nombre de messages livrés en {@code hops} sauts (le dernier compte regroupe les routes plus longues)
+     */
+    public long getDeliveredByHops(int hops) {
+        return deliveredByHops[Math.min(MAX_TRACKED_HOPS, hops)];
+    }
+
+    public void resetStatistics() {
+        sent = 0;
+        delivered = 0;
+        Arrays.fill(deliveredByHops, 0);
+    }
+
+    /**
+     * Écrit le résumé du réseau et la répartition des messages par nombre de sauts, en CSV
+     */
+    public void writeReport(Appendable out) throws IOException {
+        out.append("mesh_nodes,reachable,sent,delivered,delivery_ratio\n")
+                .append(Integer.toString(size)).append(',')
+                .append(Integer.toString(getReachableCount())).append(',')
+                .append(Long.toString(sent)).append(',')
+                .append(Long.toString(delivered)).append(',')
+                .append(String.format(Locale.ROOT, "%.4f", getDeliveryRatio())).append('\n');
+        out.append('\n').append("hops,messages\n");
+        for (int h = 0; h <= MAX_TRACKED_HOPS; h++) {
+            if (deliveredByHops[h] > 0) {
+                out.append(Integer.toString(h)).append(h == MAX_TRACKED_HOPS ? "+" : "").append(',')
+                        .append(Long.toString(deliveredByHops[h])).append('\n');
+            }
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.alertfire.communication;
 
 import com.alertfire.model.LoRaMessage;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
  * Récepteur global des messages LoRa (Singleton pattern)
+ *
+ * Les messages reçus sont publiés sur un {@link LoRaEventBus} : chaque écouteur est
+ * appelé sur son propre thread, à son rythme, et la réception ne bloque jamais
+ * l'émetteur. Les messages doivent être reçus depuis un seul thread (la simulation).
  */
 public class LoRaReceiver {
+    private static final int BUS_CAPACITY = 1 << 14;
+
     private static LoRaReceiver instance;
-    private List<Consumer<LoRaMessage>> listeners = new ArrayList<>();
+    private final LoRaEventBus bus = new LoRaEventBus(BUS_CAPACITY);
+    private final Map<Consumer<LoRaMessage>, LoRaEventBus.Subscription> listeners = new ConcurrentHashMap<>();
 
     /**
      * Constructeur privé pour le singleton
@@ -33,7 +40,16 @@ public class LoRaReceiver {
      * @param listener Fonction à appeler lors de la réception d'un message
      */
     public void addListener(Consumer<LoRaMessage> listener) {
-        listeners.add(listener);
+        addListener("listener-" + listeners.size(), listener);
+    }
+
+    /**
+     * Ajoute un écouteur nommé pour les messages LoRa
+     * @param name Nom de l'écouteur (nom de son thread)
+     * @param listener Fonction à appeler lors de la réception d'un message
+     */
+    public void addListener(String name, Consumer<LoRaMessage> listener) {
+        listeners.computeIfAbsent(listener, l -> bus.subscribe(name, l));
     }
 
     /**
@@ -41,16 +57,28 @@ public class LoRaReceiver {
      * @param listener Écouteur à supprimer
      */
     public void removeListener(Consumer<LoRaMessage> listener) {
-        listeners.remove(listener);
+        LoRaEventBus.Subscription subscription = listeners.remove(listener);
+        if (subscription != null) {
+            subscription.close();
+        }
     }
 
     /**
-     * Reçoit un message LoRa et notifie les écouteurs
+     * Reçoit un message LoRa et le publie aux écouteurs
      * @param message Message reçu
      */
     public void receiveMessage(LoRaMessage message) {
-        for (Consumer<LoRaMessage> listener : listeners) {
-            listener.accept(message);
-        }
+        bus.publish(message);
+    }
+
+    /**
+     * Abonnement associé à un écouteur, pour ses statistiques
+     */
+    public LoRaEventBus.Subscription getSubscription(Consumer<LoRaMessage> listener) {
+        return listeners.get(listener);
+    }
+
+    public LoRaEventBus getBus() {
+        return bus;
     }
 }
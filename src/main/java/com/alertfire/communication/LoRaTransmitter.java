@@ -1,87 +1,244 @@
 package com.alertfire.communication;
 
+import com.alertfire.config.SimulationConfig;
+import com.alertfire.log.EventLog;
+import com.alertfire.log.EventType;
+import com.alertfire.log.LogLevel;
 import com.alertfire.model.LoRaMessage;
-import javafx.application.Platform;
 
-import java.io.IOException;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Gère la transmission des messages LoRa
+ *
+ * Les messages passent d'abord par un limiteur de débit ({@link TransmitRateLimiter}) qui
+ * fait passer les alertes feu avant les mesures courantes. Un message émis par un esclave
+ * passe ensuite par le canal radio simulé ({@link RadioChannel})
+ * et est relayé de saut en saut le long du réseau maillé ; il n'est livré au récepteur et
+ * au backend qu'à son arrivée à un maître, à la date de fin de la dernière émission.
  */
 public class LoRaTransmitter {
     private static final double LORA_RANGE_KM = 1.0; // Portée LoRa de 1 km
-    private static final String BACKEND_URL = "http://localhost:5000/api/receive-alert";
+
+    private final BackendUplink uplink;
+    private final LoRaMesh mesh;
+    private final RadioChannel channel;
+    private final RadioChannel.ReceptionHandler onReceived = this::onReceived;
+    private final TransmitRateLimiter limiter;
+    private final TransmitRateLimiter.ReleaseHandler onReleased = this::emit;
+    private final AlertAggregator aggregator;
+    private final Consumer<AlertSummary> onSummary = this::sendSummary;
+
+    // Trame binaire et résumé codé, réutilisés d'un message à l'autre
+    private final ByteBuffer frameBuffer = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+    private final ByteBuffer summaryBuffer = ByteBuffer.allocate(AlertSummary.ENCODED_SIZE);
+
+    /**
+     * Crée un transmetteur et démarre sa liaison vers le backend
+     * @param config Configuration de la simulation
+     */
+    public LoRaTransmitter(SimulationConfig config) {
+        this.mesh = new LoRaMesh(LORA_RANGE_KM / config.getCellSizeKm());
+        this.channel = new RadioChannel(mesh, config.getLoraDutyCycle());
+        this.limiter = new TransmitRateLimiter(config.getDeviceMessageRate(), config.getDeviceMessageBurst(),
+                config.getGlobalMessageRate(), config.getGlobalMessageBurst(), config.getSendQueueCapacity());
+        this.aggregator = new AlertAggregator(config.getAggregationClusterCells(), config.getAggregationWindow());
+        this.uplink = new BackendUplink(URI.create(config.getBackendUrl()), config);
+        this.uplink.start();
+    }
 
     /**
-     * Envoie un message LoRa
+     * Envoie un message LoRa, dans la limite du débit autorisé
      * @param message Message à envoyer
      */
     public void sendMessage(LoRaMessage message) {
+        limiter.offer(message, message.getSimulationTime());
+        limiter.drain(message.getSimulationTime(), onReleased);
+    }
+
+    /**
+     * Émet sur l'air un message libéré par le limiteur de débit
+     */
+    private void emit(LoRaMessage message, double time) {
+        int device = message.getDeviceId();
+        int hops = mesh.route(device);
+        if (hops == 0) {
+            // Maître (ou émetteur hors réseau) : pas de saut radio
+            deliver(message, time);
+            return;
+        }
+
+        // Premier saut vers le maître ; sans route, l'émission n'est entendue par personne
+        int next = hops > 0 ? mesh.getNextHop(device) : -1;
+        channel.transmit(message, device, next, time);
+    }
+
+    /**
+     * Fait avancer le canal radio : les messages arrivés à un maître avant cette date sont livrés
+     * @param simulationTime Temps de simulation courant
+     */
+    public void advanceTo(double simulationTime) {
+        limiter.drain(simulationTime, onReleased);
+        channel.advanceTo(simulationTime, onReceived);
+        aggregator.flush(simulationTime, onSummary);
+        uplink.flush();
+    }
+
+    /**
+     * Abandonne les messages en attente ou en cours de transmission (retour en arrière, réinitialisation)
+     */
+    public void resetChannel(double simulationTime) {
+        limiter.clear();
+        channel.reset(simulationTime);
+        aggregator.clear();
+    }
+
+    private void onReceived(LoRaMessage message, int receiver, double time) {
+        message.incrementHopCount();
+        int hops = receiver < mesh.size() ? mesh.getHops(receiver) : -1;
+        if (hops == 0) {
+            deliver(message, time);
+        } else {
+            // Relais vers le saut suivant
+            channel.transmit(message, receiver, hops > 0 ? mesh.getNextHop(receiver) : -1, time);
+        }
+    }
+
+    /**
+     * Livre un message arrivé à un maître
+     */
+    private void deliver(LoRaMessage message, double time) {
+        message.markReceived(time);
+        mesh.recordDelivered(message.getHopCount());
+
+        // Trame telle que reçue par le maître
+        frameBuffer.clear();
+        LoRaFrameCodec.encode(message, message.getDeviceId(), message.getSequence(), message.isFromMaster(), frameBuffer);
+        frameBuffer.flip();
+
         // Envoyer le message au récepteur globa l
         LoRaReceiver.getInstance().receiveMessage(message);
 
-        System.out.println("Message LoRa envoyé par UUID: " + message.getUuid() +
-                " | Temp: " + String.format("%.1f", message.getTemperature()) +
-                "°C | CO2: " + String.format("%.0f", message.getCO2Level()) + " ppm");
+        EventLog.getInstance().event(LogLevel.INFO, EventType.MESSAGE_DELIVERED)
+                .field("uuid", message.getUuid())
+                .field("temperature", message.getTemperature())
+                .field("co2_level", message.getCO2Level())
+                .field("fire_detected", message.isFireDetected())
+                .field("hops", message.getHopCount())
+                .field("simulation_time", time)
+                .commit();
+
+        // Si c'est un projet maître, envoyer au backend Flask ; les alertes d'une zone
+        // déjà signalée sont regroupées en un résumé
+        if (!aggregator.absorb(message)) {
+            sendToBackend(message, frameBuffer);
+        }
+    }
 
-        // Si c'est un projet maître, envoyer au backend Flask
-        sendToBackend(message);
+    /**
+     * Envoie au backend le résumé d'une zone en feu
+     */
+    private void sendSummary(AlertSummary summary) {
+        summaryBuffer.clear();
+        summary.encode(summaryBuffer);
+        summaryBuffer.flip();
+        uplink.offerSummary(summaryBuffer);
     }
 
     /**
-     * Envoie les données au backend Flask (seulement si projet maître)
+     * Envoie un lot de messages LoRa, dans l'ordre de la liste
+     * @param messages Messages à envoyer
+     */
+    public void sendBatch(List<LoRaMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (LoRaMessage message : messages) {
+            limiter.offer(message, message.getSimulationTime());
+        }
+        // Un lot est émis à une seule date : les alertes feu du lot passent en premier
+        limiter.drain(messages.get(messages.size() - 1).getSimulationTime(), onReleased);
+    }
+
+    /**
+     * Envoie les données au backend Flask, via la liaison asynchrone
      * @param message Message à envoyer
+     * @param frame Trame codée du message
+     */
+    private void sendToBackend(LoRaMessage message, ByteBuffer frame) {
+        // Ne bloque jamais : l'alerte est journalisée puis envoyée par lot
+        uplink.offer(message.getUuid(), frame, message.isFireDetected());
+    }
+
+    /**
+     * Arrête la liaison vers le backend
+     */
+    public void shutdown() {
+        aggregator.flushAll(onSummary);
+        uplink.shutdown();
+    }
+
+    public BackendUplink getUplink() {
+        return uplink;
+    }
+
+    /**
+     * Réseau maillé entre les projets
+     */
+    public LoRaMesh getMesh() {
+        return mesh;
+    }
+
+    /**
+     * Limiteur de débit et files d'attente par priorité
+     */
+    public TransmitRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Regroupement des alertes feu avant envoi au backend
+     */
+    public AlertAggregator getAggregator() {
+        return aggregator;
+    }
+
+    /**
+     * Canal radio simulé
+     */
+    public RadioChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Nombre de trames émises sur l'air
+     */
+    public long getFramesSent() {
+        return channel.getTransmissionCount();
+    }
+
+    /**
+     * Volume de charge utile émis sur l'air, en octets
+     */
+    public long getBytesSent() {
+        return channel.getTransmissionCount() * LoRaFrameCodec.FRAME_SIZE;
+    }
+
+    /**
+     * Temps d'antenne cumulé des trames émises, en secondes
+     */
+    public double getAirtimeSeconds() {
+        return channel.getTotalAirtime();
+    }
+
+    /**
+     * Retourne la portée LoRa en kilomètres
      */
-    private void sendToBackend(LoRaMessage message) {
-        // Le nom de classe contient "Master" pour les projets maîtres
-        String className = message.getUuid().toString();
-
-        System.out.println("TEST1");
-
-        System.out.println("TEST2");
-
-        // Exécuter l'envoi dans un thread séparé pour ne pas bloquer l'UI
-        new Thread(() -> {
-            try {
-                // Configurer la connexion HTTP
-                System.out.println("TEST3");
-                URL url = new URL(BACKEND_URL);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setDoOutput(true);
-
-                // Préparer les données JSON
-                String jsonPayload = message.toJson();
-                System.out.println(jsonPayload);
-
-                // Envoyer les données
-                try (OutputStream os = connection.getOutputStream()) {
-                    byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-
-                // Lire la réponse
-                int responseCode = connection.getResponseCode();
-
-                // Afficher le résultat dans l'interface utilisateur
-                final String result = "Backend API response: " + responseCode;
-                Platform.runLater(() -> {
-                    System.out.println(result);
-                });
-
-                connection.disconnect();
-            } catch (IOException e) {
-                final String error = "Erreur d'envoi au backend: " + e.getMessage();
-                Platform.runLater(() -> {
-                    System.out.println(error);
-                });
-            }
-        }).start();
+    public static double getRangeKm() {
+        return LORA_RANGE_KM;
     }
 
     /**
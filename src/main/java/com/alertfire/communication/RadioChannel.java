@@ -0,0 +1,392 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Canal radio LoRa simulé par événements discrets.
+ *
+ * Chaque émission occupe l'air pendant son temps d'antenne, qui dépend du facteur
+ * d'étalement choisi pour le lien (plus le voisin est loin, plus le facteur est grand).
+ * Les débuts et fins d'émission sont ordonnés dans un tas binaire par date ; le canal
+ * avance jusqu'au temps de simulation demandé en traitant les événements dans l'ordre.
+ *
+ * Accès de type ALOHA, sans acquittement : une réception échoue si, pendant l'émission,
+ * un autre émetteur à portée du destinataire utilise le même facteur d'étalement, ou si
+ * le destinataire émet lui-même. Chaque projet respecte un rapport cyclique : après une
+ * émission, il se tait pendant une durée proportionnelle au temps d'antenne. Une émission
+ * retardée au-delà de {@link #MAX_DUTY_WAIT} est abandonnée.
+ *
+ * Les émissions et les événements sont stockés dans des tableaux réutilisés.
+ */
+public class RadioChannel {
+
+    /**
+     * Reçoit les messages arrivés à un projet
+     */
+    public interface ReceptionHandler {
+        void onReceived(LoRaMessage message, int receiver, double time);
+    }
+
+    public static final int MIN_SPREADING_FACTOR = 7;
+    public static final int MAX_SPREADING_FACTOR = 12;
+    private static final int SF_COUNT = MAX_SPREADING_FACTOR - MIN_SPREADING_FACTOR + 1;
+    private static final double MAX_DUTY_WAIT = 60.0; // secondes
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final LoRaMesh mesh;
+    private final double dutyCycle;
+    private final double[] airtime = new double[SF_COUNT];
+
+    private double now = 0.0;
+
+    // Émissions en cours ou planifiées
+    private int[] sender = new int[INITIAL_CAPACITY];
+    private int[] receiver = new int[INITIAL_CAPACITY];
+    private int[] spreadingFactor = new int[INITIAL_CAPACITY];
+    private double[] start = new double[INITIAL_CAPACITY];
+    private double[] end = new double[INITIAL_CAPACITY];
+    private boolean[] collided = new boolean[INITIAL_CAPACITY];
+    private LoRaMessage[] payload = new LoRaMessage[INITIAL_CAPACITY];
+    private int[] activePosition = new int[INITIAL_CAPACITY];
+    private int[] freeList = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int allocated = 0;
+
+    // Tas des événements : 2 * émission pour le début, 2 * émission + 1 pour la fin
+    private int[] heap = new int[INITIAL_CAPACITY];
+    private int heapSize = 0;
+
+    // Émissions sur l'air, par facteur d'étalement
+    private final int[][] active = new int[SF_COUNT][16];
+    private final int[] activeCount = new int[SF_COUNT];
+
+    // État des projets
+    private double[] nextAllowed = new double[INITIAL_CAPACITY];
+    private int[] transmitting = new int[INITIAL_CAPACITY];
+
+    // Statistiques
+    private long transmissions = 0;
+    private long receptions = 0;
+    private long collisions = 0;
+    private long unheard = 0;
+    private long dutyCycleDelayed = 0;
+    private long dutyCycleDropped = 0;
+    private final long[] transmissionsBySf = new long[SF_COUNT];
+    private double totalAirtime = 0.0;
+
+    /**
+     * @param mesh Positions et portée des projets
+     * @param dutyCycle Part maximale du temps passée à émettre par projet (0,01 en Europe)
+     */
+    public RadioChannel(LoRaMesh mesh, double dutyCycle) {
+        this.mesh = mesh;
+        this.dutyCycle = dutyCycle;
+        for (int sf = MIN_SPREADING_FACTOR; sf <= MAX_SPREADING_FACTOR; sf++) {
+            airtime[sf - MIN_SPREADING_FACTOR] = LoRaFrameCodec.airtimeSeconds(LoRaFrameCodec.FRAME_SIZE, sf);
+        }
+    }
+
+    /**
+     * Planifie une émission
+     * @param message Message transporté
+     * @param from Projet émetteur
+     * @param to Projet destinataire, ou -1 si aucun voisin ne peut relayer
+     * @param time Date souhaitée de début d'émission
+     * @return false si l'émission est abandonnée à cause du rapport cyclique
+     */
+    public boolean transmit(LoRaMessage message, int from, int to, double time) {
+        ensureDeviceCapacity(Math.max(from, to) + 1);
+
+        int sf = to >= 0 ? spreadingFactorFor(mesh.rangeFraction(from, to)) : MAX_SPREADING_FACTOR;
+        double duration = airtime[sf - MIN_SPREADING_FACTOR];
+        double begin = Math.max(time, now);
+        if (begin < nextAllowed[from]) {
+            if (nextAllowed[from] - begin > MAX_DUTY_WAIT) {
+                dutyCycleDropped++;
+                return false;
+            }
+            begin = nextAllowed[from];
+            dutyCycleDelayed++;
+        }
+        nextAllowed[from] = begin + duration / dutyCycle;
+
+        int tx = allocate();
+        sender[tx] = from;
+        receiver[tx] = to;
+        spreadingFactor[tx] = sf;
+        start[tx] = begin;
+        end[tx] = begin + duration;
+        collided[tx] = false;
+        payload[tx] = message;
+        activePosition[tx] = -1;
+        push(tx << 1);
+        return true;
+    }
+
+    /**
+     * Traite les événements jusqu'à la date donnée
+     * @param time Date de simulation atteinte
+     * @param handler Reçoit les messages correctement reçus
+     */
+    public void advanceTo(double time, ReceptionHandler handler) {
+        while (heapSize > 0 && eventTime(heap[0]) <= time) {
+            int event = pop();
+            int tx = event >>> 1;
+            now = eventTime(event);
+            if ((event & 1) == 0) {
+                begin(tx);
+            } else {
+                finish(tx, handler);
+            }
+        }
+        now = Math.max(now, time);
+    }
+
+    private void begin(int tx) {
+        int sf = spreadingFactor[tx] - MIN_SPREADING_FACTOR;
+        int from = sender[tx];
+        int to = receiver[tx];
+
+        // Destinataire occupé à émettre (semi-duplex)
+        if (to >= 0 && transmitting[to] > 0) {
+            collided[tx] = true;
+        }
+        // Interférences avec les émissions en cours sur le même facteur
+        int[] list = active[sf];
+        for (int k = 0; k < activeCount[sf]; k++) {
+            int other = list[k];
+            if (to >= 0 && mesh.inRange(sender[other], to)) {
+                collided[tx] = true;
+            }
+            if (receiver[other] >= 0 && (receiver[other] == from || mesh.inRange(from, receiver[other]))) {
+                collided[other] = true;
+            }
+        }
+        // L'émetteur ne peut plus recevoir pendant qu'il émet
+        for (int s = 0; s < SF_COUNT; s++) {
+            for (int k = 0; k < activeCount[s]; k++) {
+                if (receiver[active[s][k]] == from) {
+                    collided[active[s][k]] = true;
+                }
+            }
+        }
+
+        if (activeCount[sf] == list.length) {
+            active[sf] = list = Arrays.copyOf(list, list.length * 2);
+        }
+        activePosition[tx] = activeCount[sf];
+        list[activeCount[sf]++] = tx;
+        transmitting[from]++;
+
+        transmissions++;
+        transmissionsBySf[sf]++;
+        totalAirtime += end[tx] - start[tx];
+        push((tx << 1) | 1);
+    }
+
+    private void finish(int tx, ReceptionHandler handler) {
+        int sf = spreadingFactor[tx] - MIN_SPREADING_FACTOR;
+        int[] list = active[sf];
+        int position = activePosition[tx];
+        int last = list[--activeCount[sf]];
+        list[position] = last;
+        activePosition[last] = position;
+        transmitting[sender[tx]]--;
+
+        LoRaMessage message = payload[tx];
+        int to = receiver[tx];
+        boolean lost = collided[tx];
+        double time = end[tx];
+        payload[tx] = null;
+        release(tx);
+
+        if (to < 0) {
+            unheard++;
+        } else if (lost) {
+            collisions++;
+        } else {
+            receptions++;
+            handler.onReceived(message, to, time);
+        }
+    }
+
+    /**
+     * Abandonne les émissions en cours et replace le canal à la date donnée
+     */
+    public void reset(double time) {
+        for (int i = 0; i < allocated; i++) {
+            payload[i] = null;
+        }
+        heapSize = 0;
+        freeCount = 0;
+        allocated = 0;
+        Arrays.fill(activeCount, 0);
+        Arrays.fill(nextAllowed, 0.0);
+        Arrays.fill(transmitting, 0);
+        now = time;
+    }
+
+    /**
+     * Facteur d'étalement nécessaire pour une distance donnée (fraction de la portée) :
+     * SF7 jusqu'à la moitié de la portée, puis un cran par dixième de portée
+     */
+    public static int spreadingFactorFor(double rangeFraction) {
+        int steps = (int) Math.ceil((rangeFraction - 0.5) * 10.0);
+        return Math.min(MAX_SPREADING_FACTOR, MIN_SPREADING_FACTOR + Math.max(0, steps));
+    }
+
+    // Tas binaire min sur la date des événements ; à date égale, les fins passent avant les débuts
+
+    private double eventTime(int event) {
+        return (event & 1) == 0 ? start[event >>> 1] : end[event >>> 1];
+    }
+
+    private boolean before(int a, int b) {
+        double ta = eventTime(a);
+        double tb = eventTime(b);
+        if (ta != tb) {
+            return ta < tb;
+        }
+        if ((a & 1) != (b & 1)) {
+            return (a & 1) == 1;
+        }
+        return a < b;
+    }
+
+    private void push(int event) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(event, heap[parent])) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = event;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], last)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (heapSize > 0) {
+            heap[i] = last;
+        }
+        return top;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeList[--freeCount];
+        }
+        if (allocated == sender.length) {
+            int capacity = allocated * 2;
+            sender = Arrays.copyOf(sender, capacity);
+            receiver = Arrays.copyOf(receiver, capacity);
+            spreadingFactor = Arrays.copyOf(spreadingFactor, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            collided = Arrays.copyOf(collided, capacity);
+            payload = Arrays.copyOf(payload, capacity);
+            activePosition = Arrays.copyOf(activePosition, capacity);
+            freeList = Arrays.copyOf(freeList, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int tx) {
+        freeList[freeCount++] = tx;
+    }
+
+    private void ensureDeviceCapacity(int count) {
+        if (count > nextAllowed.length) {
+            int capacity = Math.max(count, nextAllowed.length * 2);
+            nextAllowed = Arrays.copyOf(nextAllowed, capacity);
+            transmitting = Arrays.copyOf(transmitting, capacity);
+        }
+    }
+
+    // Statistiques
+
+    public double getTime() {
+        return now;
+    }
+
+    /**
+     * Nombre d'émissions planifiées pas encore terminées
+     */
+    public int getInFlightCount() {
+        return allocated - freeCount;
+    }
+
+    public long getTransmissionCount() {
+        return transmissions;
+    }
+
+    public long getReceptionCount() {
+        return receptions;
+    }
+
+    public long getCollisionCount() {
+        return collisions;
+    }
+
+    /**
+     * Émissions sans destinataire (aucun voisin pour relayer)
+     */
+    public long getUnheardCount() {
+        return unheard;
+    }
+
+    public long getDutyCycleDelayedCount() {
+        return dutyCycleDelayed;
+    }
+
+    public long getDutyCycleDroppedCount() {
+        return dutyCycleDropped;
+    }
+
+    /**
+     * Temps d'antenne cumulé, en secondes
+     */
+    public double getTotalAirtime() {
+        return totalAirtime;
+    }
+
+    public long getTransmissionCount(int spreadingFactor) {
+        return transmissionsBySf[spreadingFactor - MIN_SPREADING_FACTOR];
+    }
+
+    /**
+     * Écrit le bilan du canal en CSV
+     */
+    public void writeReport(Appendable out) throws IOException {
+        out.append("transmissions,receptions,collisions,unheard,duty_delayed,duty_dropped,airtime_s\n")
+                .append(Long.toString(transmissions)).append(',')
+                .append(Long.toString(receptions)).append(',')
+                .append(Long.toString(collisions)).append(',')
+                .append(Long.toString(unheard)).append(',')
+                .append(Long.toString(dutyCycleDelayed)).append(',')
+                .append(Long.toString(dutyCycleDropped)).append(',')
+                .append(String.format(Locale.ROOT, "%.3f", totalAirtime)).append('\n');
+        out.append('\n').append("spreading_factor,transmissions\n");
+        for (int sf = MIN_SPREADING_FACTOR; sf <= MAX_SPREADING_FACTOR; sf++) {
+            out.append("SF").append(Integer.toString(sf)).append(',')
+                    .append(Long.toString(transmissionsBySf[sf - MIN_SPREADING_FACTOR])).append('\n');
+        }
+    }
+}
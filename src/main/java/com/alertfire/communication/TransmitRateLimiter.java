@@ -0,0 +1,288 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Limite le débit des messages remis au canal radio.
+ *
+ * Chaque projet dispose d'un seau à jetons (débit et rafale par projet), et un seau global
+ * borne le nombre total de messages émis par seconde simulée. Les messages acceptés par le
+ * seau de leur projet attendent dans l'une des deux files bornées : alertes feu ou mesures
+ * courantes. Le budget global sert toujours la file des alertes feu en premier.
+ *
+ * Délestage, toujours dans le même ordre :
+ * <ul>
+ *   <li>une mesure courante dont le projet n'a plus de jeton est refusée ; une alerte feu
+ *       passe quand même (elle consomme un jeton s'il en reste) ;</li>
+ *   <li>quand une file est pleine, son message le plus ancien est abandonné au profit du
+ *       nouveau, la mesure la plus récente étant la plus utile.</li>
+ * </ul>
+ *
+ * Les projets sont désignés par leur identifiant court (indice dans le {@code SensorArray}),
+ * associé une fois pour toutes à leur UUID. Un débit nul ou négatif désactive la limite
+ * correspondante. Les dates sont en secondes de simulation.
+ */
+public class TransmitRateLimiter {
+
+    /**
+     * Reçoit les messages autorisés à partir
+     */
+    public interface ReleaseHandler {
+        void onReleased(LoRaMessage message, double time);
+    }
+
+    public static final int FIRE = 0;
+    public static final int TELEMETRY = 1;
+    private static final int PRIORITIES = 2;
+    private static final int INITIAL_DEVICES = 64;
+
+    private final double deviceRate;
+    private final double deviceBurst;
+    private final double globalRate;
+    private final double globalBurst;
+
+    // Seaux par projet (date de remplissage NaN : projet jamais vu)
+    private double[] deviceTokens = new double[INITIAL_DEVICES];
+    private double[] deviceRefillTime = new double[INITIAL_DEVICES];
+
+    // Seau global
+    private double globalTokens;
+    private double globalRefillTime = Double.NaN;
+
+    private final MessageQueue[] queues = new MessageQueue[PRIORITIES];
+
+    // Statistiques, par priorité
+    private final long[] offered = new long[PRIORITIES];
+    private final long[] released = new long[PRIORITIES];
+    private final long[] deviceLimited = new long[PRIORITIES];
+    private final long[] overflowDropped = new long[PRIORITIES];
+    private final double[] delaySum = new double[PRIORITIES];
+    private final double[] delayMax = new double[PRIORITIES];
+
+    /**
+     * @param deviceRate Messages par seconde et par projet
+     * @param deviceBurst Rafale maximale d'un projet
+     * @param globalRate Messages par seconde pour l'ensemble des projets
+     * @param globalBurst Rafale maximale de l'ensemble des projets
+     * @param queueCapacity Messages en attente au maximum, par priorité
+     */
+    public TransmitRateLimiter(double deviceRate, double deviceBurst, double globalRate, double globalBurst,
+                               int queueCapacity) {
+        this.deviceRate = deviceRate;
+        this.deviceBurst = Math.max(1.0, deviceBurst);
+        this.globalRate = globalRate;
+        this.globalBurst = Math.max(1.0, globalBurst);
+        this.globalTokens = this.globalBurst;
+        for (int p = 0; p < PRIORITIES; p++) {
+            queues[p] = new MessageQueue(Math.max(1, queueCapacity));
+        }
+        Arrays.fill(deviceRefillTime, Double.NaN);
+    }
+
+    /**
+     * Propose un message ; il est mis en file ou refusé, jamais envoyé directement
+     * @param message Message à émettre
+     * @param now Date de simulation courante
+     * @return false si le message a été refusé par le seau de son projet
+     */
+    public boolean offer(LoRaMessage message, double now) {
+        int priority = message.isFireDetected() ? FIRE : TELEMETRY;
+        offered[priority]++;
+
+        int device = message.getDeviceId();
+        if (device >= 0 && deviceRate > 0) {
+            boolean hasToken = takeDeviceToken(device, now);
+            if (!hasToken && priority == TELEMETRY) {
+                deviceLimited[priority]++;
+                return false;
+            }
+        }
+
+        if (queues[priority].offer(message, now)) {
+            overflowDropped[priority]++;
+        }
+        return true;
+    }
+
+    /**
+     * Libère les messages en attente dans la limite du budget global, alertes feu d'abord
+     * @param now Date de simulation courante
+     * @param handler Reçoit les messages libérés, datés de {@code now}
+     */
+    public void drain(double now, ReleaseHandler handler) {
+        refillGlobal(now);
+        for (int p = 0; p < PRIORITIES; p++) {
+            MessageQueue queue = queues[p];
+            while (queue.size > 0 && (globalRate <= 0 || globalTokens >= 1.0)) {
+                double delay = Math.max(0.0, now - queue.headTime());
+                LoRaMessage message = queue.poll();
+                if (globalRate > 0) {
+                    globalTokens -= 1.0;
+                }
+                released[p]++;
+                delaySum[p] += delay;
+                delayMax[p] = Math.max(delayMax[p], delay);
+                handler.onReleased(message, now);
+            }
+        }
+    }
+
+    /**
+     * Vide les files et remplit tous les seaux (retour en arrière, réinitialisation)
+     */
+    public void clear() {
+        for (MessageQueue queue : queues) {
+            queue.clear();
+        }
+        Arrays.fill(deviceRefillTime, Double.NaN);
+        globalTokens = globalBurst;
+        globalRefillTime = Double.NaN;
+    }
+
+    private boolean takeDeviceToken(int device, double now) {
+        if (device >= deviceTokens.length) {
+            int capacity = Math.max(device + 1, deviceTokens.length * 2);
+            int previous = deviceTokens.length;
+            deviceTokens = Arrays.copyOf(deviceTokens, capacity);
+            deviceRefillTime = Arrays.copyOf(deviceRefillTime, capacity);
+            Arrays.fill(deviceRefillTime, previous, capacity, Double.NaN);
+        }
+        double last = deviceRefillTime[device];
+        double tokens = Double.isNaN(last)
+                ? deviceBurst
+                : Math.min(deviceBurst, deviceTokens[device] + Math.max(0.0, now - last) * deviceRate);
+        deviceRefillTime[device] = now;
+        if (tokens >= 1.0) {
+            deviceTokens[device] = tokens - 1.0;
+            return true;
+        }
+        deviceTokens[device] = tokens;
+        return false;
+    }
+
+    private void refillGlobal(double now) {
+        if (!Double.isNaN(globalRefillTime)) {
+            globalTokens = Math.min(globalBurst, globalTokens + Math.max(0.0, now - globalRefillTime) * globalRate);
+        }
+        globalRefillTime = now;
+    }
+
+    // Statistiques
+
+    public int getQueuedCount(int priority) {
+        return queues[priority].size;
+    }
+
+    public long getOfferedCount(int priority) {
+        return offered[priority];
+    }
+
+    public long getReleasedCount(int priority) {
+        return released[priority];
+    }
+
+    /**
+     * Messages refusés faute de jeton dans le seau de leur projet
+     */
+    public long getDeviceLimitedCount(int priority) {
+        return deviceLimited[priority];
+    }
+
+    /**
+     * Messages abandonnés parce que leur file était pleine
+     */
+    public long getOverflowDroppedCount(int priority) {
+        return overflowDropped[priority];
+    }
+
+    /**
+     * Attente moyenne en file des messages libérés, en secondes simulées
+     */
+    public double getMeanQueueDelay(int priority) {
+        return released[priority] == 0 ? 0.0 : delaySum[priority] / released[priority];
+    }
+
+    public double getMaxQueueDelay(int priority) {
+        return delayMax[priority];
+    }
+
+    public void resetStatistics() {
+        Arrays.fill(offered, 0);
+        Arrays.fill(released, 0);
+        Arrays.fill(deviceLimited, 0);
+        Arrays.fill(overflowDropped, 0);
+        Arrays.fill(delaySum, 0.0);
+        Arrays.fill(delayMax, 0.0);
+    }
+
+    /**
+     * Écrit les compteurs par priorité, en CSV
+     */
+    public void writeReport(Appendable out) throws IOException {
+        out.append("priority,offered,released,device_limited,overflow_dropped,queued,mean_delay_s,max_delay_s\n");
+        for (int p = 0; p < PRIORITIES; p++) {
+            out.append(p == FIRE ? "fire" : "telemetry").append(',')
+                    .append(Long.toString(offered[p])).append(',')
+                    .append(Long.toString(released[p])).append(',')
+                    .append(Long.toString(deviceLimited[p])).append(',')
+                    .append(Long.toString(overflowDropped[p])).append(',')
+                    .append(Integer.toString(queues[p].size)).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f,%.3f", getMeanQueueDelay(p), delayMax[p]))
+                    .append('\n');
+        }
+    }
+
+    /**
+     * File circulaire bornée de messages, avec leur date d'entrée
+     */
+    private static final class MessageQueue {
+        private final LoRaMessage[] messages;
+        private final double[] enqueueTimes;
+        private int head = 0;
+        private int size = 0;
+
+        MessageQueue(int capacity) {
+            messages = new LoRaMessage[capacity];
+            enqueueTimes = new double[capacity];
+        }
+
+        /**
+         * Ajoute un message, en abandonnant le plus ancien si la file est pleine
+         * @return true si un message a été abandonné
+         */
+        boolean offer(LoRaMessage message, double time) {
+            boolean dropped = false;
+            if (size == messages.length) {
+                poll();
+                dropped = true;
+            }
+            int tail = (head + size) % messages.length;
+            messages[tail] = message;
+            enqueueTimes[tail] = time;
+            size++;
+            return dropped;
+        }
+
+        double headTime() {
+            return enqueueTimes[head];
+        }
+
+        LoRaMessage poll() {
+            LoRaMessage message = messages[head];
+            messages[head] = null;
+            head = (head + 1) % messages.length;
+            size--;
+            return message;
+        }
+
+        void clear() {
+            Arrays.fill(messages, null);
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -11,8 +11,14 @@ public class SimulationConfig {
     private double cellSize = 30;
     private double cellSizeKm = 0.1; // Taille d'une cellule en kilomètres (100m par défaut)
 
+    // Fenêtre (réduite à l'écran si nécessaire), indépendante de la taille de la grille
+    private double windowWidth = 1280;
+    private double windowHeight = 860;
+    private boolean performanceHud = false;     // mesures de performance affichées au démarrage
+
     // Paramètres de simulation
     private double stepTime = 0.5;  // secondes par étape en mode manuel
+    private long simulationStepPeriodMs = 16;  // intervalle minimal entre deux étapes en continu
     private double initialWindSpeed = 2.0;  // m/s
     private double initialWindDirection = 45.0;  // degrés (0 = Est, 90 = Nord)
     private double maxWindSpeed = 10.0;  // m/s
@@ -35,8 +41,42 @@ public class SimulationConfig {
     private double activationInterval = 600.0;   // 10 minutes en secondes
     private double activeTime = 5.0;             // Temps d'activité après activation en secondes
 
+    // Canal radio LoRa
+    private double loraDutyCycle = 0.01;         // rapport cyclique maximal par projet (bande EU868)
+
+    // Limitation du débit des messages LoRa
+    private double deviceMessageRate = 0.5;      // messages par seconde et par projet
+    private double deviceMessageBurst = 3.0;     // rafale maximale d'un projet
+    private double globalMessageRate = 200.0;    // messages par seconde pour tout le réseau
+    private double globalMessageBurst = 400.0;   // rafale maximale de tout le réseau
+    private int sendQueueCapacity = 2048;        // messages en attente par priorité
+
+    // Regroupement des alertes feu par le maître
+    private int aggregationClusterCells = 10;    // côté d'une zone, en cellules
+    private double aggregationWindow = 10.0;     // durée d'une fenêtre, en secondes simulées
+
     // URL du backend Flask
-    private String backendUrl = "http://localhost:5000/receive-alert";
+    private String backendUrl = "http://localhost:5000/api/receive-alert";
+
+    // Backend local de remplacement (voir EmbeddedBackend)
+    private boolean embeddedBackend = false;     // démarré avec la simulation
+    private long embeddedBackendLatencyMs = 0;   // latence injectée par requête
+    private double embeddedBackendErrorRate = 0; // part des requêtes rejetées (0 à 1)
+
+    // Liaison asynchrone vers le backend
+    private long uplinkBatchWindowMs = 200;      // fenêtre de regroupement des alertes
+    private int uplinkMaxBatchSize = 256;        // alertes par requête au maximum
+
+    // Journal d'événements (lignes JSON, écrit en arrière-plan)
+    private String eventLogFile = "logs/events.jsonl";
+    private String eventLogLevel = "INFO";       // DEBUG, INFO, WARN ou ERROR
+    private int eventLogCapacity = 1 << 16;      // événements en attente d'écriture au maximum
+    private boolean eventLogConsole = false;     // recopie sur la sortie standard
+
+    // Journal persistant des alertes non acquittées
+    private String outboxDirectory = "outbox";
+    private int outboxSegmentRecords = 65_536;   // alertes par segment (64 octets chacune)
+    private int outboxMaxSegments = 32;          // segments sur disque au maximum
 
     // Constructeur par défaut
     public SimulationConfig() {
@@ -69,6 +109,30 @@ public class SimulationConfig {
         this.cellSize = cellSize;
     }
 
+    public double getWindowWidth() {
+        return windowWidth;
+    }
+
+    public void setWindowWidth(double windowWidth) {
+        this.windowWidth = windowWidth;
+    }
+
+    public double getWindowHeight() {
+        return windowHeight;
+    }
+
+    public void setWindowHeight(double windowHeight) {
+        this.windowHeight = windowHeight;
+    }
+
+    public boolean isPerformanceHud() {
+        return performanceHud;
+    }
+
+    public void setPerformanceHud(boolean performanceHud) {
+        this.performanceHud = performanceHud;
+    }
+
     public double getStepTime() {
         return stepTime;
     }
@@ -77,6 +141,14 @@ public class SimulationConfig {
         this.stepTime = stepTime;
     }
 
+    public long getSimulationStepPeriodMs() {
+        return simulationStepPeriodMs;
+    }
+
+    public void setSimulationStepPeriodMs(long simulationStepPeriodMs) {
+        this.simulationStepPeriodMs = simulationStepPeriodMs;
+    }
+
     public double getInitialWindSpeed() {
         return initialWindSpeed;
     }
@@ -199,6 +271,166 @@ public class SimulationConfig {
         this.backendUrl = backendUrl;
     }
 
+    public boolean isEmbeddedBackend() {
+        return embeddedBackend;
+    }
+
+    public void setEmbeddedBackend(boolean embeddedBackend) {
+        this.embeddedBackend = embeddedBackend;
+    }
+
+    public long getEmbeddedBackendLatencyMs() {
+        return embeddedBackendLatencyMs;
+    }
+
+    public void setEmbeddedBackendLatencyMs(long embeddedBackendLatencyMs) {
+        this.embeddedBackendLatencyMs = embeddedBackendLatencyMs;
+    }
+
+    public double getEmbeddedBackendErrorRate() {
+        return embeddedBackendErrorRate;
+    }
+
+    public void setEmbeddedBackendErrorRate(double embeddedBackendErrorRate) {
+        this.embeddedBackendErrorRate = embeddedBackendErrorRate;
+    }
+
+    public long getUplinkBatchWindowMs() {
+        return uplinkBatchWindowMs;
+    }
+
+    public void setUplinkBatchWindowMs(long uplinkBatchWindowMs) {
+        this.uplinkBatchWindowMs = uplinkBatchWindowMs;
+    }
+
+    public int getUplinkMaxBatchSize() {
+        return uplinkMaxBatchSize;
+    }
+
+    public void setUplinkMaxBatchSize(int uplinkMaxBatchSize) {
+        this.uplinkMaxBatchSize = uplinkMaxBatchSize;
+    }
+
+    public double getLoraDutyCycle() {
+        return loraDutyCycle;
+    }
+
+    public void setLoraDutyCycle(double loraDutyCycle) {
+        this.loraDutyCycle = loraDutyCycle;
+    }
+
+    public double getDeviceMessageRate() {
+        return deviceMessageRate;
+    }
+
+    public void setDeviceMessageRate(double deviceMessageRate) {
+        this.deviceMessageRate = deviceMessageRate;
+    }
+
+    public double getDeviceMessageBurst() {
+        return deviceMessageBurst;
+    }
+
+    public void setDeviceMessageBurst(double deviceMessageBurst) {
+        this.deviceMessageBurst = deviceMessageBurst;
+    }
+
+    public double getGlobalMessageRate() {
+        return globalMessageRate;
+    }
+
+    public void setGlobalMessageRate(double globalMessageRate) {
+        this.globalMessageRate = globalMessageRate;
+    }
+
+    public double getGlobalMessageBurst() {
+        return globalMessageBurst;
+    }
+
+    public void setGlobalMessageBurst(double globalMessageBurst) {
+        this.globalMessageBurst = globalMessageBurst;
+    }
+
+    public int getSendQueueCapacity() {
+        return sendQueueCapacity;
+    }
+
+    public void setSendQueueCapacity(int sendQueueCapacity) {
+        this.sendQueueCapacity = sendQueueCapacity;
+    }
+
+    public int getAggregationClusterCells() {
+        return aggregationClusterCells;
+    }
+
+    public void setAggregationClusterCells(int aggregationClusterCells) {
+        this.aggregationClusterCells = aggregationClusterCells;
+    }
+
+    public double getAggregationWindow() {
+        return aggregationWindow;
+    }
+
+    public void setAggregationWindow(double aggregationWindow) {
+        this.aggregationWindow = aggregationWindow;
+    }
+
+    public String getEventLogFile() {
+        return eventLogFile;
+    }
+
+    public void setEventLogFile(String eventLogFile) {
+        this.eventLogFile = eventLogFile;
+    }
+
+    public String getEventLogLevel() {
+        return eventLogLevel;
+    }
+
+    public void setEventLogLevel(String eventLogLevel) {
+        this.eventLogLevel = eventLogLevel;
+    }
+
+    public int getEventLogCapacity() {
+        return eventLogCapacity;
+    }
+
+    public void setEventLogCapacity(int eventLogCapacity) {
+        this.eventLogCapacity = eventLogCapacity;
+    }
+
+    public boolean isEventLogConsole() {
+        return eventLogConsole;
+    }
+
+    public void setEventLogConsole(boolean eventLogConsole) {
+        this.eventLogConsole = eventLogConsole;
+    }
+
+    public String getOutboxDirectory() {
+        return outboxDirectory;
+    }
+
+    public void setOutboxDirectory(String outboxDirectory) {
+        this.outboxDirectory = outboxDirectory;
+    }
+
+    public int getOutboxSegmentRecords() {
+        return outboxSegmentRecords;
+    }
+
+    public void setOutboxSegmentRecords(int outboxSegmentRecords) {
+        this.outboxSegmentRecords = outboxSegmentRecords;
+    }
+
+    public int getOutboxMaxSegments() {
+        return outboxMaxSegments;
+    }
+
+    public void setOutboxMaxSegments(int outboxMaxSegments) {
+        this.outboxMaxSegments = outboxMaxSegments;
+    }
+
     /**
      * Calcule le temps de combustion pour un arbre en fonction de son humidité
      * @param humidity Niveau d'humidité de l'arbre (0-100)
@@ -0,0 +1,66 @@
+package com.alertfire.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple tampon sans verrou entre le thread de simulation et le thread JavaFX.
+ *
+ * Trois images tournent : le thread de simulation remplit l'image arrière, le thread
+ * JavaFX dessine l'image avant, et l'image du milieu est la dernière publiée. Publier ou
+ * prendre une image n'est qu'un échange atomique d'indice : aucun thread n'attend l'autre,
+ * et une image n'est jamais modifiée pendant qu'elle est lue.
+ *
+ * Le thread de simulation ne publie pas par-dessus une image que le thread JavaFX n'a pas
+ * encore prise ({@link #isPending()}) : il continue de calculer et les modifications
+ * s'accumulent jusqu'à la publication suivante. Chaque image décrit ainsi exactement les
+ * changements depuis celle qui a été affichée avant elle.
+ */
+final class FrameExchange {
+
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4; // image du milieu pas encore prise
+
+    private final SimulationFrame[] frames = new SimulationFrame[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // thread de simulation
+    private int front = 2; // thread JavaFX
+
+    FrameExchange(int width, int height) {
+        for (int k = 0; k < frames.length; k++) {
+            frames[k] = new SimulationFrame(width, height);
+        }
+    }
+
+    /**
+     * Image à remplir avant {@link #publish()} (thread de simulation)
+     */
+    SimulationFrame getBack() {
+        return frames[back];
+    }
+
+    /**
+     * Vrai si la dernière image publiée n'a pas encore été prise par le thread JavaFX
+     */
+    boolean isPending() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    /**
+     * Publie l'image arrière et récupère l'ancienne image du milieu (thread de simulation)
+     */
+    void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Prend la dernière image publiée (thread JavaFX)
+     * @return L'image, ou null si rien n'a été publié depuis le dernier appel
+     */
+    SimulationFrame acquire() {
+        if (!isPending()) {
+            return null;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return frames[front];
+    }
+}
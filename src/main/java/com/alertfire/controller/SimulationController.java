@@ -1,43 +1,132 @@
 package com.alertfire.controller;
 
 import com.alertfire.ui.GridView;
+import com.alertfire.model.DirtyCellSet;
+import com.alertfire.model.ForestGrid;
 import com.alertfire.model.TreeNode;
 import com.alertfire.model.enums.NodeState;
+import com.alertfire.simulation.FireDistanceField;
 import com.alertfire.simulation.PropagationStrategy;
 import com.alertfire.config.SimulationConfig;
-import com.alertfire.device.ProjectNode;
+import com.alertfire.device.Placement;
+import com.alertfire.device.PlacementOptimizer;
+import com.alertfire.device.SensorArray;
 import com.alertfire.model.enums.ProjectType;
+import com.alertfire.backend.EmbeddedBackend;
 import com.alertfire.communication.LoRaReceiver;
+import com.alertfire.communication.LoRaTransmitter;
+import com.alertfire.log.EventLog;
+import com.alertfire.log.EventType;
+import com.alertfire.log.LogLevel;
+import com.alertfire.metrics.DetectionLatencyRecorder;
+import com.alertfire.metrics.PerformanceMonitor;
+import com.alertfire.metrics.PerformanceMonitor.Phase;
+import com.alertfire.model.LoRaMessage;
+import com.alertfire.scenario.ScenarioFile;
 
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import java.util.ArrayList;
-import java.util.List;
+
+import java.io.IOException;
+import java.net.URI;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.Stack;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 /**
- * Contrôleur principal pour la simulation de feu de forêt
+ * Contrôleur principal pour la simulation de feu de forêt.
+ *
+ * La simulation tourne sur un thread dédié, propriétaire de la grille, des capteurs et de
+ * l'historique. Les méthodes publiques, appelées depuis l'interface, ne modifient rien
+ * elles-mêmes : elles déposent une commande dans une file que le thread de simulation
+ * exécute entre deux étapes. Après chaque étape ou commande, il publie une image
+ * ({@link SimulationFrame}) par un triple tampon ; le thread JavaFX ne fait que dessiner
+ * la dernière image publiée. Une étape lente ne gèle donc plus l'interface, et la cadence
+ * d'affichage ne limite plus celle de la simulation.
  */
 public class SimulationController {
 
+    /**
+     * Reçoit le résultat d'un placement optimisé, sur le thread JavaFX
+     */
+    public interface PlacementHandler {
+        void onPlaced(List<Placement> placements, PlacementOptimizer optimizer);
+    }
+
+    /**
+     * Reçoit le résultat d'un chargement ou d'un enregistrement de scénario, sur le thread JavaFX
+     */
+    public interface ScenarioHandler {
+        /**
+         * @param success Vrai si l'opération a abouti
+         * @param message Compte rendu à afficher
+         */
+        void onCompleted(boolean success, String message);
+    }
+
+    // Un foyer à moins de 2 cellules est considéré comme la source d'un nouvel allumage
+    private static final int SPREAD_DISTANCE_SQ = 8;
+    // Attente avant de republier une image que l'affichage n'a pas encore prise
+    private static final long FRAME_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     private GridView gridView;
+    private ForestGrid forest;
     private PropagationStrategy propagationStrategy;
     private SimulationConfig config;
-    private AnimationTimer simulationTimer;
-    private boolean isRunning = false;
-    private long lastUpdate = 0;
-    private double windSpeed;
-    private double windDirection;
-    private List<ProjectNode> projects = new ArrayList<>();
+    private volatile boolean isRunning = false;
+    private volatile double windSpeed;
+    private volatile double windDirection;
+    private LoRaTransmitter transmitter;
+    private EmbeddedBackend backend;
+    private SensorArray sensors;
     private Random random = new Random();
+    private FireDistanceField fireField;
+    private DetectionLatencyRecorder latencyRecorder = new DetectionLatencyRecorder();
+    private final PerformanceMonitor monitor = new PerformanceMonitor();
+    // Dernier scénario chargé ou enregistré : le réenregistrer n'écrit que les lignes modifiées
+    private ScenarioFile scenario;
+
+    // Abonnés au bus LoRa, retirés à la fermeture
+    private final Consumer<LoRaMessage> metricsListener = latencyRecorder::onMessage;
+    private final Consumer<LoRaMessage> alertLogListener = message -> {
+        if (message.isFireDetected()) {
+            EventLog.getInstance().event(LogLevel.INFO, EventType.FIRE_ALERT)
+                    .field("uuid", message.getUuid())
+                    .field("row", message.getRow())
+                    .field("col", message.getCol())
+                    .commit();
+        }
+    };
 
     // Historique des états pour le bouton Back
     private Stack<SimulationState> history = new Stack<>();
     private double totalSimulationTime = 0.0;
 
+    // Thread de simulation et commandes venant de l'interface
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean shuttingDown = false;
+    private final long stepPeriodNanos;
+    private long lastStep = 0;
+    private long nextStep = 0;
+
+    // Images publiées pour l'affichage
+    private final FrameExchange frames;
+    private final AnimationTimer renderTimer;
+    private long frameSequence = 0;
+    private long projectVersion = 0;
+    private boolean framePending = false;
+
     /**
      * Constructeur du contrôleur de simulation
      * @param gridView Vue de la grille
@@ -46,70 +135,203 @@ public class SimulationController {
      */
     public SimulationController(GridView gridView, PropagationStrategy strategy, SimulationConfig config) {
         this.gridView = gridView;
+        this.forest = new ForestGrid(config.getGridWidth(), config.getGridHeight());
         this.propagationStrategy = strategy;
         this.config = config;
+        this.stepPeriodNanos = TimeUnit.MILLISECONDS.toNanos(config.getSimulationStepPeriodMs());
+        this.frames = new FrameExchange(config.getGridWidth(), config.getGridHeight());
 
         // Initialiser les paramètres météorologiques
         this.windSpeed = config.getInitialWindSpeed();
         this.windDirection = config.getInitialWindDirection();
 
-        // S'abonner aux messages LoRa
-        LoRaReceiver.getInstance().addListener(message -> {
-            if (message.isFireDetected()) {
-                Platform.runLater(() -> {
-                    System.out.println("Alerte de feu reçue de Projet " + message.getUuid() +
-                            " à (" + message.getRow() + "," + message.getCol() + ")");
-                });
-            }
-        });
+        // Journal d'événements asynchrone, ouvert avant tout composant qui y écrit
+        openEventLog();
+
+        // Backend local, démarré avant la liaison qui s'y connecte
+        if (config.isEmbeddedBackend()) {
+            startEmbeddedBackend();
+        }
+
+        // Capteurs de tous les projets, partageant un même transmetteur LoRa
+        this.transmitter = new LoRaTransmitter(config);
+        this.sensors = new SensorArray(config, transmitter);
+
+        // Carte des distances au feu, bornée au plus grand rayon de détection
+        this.fireField = new FireDistanceField(config.getGridWidth(), config.getGridHeight(),
+                Math.max(config.getMasterDetectionRadius(), config.getSlaveDetectionRadius()));
 
-        // Initialiser le minuteur de simulation
-        initSimulationTimer();
+        // S'abonner aux messages LoRa : chaque abonné lit le bus sur son propre thread
+        LoRaReceiver.getInstance().addListener("metrics", metricsListener);
+        LoRaReceiver.getInstance().addListener("alert-log", alertLogListener);
 
         // Sauvegarder l'état initial
         saveCurrentState();
+
+        // Le thread JavaFX dessine la dernière image publiée, s'il y en a une nouvelle, et anime les capteurs
+        renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long start = System.nanoTime();
+                SimulationFrame frame = frames.acquire();
+                if (frame != null) {
+                    gridView.render(frame);
+                }
+                gridView.animate(now);
+                monitor.record(Phase.RENDER, start);
+                monitor.frameRendered();
+            }
+        };
+        renderTimer.start();
+
+        worker = new Thread(this::runWorker, "simulation");
+        worker.setDaemon(true);
+        worker.start();
     }
 
     /**
-     * Initialise le minuteur d'animation pour la simulation
+     * Confie une commande au thread de simulation, qui l'exécute avant sa prochaine étape
      */
-    private void initSimulationTimer() {
-        simulationTimer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                // Calculer le temps écoulé en secondes
-                if (lastUpdate == 0) {
-                    lastUpdate = now;
-                    return;
+    private void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Boucle du thread de simulation : commandes, étape si la simulation tourne, publication
+     */
+    private void runWorker() {
+        while (!shuttingDown) {
+            boolean changed = runCommands();
+
+            long now = System.nanoTime();
+            if (isRunning && now >= nextStep) {
+                double elapsedTime = (now - lastStep) / 1_000_000_000.0;
+                lastStep = now;
+                nextStep = now + stepPeriodNanos;
+                try {
+                    update(elapsedTime);
+                } catch (RuntimeException e) {
+                    System.out.println("Erreur pendant l'étape de simulation: " + e);
                 }
+                changed = true;
+            }
 
-                double elapsedTime = (now - lastUpdate) / 1_000_000_000.0;
-                lastUpdate = now;
+            if (changed || framePending) {
+                publishFrame();
+            }
 
-                // Mettre à jour la simulation
-                update(elapsedTime);
+            // Attendre la prochaine étape, une commande, ou que l'affichage prenne l'image en attente
+            if (isRunning) {
+                LockSupport.parkNanos(this, nextStep - System.nanoTime());
+            } else if (framePending) {
+                LockSupport.parkNanos(this, FRAME_RETRY_NANOS);
+            } else {
+                LockSupport.park(this);
             }
-        };
+        }
+    }
+
+    /**
+     * Exécute les commandes en attente
+     * @return true si au moins une commande a été exécutée
+     */
+    private boolean runCommands() {
+        boolean executed = false;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                System.out.println("Erreur pendant une commande de simulation: " + e);
+            }
+            executed = true;
+        }
+        return executed;
+    }
+
+    /**
+     * Publie l'état courant pour l'affichage, sauf si l'image précédente n'a pas encore été prise :
+     * les modifications s'accumulent alors jusqu'à la prochaine tentative
+     */
+    private void publishFrame() {
+        if (frames.isPending()) {
+            framePending = true;
+            return;
+        }
+        long start = System.nanoTime();
+        SimulationFrame frame = frames.getBack();
+        frame.captureCells(forest);
+        frame.captureProjects(sensors, projectVersion);
+        frame.captureState(++frameSequence, totalSimulationTime, windSpeed, windDirection);
+        frames.publish();
+        framePending = false;
+        monitor.record(Phase.PUBLISH, start);
     }
 
     /**
      * Démarre la simulation
      */
     public void startSimulation() {
-        if (!isRunning) {
-            isRunning = true;
-            lastUpdate = 0;
-            simulationTimer.start();
-        }
+        submit(() -> {
+            if (!isRunning) {
+                isRunning = true;
+                lastStep = System.nanoTime();
+                nextStep = lastStep + stepPeriodNanos;
+            }
+        });
     }
 
     /**
      * Arrête la simulation
      */
     public void stopSimulation() {
-        if (isRunning) {
-            isRunning = false;
-            simulationTimer.stop();
+        submit(() -> isRunning = false);
+    }
+
+    /**
+     * Arrête la simulation et libère les ressources réseau (fermeture de l'application)
+     */
+    public void shutdown() {
+        renderTimer.stop();
+        shuttingDown = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LoRaReceiver.getInstance().removeListener(metricsListener);
+        LoRaReceiver.getInstance().removeListener(alertLogListener);
+        transmitter.shutdown();
+        if (backend != null) {
+            backend.stop();
+        }
+        EventLog.getInstance().close();
+    }
+
+    private void openEventLog() {
+        try {
+            EventLog.getInstance().open(Path.of(config.getEventLogFile()),
+                    LogLevel.valueOf(config.getEventLogLevel()), config.getEventLogCapacity(),
+                    config.isEventLogConsole());
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Impossible d'ouvrir le journal d'événements: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Démarre le backend local sur l'URL configurée ; la simulation continue sans lui en cas d'échec
+     */
+    private void startEmbeddedBackend() {
+        try {
+            backend = new EmbeddedBackend(URI.create(config.getBackendUrl()), 4);
+            backend.setLatency(config.getEmbeddedBackendLatencyMs(), 0);
+            backend.setErrorRate(config.getEmbeddedBackendErrorRate());
+            backend.start();
+        } catch (IOException e) {
+            backend = null;
+            System.out.println("Impossible de démarrer le backend local: " + e.getMessage());
         }
     }
 
@@ -124,19 +346,30 @@ public class SimulationController {
      * Redémarre la simulation depuis le début
      */
     public void resetSimulation() {
-        stopSimulation();
-        gridView.resetGrid();
-        projects.clear();
-        gridView.clearProjects();
+        submit(this::reset);
+    }
+
+    private void reset() {
+        isRunning = false;
+        forest.reset();
+        fireField.clear();
+        sensors.clear();
+        projectVersion++;
+        latencyRecorder.reset();
+        transmitter.getMesh().resetStatistics();
+        transmitter.getLimiter().resetStatistics();
+        transmitter.resetChannel(totalSimulationTime);
     }
 
     /**
      * Effectue une étape unique de simulation
      */
     public void stepSimulation() {
-        if (!isRunning) {
-            update(config.getStepTime());
-        }
+        submit(() -> {
+            if (!isRunning) {
+                update(config.getStepTime());
+            }
+        });
     }
 
     /**
@@ -147,20 +380,26 @@ public class SimulationController {
         // Incrémenter le temps total de simulation
         totalSimulationTime += elapsedTime;
 
+        // Chaque phase est chronométrée à partir de la fin de la précédente
+        long t = System.nanoTime();
+
         // Sauvegarder l'état actuel avant modifications
         saveCurrentState();
+        t = monitor.record(Phase.HISTORY, t);
 
         // Propager le feu
-        propagationStrategy.propagateFire(gridView.getGrid(), elapsedTime, windSpeed, windDirection);
+        propagationStrategy.propagateFire(forest.getGrid(), elapsedTime, windSpeed, windDirection);
+        t = monitor.record(Phase.PROPAGATION, t);
 
         // Mettre à jour les projets et détecter les incendies
         updateProjects(elapsedTime);
+        t = monitor.record(Phase.SENSORS, t);
 
         // Varier légèrement les conditions météorologiques
         updateWeatherConditions(elapsedTime);
+        monitor.record(Phase.WEATHER, t);
 
-        // Mettre à jour l'interface graphique
-        gridView.updateUI();
+        monitor.stepCompleted(fireField.getBurningCount());
     }
 
     /**
@@ -168,26 +407,61 @@ public class SimulationController {
      * @param elapsedTime Temps écoulé depuis la dernière mise à jour
      */
     private void updateProjects(double elapsedTime) {
-        // Créer une carte de feu pour la détection efficace
-        boolean[][] fireGrid = new boolean[config.getGridHeight()][config.getGridWidth()];
-        TreeNode[][] grid = gridView.getGrid();
-
-        for (int r = 0; r < config.getGridHeight(); r++) {
-            for (int c = 0; c < config.getGridWidth(); c++) {
-                fireGrid[r][c] = grid[r][c].getState() == NodeState.BURNING;
-            }
-        }
+        // Répercuter les allumages et extinctions sur la carte des distances au feu
+        syncFireField();
 
         // Faire détecter les incendies par les projets
         double temperature = 20.0 + random.nextDouble() * 5.0; // 20-25°C
         double humidity = Math.max(0, Math.min(100, config.getHumidity() + random.nextDouble() * 10 - 5)); // ±5%
 
-        for (ProjectNode project : projects) {
-            // Mettre à jour l'état énergétique du projet
-            project.update(elapsedTime, config.getCellSizeKm());
+        // Mettre à jour l'état énergétique des projets, détecter et signaler les incendies
+        sensors.update(elapsedTime, fireField, temperature, humidity, totalSimulationTime);
 
-            // Détecter et signaler les incendies
-            project.detectAndReport(fireGrid, temperature, humidity, totalSimulationTime, config.getCellSizeKm());
+        // Faire avancer le canal radio : livrer les messages arrivés aux maîtres
+        transmitter.advanceTo(totalSimulationTime);
+    }
+
+    /**
+     * Signale à la carte des distances les cellules dont l'état de combustion a changé.
+     * Seules les cellules allumées ou éteintes depuis la dernière synchronisation sont
+     * examinées ; toute la grille ne l'est qu'après une réinitialisation.
+     */
+    private void syncFireField() {
+        DirtyCellSet changes = forest.getFireChanges();
+        int width = forest.getWidth();
+
+        if (changes.isFull()) {
+            for (int r = 0; r < forest.getHeight(); r++) {
+                for (int c = 0; c < width; c++) {
+                    syncFireCell(r, c);
+                }
+            }
+        } else {
+            for (int k = 0; k < changes.size(); k++) {
+                int cell = changes.get(k);
+                syncFireCell(cell / width, cell % width);
+            }
+        }
+        changes.clear();
+
+        fireField.propagate();
+    }
+
+    private void syncFireCell(int r, int c) {
+        boolean burning = forest.getGrid()[r][c].getState() == NodeState.BURNING;
+        if (burning == fireField.isBurning(r, c)) {
+            return;
+        }
+        if (burning) {
+            // Le nouveau foyer rejoint l'incendie du foyer voisin le plus proche
+            int incident = fireField.distanceSq(r, c) <= SPREAD_DISTANCE_SQ ?
+                    fireField.incidentOf(fireField.nearestFire(r, c)) : -1;
+            if (incident < 0) {
+                incident = latencyRecorder.openIncident(totalSimulationTime, r, c);
+            }
+            fireField.markIgnited(r, c, totalSimulationTime, incident);
+        } else {
+            fireField.markExtinguished(r, c);
         }
     }
 
@@ -195,6 +469,10 @@ public class SimulationController {
      * Retourne à l'état précédent de la simulation
      */
     public void goBack() {
+        submit(this::restorePreviousState);
+    }
+
+    private void restorePreviousState() {
         if (history.size() > 1) {
             // Supprimer l'état actuel
             history.pop();
@@ -202,9 +480,6 @@ public class SimulationController {
             // Restaurer l'état précédent
             SimulationState previousState = history.peek();
             restoreState(previousState);
-
-            // Mettre à jour l'interface
-            gridView.updateUI();
             System.out.println("Retour à l'état précédent");
         } else {
             System.out.println("Impossible de revenir en arrière - pas d'historique disponible");
@@ -230,8 +505,8 @@ public class SimulationController {
 
         // Créer une copie profonde de l'état actuel
         SimulationState currentState = new SimulationState(
-                gridView.getGrid(),
-                projects,
+                forest.getGrid(),
+                sensors.size(),
                 windSpeed,
                 windDirection,
                 totalSimulationTime
@@ -259,21 +534,21 @@ public class SimulationController {
      */
     private void restoreState(SimulationState state) {
         // Restaurer la grille
-        copyGridState(state.getGrid(), gridView.getGrid());
+        copyGridState(state.getGrid(), forest.getGrid());
 
-        // Restaurer les projets
-        projects = state.getProjects();
-        gridView.clearProjects();
-        for (ProjectNode project : projects) {
-            gridView.addProject(project, project.getRow(), project.getCol());
+        // Restaurer les projets : retirer ceux ajoutés depuis la sauvegarde
+        if (sensors.size() != state.getProjectCount()) {
+            sensors.truncate(state.getProjectCount());
+            projectVersion++;
         }
 
         // Restaurer les conditions météo
         windSpeed = state.getWindSpeed();
         windDirection = state.getWindDirection();
 
-        // Restaurer le temps de simulation
+        // Restaurer le temps de simulation ; les messages encore sur l'air sont abandonnés
         totalSimulationTime = state.getSimulationTime();
+        transmitter.resetChannel(totalSimulationTime);
     }
 
     /**
@@ -295,10 +570,19 @@ public class SimulationController {
      * @param col Colonne
      */
     public void startFire(int row, int col) {
-        TreeNode node = gridView.getGrid()[row][col];
+        submit(() -> ignite(row, col));
+    }
+
+    private void ignite(int row, int col) {
+        TreeNode node = forest.getGrid()[row][col];
         if (node.getState() == NodeState.TREE) {
             node.setState(NodeState.BURNING);
             node.setFireIntensity(0.5);
+
+            // Horodater l'allumage pour la mesure de latence de détection
+            int incident = latencyRecorder.openIncident(totalSimulationTime, row, col);
+            fireField.markIgnited(row, col, totalSimulationTime, incident);
+            fireField.propagate();
             System.out.println("Feu démarré en position (" + row + "," + col + ")");
         } else {
             System.out.println("Impossible de démarrer un feu à cette position - pas d'arbre");
@@ -309,8 +593,17 @@ public class SimulationController {
      * Génère une forêt aléatoire avec une certaine densité
      */
     public void generateRandomForest(double density) {
-        resetSimulation();
-        gridView.generateRandomForest(density);
+        submit(() -> {
+            reset();
+            forest.generateRandomForest(density);
+        });
+    }
+
+    /**
+     * Modifie l'état d'une cellule (outils Vide et Arbre)
+     */
+    public void setCellState(int row, int col, NodeState state) {
+        submit(() -> forest.getGrid()[row][col].setState(state));
     }
 
     /**
@@ -320,26 +613,124 @@ public class SimulationController {
      * @param type Type de projet (MASTER ou SLAVE)
      */
     public void addProject(int row, int col, ProjectType type) {
-        // Vérifier si un projet existe déjà à cette position
-        for (ProjectNode existingProject : projects) {
-            if (existingProject.getRow() == row && existingProject.getCol() == col) {
+        submit(() -> {
+            if (!placeProject(row, col, type)) {
                 System.out.println("Un projet existe déjà à cette position");
                 return;
             }
+
+            System.out.println("Projet " + type + " ajouté en position (" + row + "," + col + ")");
+        });
+    }
+
+    /**
+     * Charge un plan de placement (par exemple calculé par {@link PlacementOptimizer})
+     * @param placements Projets à ajouter, dans l'ordre
+     */
+    public void loadPlacements(List<Placement> placements) {
+        submit(() -> placeAll(placements));
+    }
+
+    /**
+     * Calcule un placement optimisé sur la grille courante puis le charge
+     * @param masters Nombre de maîtres à placer
+     * @param slaves Nombre d'esclaves à placer
+     * @param handler Appelé sur le thread JavaFX une fois les projets chargés
+     */
+    public void optimizePlacement(int masters, int slaves, PlacementHandler handler) {
+        submit(() -> {
+            PlacementOptimizer optimizer = new PlacementOptimizer(config);
+            List<Placement> placements = optimizer.optimize(forest.getGrid(), masters, slaves);
+            placeAll(placements);
+            Platform.runLater(() -> handler.onPlaced(placements, optimizer));
+        });
+    }
+
+    private void placeAll(List<Placement> placements) {
+        int added = 0;
+        for (Placement placement : placements) {
+            if (placeProject(placement.getRow(), placement.getCol(), placement.getType())) {
+                added++;
+            }
         }
+        System.out.println(added + " projets chargés depuis le plan de placement");
+    }
 
-        // Créer un nouveau projet
-        ProjectNode project = new ProjectNode(row, col, config.getCellSize(), type);
-        projects.add(project);
-        gridView.addProject(project, row, col);
+    /**
+     * Crée un projet ; il apparaît à l'affichage avec la prochaine image
+     * @return false si un projet existe déjà à cette position
+     */
+    private boolean placeProject(int row, int col, ProjectType type) {
+        if (sensors.add(row, col, type) < 0) {
+            return false;
+        }
+        projectVersion++;
+        return true;
+    }
+
+    /**
+     * Charge un scénario à la place de la simulation courante ; la grille doit avoir ses dimensions
+     * @param handler Appelé sur le thread JavaFX une fois le chargement terminé ou échoué
+     */
+    public void loadScenario(Path path, ScenarioHandler handler) {
+        submit(() -> readScenario(path, handler));
+    }
 
-        System.out.println("Projet " + type + " ajouté en position (" + row + "," + col + ")");
+    private void readScenario(Path path, ScenarioHandler handler) {
+        long start = System.nanoTime();
+        try {
+            ScenarioFile file = ScenarioFile.open(path);
+            if (file.getWidth() != forest.getWidth() || file.getHeight() != forest.getHeight()) {
+                reportScenario(handler, false, "Scénario " + file.getWidth() + "x" + file.getHeight()
+                        + " incompatible avec la grille " + forest.getWidth() + "x" + forest.getHeight());
+                return;
+            }
+            reset();
+            scenario = null;
+            file.readCells(forest);
+            placeAll(file.getPlacements());
+            windSpeed = file.getWindSpeed();
+            windDirection = file.getWindDirection();
+            config.setHumidity(file.getHumidity());
+            scenario = file;
+            reportScenario(handler, true, "Scénario chargé depuis " + path.getFileName() + " en "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (IOException e) {
+            reportScenario(handler, false, "Erreur de chargement du scénario: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Enregistre la grille, les projets et la météo courants
+     * @param handler Appelé sur le thread JavaFX une fois l'enregistrement terminé ou échoué
+     */
+    public void saveScenario(Path path, ScenarioHandler handler) {
+        submit(() -> writeScenario(path, handler));
+    }
+
+    private void writeScenario(Path path, ScenarioHandler handler) {
+        long start = System.nanoTime();
+        ScenarioFile file = scenario != null && scenario.getPath().equals(path) ? scenario : new ScenarioFile(path);
+        try {
+            int rows = file.save(forest, sensors, windSpeed, windDirection, config.getHumidity());
+            scenario = file;
+            reportScenario(handler, true, "Scénario enregistré dans " + path.getFileName() + " ("
+                    + rows + " lignes écrites) en " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (IOException e) {
+            scenario = null;
+            reportScenario(handler, false, "Erreur d'enregistrement du scénario: " + e.getMessage());
+        }
+    }
+
+    private void reportScenario(ScenarioHandler handler, boolean success, String message) {
+        System.out.println(message);
+        Platform.runLater(() -> handler.onCompleted(success, message));
     }
 
     // Getters et setters
 
     public void setWindSpeed(double windSpeed) {
-        this.windSpeed = windSpeed;
+        submit(() -> this.windSpeed = windSpeed);
     }
 
     public double getWindSpeed() {
@@ -347,7 +738,7 @@ public class SimulationController {
     }
 
     public void setWindDirection(double windDirection) {
-        this.windDirection = windDirection;
+        submit(() -> this.windDirection = windDirection);
     }
 
     public double getWindDirection() {
@@ -359,7 +750,54 @@ public class SimulationController {
     }
 
     public void setPropagationStrategy(PropagationStrategy strategy) {
-        this.propagationStrategy = strategy;
+        submit(() -> this.propagationStrategy = strategy);
+    }
+
+    /**
+     * Exporte le rapport de latence de détection et de livraison du réseau maillé
+     * @param path Fichier CSV de destination
+     */
+    public void exportLatencyReport(Path path) {
+        submit(() -> writeLatencyReport(path));
+    }
+
+    private void writeLatencyReport(Path path) {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            latencyRecorder.writeReport(out);
+            out.append('\n');
+            transmitter.getMesh().writeReport(out);
+            out.append('\n');
+            transmitter.getChannel().writeReport(out);
+            out.append('\n');
+            transmitter.getAggregator().writeReport(out);
+            out.append('\n');
+            transmitter.getLimiter().writeReport(out);
+            System.out.println("Rapport de latence exporté: " + path.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Erreur d'export du rapport de latence: " + e.getMessage());
+        }
+    }
+
+    public DetectionLatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    /**
+     * Mesures de performance de la simulation et du rendu
+     */
+    public PerformanceMonitor getPerformanceMonitor() {
+        return monitor;
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Capteurs de la simulation ; à ne lire que depuis le thread de simulation
+     */
+    public SensorArray getSensors() {
+        return sensors;
     }
 
     // Ajouter une méthode pour récupérer la vue de la grille
@@ -372,27 +810,24 @@ public class SimulationController {
      */
     private static class SimulationState {
         private TreeNode[][] grid;
-        private List<ProjectNode> projects;
+        private int projectCount;
         private double windSpeed;
         private double windDirection;
         private double simulationTime;
 
-        public SimulationState(TreeNode[][] grid, List<ProjectNode> projects,
+        public SimulationState(TreeNode[][] grid, int projectCount,
                                double windSpeed, double windDirection, double simulationTime) {
             // Copie profonde de la grille
             this.grid = new TreeNode[grid.length][grid[0].length];
             for (int r = 0; r < grid.length; r++) {
                 for (int c = 0; c < grid[0].length; c++) {
-                    // Utiliser le constructeur avec 4 arguments en récupérant la taille des cellules
-                    double cellWidth = grid[r][c].getWidth();
-                    double cellHeight = grid[r][c].getHeight();
-                    this.grid[r][c] = new TreeNode(r, c, cellWidth, cellHeight);
+                    this.grid[r][c] = new TreeNode(r, c);
                     this.grid[r][c].copyStateFrom(grid[r][c]);
                 }
             }
 
-            // Copie de la liste des projets
-            this.projects = new ArrayList<>(projects);
+            // Nombre de projets au moment de la sauvegarde
+            this.projectCount = projectCount;
 
             this.windSpeed = windSpeed;
             this.windDirection = windDirection;
@@ -403,8 +838,8 @@ public class SimulationController {
             return grid;
         }
 
-        public List<ProjectNode> getProjects() {
-            return projects;
+        public int getProjectCount() {
+            return projectCount;
         }
 
         public double getWindSpeed() {
@@ -0,0 +1,237 @@
+package com.alertfire.controller;
+
+import com.alertfire.device.SensorArray;
+import com.alertfire.model.DirtyCellSet;
+import com.alertfire.model.ForestGrid;
+import com.alertfire.model.TreeNode;
+import com.alertfire.model.enums.ProjectType;
+import com.alertfire.ui.CellPalette;
+
+import java.util.Arrays;
+
+/**
+ * Image de la simulation publiée pour l'affichage.
+ *
+ * Elle est remplie par le thread de simulation puis remise au thread JavaFX par un
+ * {@link FrameExchange} ; tant qu'elle est publiée, plus personne ne la modifie. Les
+ * cellules sont décrites par leur code ({@link CellPalette#codeOf}), par différence avec
+ * l'image précédente (indices et codes des cellules modifiées), ou entièrement quand une
+ * grande part de la grille a changé.
+ * Les tableaux sont réutilisés d'une publication à l'autre.
+ */
+public final class SimulationFrame {
+
+    // Au-delà de cette part de cellules modifiées, l'image contient toute la grille
+    private static final double FULL_REDRAW_FRACTION = 0.25;
+
+    private final int width;
+    private final int height;
+
+    private long sequence;
+    private double simulationTime;
+    private double windSpeed;
+    private double windDirection;
+
+    // Cellules
+    private boolean full;
+    private byte[] codes;
+    private int dirtyCount;
+    private int[] dirtyCells = new int[256];
+    private byte[] dirtyCodes = new byte[256];
+
+    // Projets
+    private long projectVersion = -1;
+    private int projectCount;
+    private int[] projectRows = new int[0];
+    private int[] projectCols = new int[0];
+    private boolean[] projectMaster = new boolean[0];
+    private boolean[] projectActive = new boolean[0];
+    private int pulseCount;
+    private int[] pulses = new int[16];
+
+    SimulationFrame(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Copie les codes des cellules modifiées (ou de toute la grille) et vide l'ensemble des modifications
+     */
+    void captureCells(ForestGrid forest) {
+        DirtyCellSet dirty = forest.getDirtyCells();
+        TreeNode[][] grid = forest.getGrid();
+
+        full = dirty.isFull() || dirty.size() > FULL_REDRAW_FRACTION * width * height;
+        if (full) {
+            if (codes == null) {
+                codes = new byte[width * height];
+            }
+            for (int row = 0; row < height; row++) {
+                TreeNode[] cells = grid[row];
+                int base = row * width;
+                for (int col = 0; col < width; col++) {
+                    codes[base + col] = (byte) CellPalette.codeOf(cells[col]);
+                }
+            }
+            dirtyCount = 0;
+        } else {
+            int count = dirty.size();
+            if (dirtyCells.length < count) {
+                dirtyCells = Arrays.copyOf(dirtyCells, Math.max(count, dirtyCells.length * 2));
+                dirtyCodes = Arrays.copyOf(dirtyCodes, dirtyCells.length);
+            }
+            for (int k = 0; k < count; k++) {
+                int cell = dirty.get(k);
+                int row = cell / width;
+                dirtyCells[k] = cell;
+                dirtyCodes[k] = (byte) CellPalette.codeOf(grid[row][cell - row * width]);
+            }
+            dirtyCount = count;
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Copie l'état des projets ; leurs positions ne sont recopiées que si la liste a changé
+     * @param version Version de la liste des projets, incrémentée à chaque ajout ou retrait
+     */
+    void captureProjects(SensorArray sensors, long version) {
+        int count = sensors.size();
+        if (projectActive.length < count) {
+            int capacity = Math.max(count, projectActive.length * 2);
+            projectRows = Arrays.copyOf(projectRows, capacity);
+            projectCols = Arrays.copyOf(projectCols, capacity);
+            projectMaster = Arrays.copyOf(projectMaster, capacity);
+            projectActive = Arrays.copyOf(projectActive, capacity);
+        }
+        if (version != projectVersion) {
+            for (int i = 0; i < count; i++) {
+                projectRows[i] = sensors.getRow(i);
+                projectCols[i] = sensors.getCol(i);
+                projectMaster[i] = sensors.getType(i) == ProjectType.MASTER;
+            }
+            projectVersion = version;
+        }
+        for (int i = 0; i < count; i++) {
+            projectActive[i] = sensors.isActive(i);
+        }
+        projectCount = count;
+
+        // Émissions depuis la dernière image, pour l'animation
+        pulseCount = 0;
+        for (int k = 0; k < sensors.getTransmittedCount(); k++) {
+            int i = sensors.getTransmitted(k);
+            if (i < count) {
+                if (pulseCount == pulses.length) {
+                    pulses = Arrays.copyOf(pulses, pulseCount * 2);
+                }
+                pulses[pulseCount++] = i;
+            }
+        }
+        sensors.clearTransmitted();
+    }
+
+    void captureState(long sequence, double simulationTime, double windSpeed, double windDirection) {
+        this.sequence = sequence;
+        this.simulationTime = simulationTime;
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+    }
+
+    /**
+     * Numéro de l'image, croissant d'une publication à l'autre
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Vrai si l'image contient toute la grille ({@link #getCodes()}) plutôt que les cellules modifiées
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Codes de toute la grille, ligne par ligne (seulement si {@link #isFull()})
+     */
+    public byte[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Nombre de cellules modifiées depuis l'image précédente
+     */
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    /**
+     * Indice ({@code row * width + col}) de la k-ième cellule modifiée
+     */
+    public int getDirtyCell(int k) {
+        return dirtyCells[k];
+    }
+
+    public int getDirtyCode(int k) {
+        return dirtyCodes[k];
+    }
+
+    /**
+     * Version de la liste des projets : les positions n'ont pas changé tant qu'elle est identique
+     */
+    public long getProjectVersion() {
+        return projectVersion;
+    }
+
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    public int getProjectRow(int i) {
+        return projectRows[i];
+    }
+
+    public int getProjectCol(int i) {
+        return projectCols[i];
+    }
+
+    public boolean isProjectMaster(int i) {
+        return projectMaster[i];
+    }
+
+    public boolean isProjectActive(int i) {
+        return projectActive[i];
+    }
+
+    /**
+     * Nombre de projets ayant émis depuis l'image précédente
+     */
+    public int getPulseCount() {
+        return pulseCount;
+    }
+
+    public int getPulse(int k) {
+        return pulses[k];
+    }
+}
@@ -0,0 +1,35 @@
+package com.alertfire.device;
+
+import com.alertfire.model.enums.ProjectType;
+
+/**
+ * Position proposée pour un projet, telle que produite par {@link PlacementOptimizer}
+ */
+public class Placement {
+    private final int row;
+    private final int col;
+    private final ProjectType type;
+
+    public Placement(int row, int col, ProjectType type) {
+        this.row = row;
+        this.col = col;
+        this.type = type;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public ProjectType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return type + " (" + row + "," + col + ")";
+    }
+}
@@ -0,0 +1,390 @@
+package com.alertfire.device;
+
+import com.alertfire.communication.LoRaTransmitter;
+import com.alertfire.config.SimulationConfig;
+import com.alertfire.model.TreeNode;
+import com.alertfire.model.enums.NodeState;
+import com.alertfire.model.enums.ProjectType;
+import com.alertfire.simulation.DiscMask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calcule un plan de placement des projets maîtres et esclaves sur une forêt.
+ *
+ * La couverture est représentée par des lignes de bits (64 cellules par mot) : le gain
+ * d'un site est le nombre d'arbres de son disque de détection pas encore couverts.
+ * Les sites candidats forment un réseau régulier dont le pas dépend du rayon, et sont
+ * choisis par recherche gloutonne paresseuse : le gain d'un candidat n'est recalculé
+ * que lorsqu'il arrive en tête du tas, puisqu'un gain ne peut que diminuer.
+ *
+ * Les maîtres sont placés en premier. Un esclave n'est retenu que s'il est à portée
+ * LoRa d'un projet déjà placé, ce qui garantit un chemin radio jusqu'à un maître ;
+ * les candidats hors de portée sont mis de côté et réactivés quand un voisin est placé.
+ */
+public class PlacementOptimizer {
+
+    private final SimulationConfig config;
+
+    private int treeCount = 0;
+    private int coveredTrees = 0;
+
+    public PlacementOptimizer(SimulationConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Calcule le plan de placement
+     * @param grid Grille de la forêt
+     * @param masterBudget Nombre maximal de maîtres
+     * @param slaveBudget Nombre maximal d'esclaves
+     * @return Placements, maîtres d'abord puis esclaves dans l'ordre de sélection
+     */
+    public List<Placement> optimize(TreeNode[][] grid, int masterBudget, int slaveBudget) {
+        int height = grid.length;
+        int width = grid[0].length;
+        int wordsPerRow = (width + 63) >>> 6;
+
+        // Couche forêt compactée
+        long[] trees = new long[wordsPerRow * height];
+        treeCount = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if (grid[r][c].getState() == NodeState.TREE) {
+                    trees[r * wordsPerRow + (c >>> 6)] |= 1L << (c & 63);
+                    treeCount++;
+                }
+            }
+        }
+
+        Coverage coverage = new Coverage(trees, width, height, wordsPerRow);
+        int rangeCells = Math.max(1, (int) Math.floor(LoRaTransmitter.getRangeKm() / config.getCellSizeKm()));
+        PlacedIndex placed = new PlacedIndex(width, height, rangeCells);
+
+        List<Placement> placements = new ArrayList<>();
+        new GreedyPass(coverage, placed, ProjectType.MASTER, config.getMasterDetectionRadius(), false)
+                .run(masterBudget, placements);
+        new GreedyPass(coverage, placed, ProjectType.SLAVE, config.getSlaveDetectionRadius(), true)
+                .run(slaveBudget, placements);
+
+        coveredTrees = coverage.countCoveredTrees();
+        return placements;
+    }
+
+    /**
+     * Nombre d'arbres dans la forêt lors du dernier calcul
+     */
+    public int getTreeCount() {
+        return treeCount;
+    }
+
+    /**
+     * Nombre d'arbres couverts par le dernier plan
+     */
+    public int getCoveredTrees() {
+        return coveredTrees;
+    }
+
+    /**
+     * Couche forêt et couverture courante, en lignes de bits
+     */
+    private static final class Coverage {
+        final long[] trees;
+        final long[] covered;
+        final int width;
+        final int height;
+        final int wordsPerRow;
+
+        Coverage(long[] trees, int width, int height, int wordsPerRow) {
+            this.trees = trees;
+            this.covered = new long[trees.length];
+            this.width = width;
+            this.height = height;
+            this.wordsPerRow = wordsPerRow;
+        }
+
+        int gain(DiscMask mask, int row, int col) {
+            return mask.countUncovered(trees, covered, wordsPerRow, width, height, row, col);
+        }
+
+        void cover(DiscMask mask, int row, int col) {
+            mask.cover(covered, wordsPerRow, width, height, row, col);
+        }
+
+        int countCoveredTrees() {
+            int count = 0;
+            for (int i = 0; i < trees.length; i++) {
+                count += Long.bitCount(trees[i] & covered[i]);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Une passe gloutonne paresseuse pour un type de projet
+     */
+    private static final class GreedyPass {
+        private final Coverage coverage;
+        private final PlacedIndex placed;
+        private final ProjectType type;
+        private final DiscMask mask;
+        private final boolean requiresLink;
+
+        private final int[] candidateRows;
+        private final int[] candidateCols;
+        private final int[] staleGain;
+        private final LongMaxHeap heap = new LongMaxHeap();
+
+        // Candidats hors de portée, chaînés par case de l'index spatial
+        private final int[] deferredHead;
+        private final int[] deferredNext;
+
+        GreedyPass(Coverage coverage, PlacedIndex placed, ProjectType type, double radius, boolean requiresLink) {
+            this.coverage = coverage;
+            this.placed = placed;
+            this.type = type;
+            this.mask = DiscMask.forRadius(radius);
+            this.requiresLink = requiresLink;
+
+            // Réseau de candidats : un pas d'environ 0,7 rayon laisse les disques se recouvrir
+            int stride = Math.max(1, (int) Math.floor(radius * 0.7));
+            int offset = stride / 2;
+            int rowsCount = (coverage.height - offset + stride - 1) / stride;
+            int colsCount = (coverage.width - offset + stride - 1) / stride;
+            int count = Math.max(0, rowsCount) * Math.max(0, colsCount);
+
+            candidateRows = new int[count];
+            candidateCols = new int[count];
+            staleGain = new int[count];
+            int k = 0;
+            for (int r = offset; r < coverage.height; r += stride) {
+                for (int c = offset; c < coverage.width; c += stride) {
+                    candidateRows[k] = r;
+                    candidateCols[k] = c;
+                    k++;
+                }
+            }
+
+            deferredHead = new int[placed.bucketCount()];
+            Arrays.fill(deferredHead, -1);
+            deferredNext = new int[count];
+        }
+
+        void run(int budget, List<Placement> placements) {
+            if (budget <= 0) {
+                return;
+            }
+            for (int k = 0; k < candidateRows.length; k++) {
+                int gain = coverage.gain(mask, candidateRows[k], candidateCols[k]);
+                if (gain > 0) {
+                    staleGain[k] = gain;
+                    heap.push(key(gain, k));
+                }
+            }
+
+            int accepted = 0;
+            while (accepted < budget && !heap.isEmpty()) {
+                int k = candidate(heap.poll());
+                int row = candidateRows[k];
+                int col = candidateCols[k];
+
+                if (placed.contains(row, col)) {
+                    continue;
+                }
+                if (requiresLink && !placed.hasNeighbourWithin(row, col)) {
+                    defer(k);
+                    continue;
+                }
+
+                // Réévaluer le gain ; le garder seulement s'il reste en tête
+                int gain = coverage.gain(mask, row, col);
+                if (gain <= 0) {
+                    continue;
+                }
+                staleGain[k] = gain;
+                if (!heap.isEmpty() && gain < gainOf(heap.peek())) {
+                    heap.push(key(gain, k));
+                    continue;
+                }
+
+                coverage.cover(mask, row, col);
+                placed.add(row, col);
+                placements.add(new Placement(row, col, type));
+                accepted++;
+                if (requiresLink) {
+                    reactivateAround(row, col);
+                }
+            }
+        }
+
+        private void defer(int k) {
+            int bucket = placed.bucketOf(candidateRows[k], candidateCols[k]);
+            deferredNext[k] = deferredHead[bucket];
+            deferredHead[bucket] = k;
+        }
+
+        /**
+         * Remet dans le tas les candidats mis de côté désormais à portée de (row, col)
+         */
+        private void reactivateAround(int row, int col) {
+            int bucketRow = row / placed.bucketSize;
+            int bucketCol = col / placed.bucketSize;
+            for (int br = bucketRow - 1; br <= bucketRow + 1; br++) {
+                for (int bc = bucketCol - 1; bc <= bucketCol + 1; bc++) {
+                    if (br < 0 || br >= placed.bucketRows || bc < 0 || bc >= placed.bucketCols) continue;
+
+                    int bucket = br * placed.bucketCols + bc;
+                    int k = deferredHead[bucket];
+                    int kept = -1;
+                    while (k != -1) {
+                        int following = deferredNext[k];
+                        if (placed.withinRange(row, col, candidateRows[k], candidateCols[k])) {
+                            heap.push(key(staleGain[k], k));
+                        } else {
+                            deferredNext[k] = kept;
+                            kept = k;
+                        }
+                        k = following;
+                    }
+                    deferredHead[bucket] = kept;
+                }
+            }
+        }
+
+        private static long key(int gain, int candidate) {
+            // À gain égal, le plus petit indice passe en premier
+            return ((long) gain << 32) | (Integer.MAX_VALUE - candidate);
+        }
+
+        private static int candidate(long key) {
+            return Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL);
+        }
+
+        private static int gainOf(long key) {
+            return (int) (key >>> 32);
+        }
+    }
+
+    /**
+     * Index spatial des projets placés, par cases de la taille de la portée LoRa
+     */
+    private static final class PlacedIndex {
+        final int bucketSize;
+        final int bucketRows;
+        final int bucketCols;
+        private final int rangeSq;
+        private final int[] head;
+        private int[] next = new int[64];
+        private int[] rows = new int[64];
+        private int[] cols = new int[64];
+        private int size = 0;
+
+        PlacedIndex(int width, int height, int rangeCells) {
+            this.bucketSize = rangeCells;
+            this.rangeSq = rangeCells * rangeCells;
+            this.bucketRows = (height + rangeCells - 1) / rangeCells;
+            this.bucketCols = (width + rangeCells - 1) / rangeCells;
+            this.head = new int[bucketRows * bucketCols];
+            Arrays.fill(head, -1);
+        }
+
+        int bucketCount() {
+            return head.length;
+        }
+
+        int bucketOf(int row, int col) {
+            return (row / bucketSize) * bucketCols + col / bucketSize;
+        }
+
+        void add(int row, int col) {
+            if (size == rows.length) {
+                next = Arrays.copyOf(next, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+                cols = Arrays.copyOf(cols, size * 2);
+            }
+            int bucket = bucketOf(row, col);
+            rows[size] = row;
+            cols[size] = col;
+            next[size] = head[bucket];
+            head[bucket] = size;
+            size++;
+        }
+
+        boolean contains(int row, int col) {
+            for (int i = head[bucketOf(row, col)]; i != -1; i = next[i]) {
+                if (rows[i] == row && cols[i] == col) return true;
+            }
+            return false;
+        }
+
+        boolean withinRange(int r1, int c1, int r2, int c2) {
+            int dr = r1 - r2;
+            int dc = c1 - c2;
+            return dr * dr + dc * dc <= rangeSq;
+        }
+
+        boolean hasNeighbourWithin(int row, int col) {
+            int bucketRow = row / bucketSize;
+            int bucketCol = col / bucketSize;
+            for (int br = bucketRow - 1; br <= bucketRow + 1; br++) {
+                for (int bc = bucketCol - 1; bc <= bucketCol + 1; bc++) {
+                    if (br < 0 || br >= bucketRows || bc < 0 || bc >= bucketCols) continue;
+                    for (int i = head[br * bucketCols + bc]; i != -1; i = next[i]) {
+                        if (withinRange(row, col, rows[i], cols[i])) return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Tas binaire max de clés longues, sans boxing
+     */
+    private static final class LongMaxHeap {
+        private long[] items = new long[1024];
+        private int size = 0;
+
+        void push(long value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (items[parent] >= value) break;
+                items[i] = items[parent];
+                i = parent;
+            }
+            items[i] = value;
+        }
+
+        long poll() {
+            long top = items[0];
+            long last = items[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && items[child + 1] > items[child]) child++;
+                if (items[child] <= last) break;
+                items[i] = items[child];
+                i = child;
+            }
+            if (size > 0) {
+                items[i] = last;
+            }
+            return top;
+        }
+
+        long peek() {
+            return items[0];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
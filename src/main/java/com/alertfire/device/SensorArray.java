@@ -0,0 +1,486 @@
+package com.alertfire.device;
+
+import com.alertfire.communication.LoRaTransmitter;
+import com.alertfire.config.SimulationConfig;
+import com.alertfire.model.LoRaMessage;
+import com.alertfire.model.enums.ProjectType;
+import com.alertfire.simulation.DiscMask;
+import com.alertfire.simulation.FireDistanceField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Ensemble des capteurs (projets maîtres et esclaves) stocké en tableaux primitifs.
+ *
+ * Chaque projet est identifié par son indice dans les tableaux. L'état des capteurs,
+ * le cycle d'activation et le délai de transmission sont mis à jour sans objet par
+ * capteur. L'affichage n'y accède pas directement : les projets ayant émis sont notés
+ * ({@link #getTransmitted}) et recopiés avec leur état dans l'image publiée pour l'interface.
+ *
+ * Le cycle d'activation est piloté par une {@link TimerWheel} : un esclave endormi n'est
+ * visité qu'au tick de son réveil, et les phases de réveil sont étalées d'un capteur à
+ * l'autre pour qu'une flotte entière ne se réveille pas dans la même image. Seuls les
+ * maîtres et les esclaves éveillés sont mesurés à chaque étape.
+ *
+ * Une mise à jour se déroule en deux phases. La phase de calcul traite ces capteurs par
+ * tranches de taille fixe, en parallèle, chaque tranche tirant son bruit d'un flux
+ * aléatoire qui lui est propre : le résultat ne dépend donc pas du nombre de cœurs.
+ * La phase d'émission, séquentielle, parcourt ensuite les tranches dans l'ordre pour
+ * construire les messages et les remettre en un seul lot au transmetteur ; le lot suit
+ * l'ordre de la liste des capteurs mesurés, qui ne dépend que de l'historique des réveils.
+ */
+public class SensorArray {
+
+    private static final double AMBIENT_CO2 = 400.0;
+    private static final double MAX_SMOKE_LOAD = 4.0; // plafond de la charge de fumée cumulée
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int CHUNK_SIZE = 2048;
+    private static final double WHEEL_TICK = 0.1;        // résolution de la roue (secondes)
+    private static final double PHASE_STEP = 0.6180339887; // étalement des réveils (nombre d'or)
+
+    // UUIDs prédéfinis pour les projets
+    private static final UUID[] MASTER_UUIDS = {
+            UUID.fromString("c0e855b8-a65f-4bc4-bc1d-d5f4d592fa1b"),
+            UUID.fromString("1d8f2306-4c27-41b0-8921-607b313749a9"),
+            UUID.fromString("3c6e07ae-4ce1-4c24-bf67-a7da01a09b05")
+    };
+
+    private static final UUID[] SLAVE_UUIDS = {
+            UUID.fromString("bc005016-1edf-4a47-a3b9-74de75ab7e97"),
+            UUID.fromString("49e0d82b-a259-4c2a-9aff-36d933d31db3"),
+            UUID.fromString("1b48a1a0-5229-433f-b83e-213ec81acc5f"),
+            UUID.fromString("a5f29634-b400-4724-a791-9b4a0d05b13b")
+    };
+
+    private final SimulationConfig config;
+    private final LoRaTransmitter transmitter;
+    private final SplittableRandom random = new SplittableRandom();
+    private final Map<Long, Integer> indexByPosition = new HashMap<>();
+    private final TimerWheel wheel = new TimerWheel();
+    private final IntConsumer onTimer = this::onTimer;
+    private final IntList awake = new IntList();
+    private double clock = 0.0;
+
+    private int size = 0;
+    private int masterUuidIndex = 0;
+    private int slaveUuidIndex = 0;
+
+    // Position et identité
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int[] cols = new int[INITIAL_CAPACITY];
+    private boolean[] master = new boolean[INITIAL_CAPACITY];
+    private double[] detectionRadius = new double[INITIAL_CAPACITY];
+    private DiscMask[] masks = new DiscMask[INITIAL_CAPACITY];
+    private UUID[] uuids = new UUID[INITIAL_CAPACITY];
+
+    // Données capteurs
+    private double[] temperature = new double[INITIAL_CAPACITY];
+    private double[] co2Level = new double[INITIAL_CAPACITY];
+
+    // Gestion de l'énergie et des transmissions
+    private double[] activationInterval = new double[INITIAL_CAPACITY];
+    private double[] activeTime = new double[INITIAL_CAPACITY];
+    private long[] lastWakeTick = new long[INITIAL_CAPACITY];
+    private double[] lastTransmissionTime = new double[INITIAL_CAPACITY];
+    private int[] sequence = new int[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    private int[] awakePosition = new int[INITIAL_CAPACITY];
+
+    // Projets ayant émis depuis la dernière image publiée
+    private final IntList transmitted = new IntList();
+
+    // Résultats de la phase de calcul, par tranche
+    private boolean[] fireDetected = new boolean[INITIAL_CAPACITY];
+    private ChunkEvents[] chunkEvents = new ChunkEvents[0];
+
+    public SensorArray(SimulationConfig config, LoRaTransmitter transmitter) {
+        this.config = config;
+        this.transmitter = transmitter;
+    }
+
+    /**
+     * Ajoute un projet à la position donnée
+     * @return Indice du projet, ou -1 si un projet existe déjà à cette position
+     */
+    public int add(int row, int col, ProjectType type) {
+        long key = positionKey(row, col);
+        if (indexByPosition.containsKey(key)) {
+            return -1;
+        }
+        if (size == rows.length) {
+            grow(size * 2);
+        }
+
+        int i = size++;
+        rows[i] = row;
+        cols[i] = col;
+        master[i] = type == ProjectType.MASTER;
+        uuids[i] = nextUuid(type);
+        detectionRadius[i] = master[i] ? config.getMasterDetectionRadius() : config.getSlaveDetectionRadius();
+        masks[i] = DiscMask.forRadius(detectionRadius[i]);
+        temperature[i] = 25.0; // température ambiante par défaut
+        co2Level[i] = AMBIENT_CO2;
+        activationInterval[i] = config.getActivationInterval();
+        activeTime[i] = config.getActiveTime();
+        lastWakeTick[i] = wheel.getCurrentTick();
+        lastTransmissionTime[i] = 0;
+        sequence[i] = 0;
+        active[i] = false;
+        awakePosition[i] = -1;
+        fireDetected[i] = false;
+
+        // Les maîtres mesurent en permanence ; tous suivent le cycle d'activation
+        if (master[i]) {
+            addAwake(i);
+        }
+        wheel.ensureCapacity(rows.length);
+        scheduleFirstWake(i);
+
+        indexByPosition.put(key, i);
+        transmitter.getMesh().addNode(i, row, col, master[i]);
+        return i;
+    }
+
+    /**
+     * Modifie le cycle d'activation d'un projet ; le prochain réveil est replanifié
+     * @param i Indice du projet
+     * @param interval Intervalle entre deux activations (secondes)
+     * @param duration Durée d'activité après activation (secondes)
+     */
+    public void setDutyCycle(int i, double interval, double duration) {
+        activationInterval[i] = interval;
+        activeTime[i] = duration;
+        if (!active[i]) {
+            scheduleFirstWake(i);
+        }
+    }
+
+    /**
+     * Supprime les projets d'indice supérieur ou égal à {@code newSize}
+     */
+    public void truncate(int newSize) {
+        while (size > newSize) {
+            size--;
+            indexByPosition.remove(positionKey(rows[size], cols[size]));
+            wheel.cancel(size);
+            removeAwake(size);
+            active[size] = false;
+            uuids[size] = null;
+        }
+        transmitter.getMesh().truncate(size);
+    }
+
+    /**
+     * Supprime tous les projets
+     */
+    public void clear() {
+        truncate(0);
+        transmitted.size = 0;
+        masterUuidIndex = 0;
+        slaveUuidIndex = 0;
+    }
+
+    /**
+     * Met à jour le cycle d'activation, les capteurs et les transmissions de tous les projets
+     * @param elapsedTime Temps écoulé depuis la dernière mise à jour
+     * @param fireField Distances au foyer le plus proche
+     * @param ambientTemperature Température ambiante
+     * @param humidity Humidité ambiante
+     * @param simulationTime Temps total de simulation
+     */
+    public void update(double elapsedTime, FireDistanceField fireField, double ambientTemperature,
+                       double humidity, double simulationTime) {
+        // Réveils et mises en veille arrivés à échéance
+        clock += elapsedTime;
+        wheel.advanceTo(toTicks(clock), onTimer);
+
+        int chunkCount = (awake.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        prepareChunks(chunkCount);
+
+        // Phase de calcul : tranches indépendantes, flux aléatoires séparés
+        if (chunkCount > 1) {
+            IntStream.range(0, chunkCount).parallel().forEach(chunk ->
+                    computeChunk(chunk, fireField, ambientTemperature, simulationTime));
+        } else if (chunkCount == 1) {
+            computeChunk(0, fireField, ambientTemperature, simulationTime);
+        }
+
+        // Phase d'émission : ordre de la liste des éveillés (reproductible, mais pas celui des
+        // indices, les retraits déplaçant le dernier éveillé), un seul lot pour la couche radio
+        emit(chunkCount, fireField, simulationTime);
+    }
+
+    /**
+     * Bascule un projet entre veille et activité quand son échéance arrive
+     */
+    private void onTimer(int i) {
+        long now = wheel.getCurrentTick();
+        if (active[i]) {
+            active[i] = false;
+            if (!master[i]) {
+                removeAwake(i);
+            }
+            wheel.schedule(i, lastWakeTick[i] + toTicks(activationInterval[i]));
+        } else {
+            active[i] = true;
+            lastWakeTick[i] = now;
+            if (!master[i]) {
+                addAwake(i);
+            }
+            wheel.schedule(i, now + toTicks(activeTime[i]));
+        }
+    }
+
+    /**
+     * Planifie le premier réveil avec une phase propre à chaque projet
+     */
+    private void scheduleFirstWake(int i) {
+        double phase = (i * PHASE_STEP) % 1.0;
+        wheel.schedule(i, wheel.getCurrentTick() + toTicks(activationInterval[i] * phase));
+    }
+
+    private void addAwake(int i) {
+        if (awakePosition[i] < 0) {
+            awakePosition[i] = awake.size;
+            awake.add(i);
+        }
+    }
+
+    private void removeAwake(int i) {
+        int position = awakePosition[i];
+        if (position < 0) {
+            return;
+        }
+        int last = awake.values[--awake.size];
+        awake.values[position] = last;
+        awakePosition[last] = position;
+        awakePosition[i] = -1;
+    }
+
+    private static long toTicks(double seconds) {
+        return Math.max(1, Math.round(seconds / WHEEL_TICK));
+    }
+
+    private void prepareChunks(int chunkCount) {
+        if (chunkEvents.length < chunkCount) {
+            int previous = chunkEvents.length;
+            chunkEvents = Arrays.copyOf(chunkEvents, chunkCount);
+            for (int k = previous; k < chunkCount; k++) {
+                chunkEvents[k] = new ChunkEvents();
+            }
+        }
+        // Les flux sont dérivés dans l'ordre des tranches pour rester reproductibles
+        for (int k = 0; k < chunkCount; k++) {
+            chunkEvents[k].reset(random.split());
+        }
+    }
+
+    /**
+     * Met à jour les capteurs d'une tranche sans rien émettre
+     */
+    private void computeChunk(int chunk, FireDistanceField fireField,
+                              double ambientTemperature, double simulationTime) {
+        ChunkEvents events = chunkEvents[chunk];
+        SplittableRandom stream = events.random;
+
+        double temperatureThreshold = config.getTemperatureThreshold();
+        double co2Threshold = config.getCo2Threshold();
+        double cooldown = config.getTransmissionCooldown();
+
+        int[] members = awake.values;
+        int end = Math.min(awake.size, (chunk + 1) * CHUNK_SIZE);
+        for (int n = chunk * CHUNK_SIZE; n < end; n++) {
+            int i = members[n];
+
+            // Régression lente vers les valeurs ambiantes, avec un léger bruit
+            double t = temperature[i] * 0.9 + ambientTemperature * 0.1 + (stream.nextDouble() - 0.5) * 0.5;
+            double co2 = co2Level[i] * 0.9 + AMBIENT_CO2 * 0.1 + (stream.nextDouble() - 0.5) * 10;
+
+            // La température suit le foyer le plus proche, le CO2 la fumée de tout le disque
+            DiscMask mask = masks[i];
+            int distanceSq = fireField.distanceSq(rows[i], cols[i]);
+            boolean detected = mask.contains(distanceSq);
+            if (detected) {
+                t += 50 * mask.influence(distanceSq);
+                double smokeLoad = fireField.weightedFireSum(mask, rows[i], cols[i]);
+                co2 += 1500 * Math.min(MAX_SMOKE_LOAD, smokeLoad);
+            }
+            temperature[i] = t;
+            co2Level[i] = co2;
+            fireDetected[i] = detected;
+
+            // Vérifier les seuils de transmission
+            if ((t > temperatureThreshold || co2 > co2Threshold)
+                    && simulationTime - lastTransmissionTime[i] > cooldown) {
+                lastTransmissionTime[i] = simulationTime;
+                events.transmitting.add(i);
+            }
+        }
+    }
+
+    /**
+     * Construit les messages décidés pendant la phase de calcul et les envoie en un lot
+     */
+    private void emit(int chunkCount, FireDistanceField fireField, double simulationTime) {
+        List<LoRaMessage> batch = new ArrayList<>();
+
+        for (int k = 0; k < chunkCount; k++) {
+            ChunkEvents events = chunkEvents[k];
+            for (int n = 0; n < events.transmitting.size; n++) {
+                int i = events.transmitting.values[n];
+                // Foyer le plus proche, pour la mesure de latence de détection
+                int site = fireDetected[i] ? fireField.nearestFire(rows[i], cols[i]) : -1;
+                double ignitionTime = site >= 0 ? fireField.ignitionTime(site) : Double.NaN;
+                LoRaMessage message = new LoRaMessage(uuids[i], rows[i], cols[i], temperature[i], co2Level[i],
+                        fireDetected[i], simulationTime, ignitionTime, fireField.incidentOf(site));
+                // L'indice sert d'identifiant court dans la trame radio
+                message.setSource(i, sequence[i], master[i]);
+                sequence[i] = (sequence[i] + 1) & 0xFFFF;
+                batch.add(message);
+                transmitted.add(i);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            transmitter.sendBatch(batch);
+        }
+    }
+
+    private UUID nextUuid(ProjectType type) {
+        // Attribuer un UUID prédéfini, ou aléatoire quand ils sont tous utilisés
+        if (type == ProjectType.MASTER) {
+            return masterUuidIndex < MASTER_UUIDS.length ? MASTER_UUIDS[masterUuidIndex++] : UUID.randomUUID();
+        }
+        return slaveUuidIndex < SLAVE_UUIDS.length ? SLAVE_UUIDS[slaveUuidIndex++] : UUID.randomUUID();
+    }
+
+    private void grow(int capacity) {
+        rows = Arrays.copyOf(rows, capacity);
+        cols = Arrays.copyOf(cols, capacity);
+        master = Arrays.copyOf(master, capacity);
+        detectionRadius = Arrays.copyOf(detectionRadius, capacity);
+        masks = Arrays.copyOf(masks, capacity);
+        uuids = Arrays.copyOf(uuids, capacity);
+        temperature = Arrays.copyOf(temperature, capacity);
+        co2Level = Arrays.copyOf(co2Level, capacity);
+        activationInterval = Arrays.copyOf(activationInterval, capacity);
+        activeTime = Arrays.copyOf(activeTime, capacity);
+        lastWakeTick = Arrays.copyOf(lastWakeTick, capacity);
+        awakePosition = Arrays.copyOf(awakePosition, capacity);
+        lastTransmissionTime = Arrays.copyOf(lastTransmissionTime, capacity);
+        sequence = Arrays.copyOf(sequence, capacity);
+        active = Arrays.copyOf(active, capacity);
+        fireDetected = Arrays.copyOf(fireDetected, capacity);
+    }
+
+    private static long positionKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    // Accès par indice
+
+    public int size() {
+        return size;
+    }
+
+    public int getRow(int i) {
+        return rows[i];
+    }
+
+    public int getCol(int i) {
+        return cols[i];
+    }
+
+    public ProjectType getType(int i) {
+        return master[i] ? ProjectType.MASTER : ProjectType.SLAVE;
+    }
+
+    public double getDetectionRadius(int i) {
+        return detectionRadius[i];
+    }
+
+    public UUID getUuid(int i) {
+        return uuids[i];
+    }
+
+    public double getTemperature(int i) {
+        return temperature[i];
+    }
+
+    public double getCO2Level(int i) {
+        return co2Level[i];
+    }
+
+    public boolean isActive(int i) {
+        return active[i];
+    }
+
+    public double getActivationInterval(int i) {
+        return activationInterval[i];
+    }
+
+    public double getActiveTime(int i) {
+        return activeTime[i];
+    }
+
+    /**
+     * Nombre de projets mesurés à chaque étape (maîtres et esclaves éveillés)
+     */
+    public int getAwakeCount() {
+        return awake.size;
+    }
+
+    /**
+     * Nombre d'émissions depuis le dernier {@link #clearTransmitted()}
+     */
+    public int getTransmittedCount() {
+        return transmitted.size;
+    }
+
+    /**
+     * Indice du projet de la k-ième émission (il peut avoir été supprimé depuis)
+     */
+    public int getTransmitted(int k) {
+        return transmitted.values[k];
+    }
+
+    public void clearTransmitted() {
+        transmitted.size = 0;
+    }
+
+    /**
+     * Événements produits par une tranche pendant la phase de calcul
+     */
+    private static final class ChunkEvents {
+        private final IntList transmitting = new IntList();
+        private SplittableRandom random;
+
+        void reset(SplittableRandom random) {
+            this.random = random;
+            transmitting.size = 0;
+        }
+    }
+
+    /**
+     * Liste d'entiers extensible, réutilisée d'une étape à l'autre
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
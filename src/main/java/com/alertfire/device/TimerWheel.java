@@ -0,0 +1,170 @@
+package com.alertfire.device;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Roue temporelle hiérarchique pour planifier le réveil des capteurs.
+ *
+ * Le temps est découpé en ticks. Chaque niveau compte 64 cases ; le niveau 0 couvre
+ * les 64 prochains ticks, le niveau 1 les 64 × 64 suivants, etc. Un identifiant
+ * planifié n'est touché qu'à l'expiration de sa case (ou lors de la descente d'une
+ * case de niveau supérieur) : un capteur endormi ne coûte rien d'ici là.
+ * Les listes de chaque case sont chaînées dans des tableaux, sans allocation.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int[] slotOf = new int[0];
+    private long[] expiry = new long[0];
+
+    private long currentTick = 0;
+    private int scheduled = 0;
+
+    public TimerWheel() {
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Garantit que les identifiants 0..capacity-1 peuvent être planifiés
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= slotOf.length) {
+            return;
+        }
+        int previous = slotOf.length;
+        int newCapacity = Math.max(capacity, previous * 2);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        expiry = Arrays.copyOf(expiry, newCapacity);
+        slotOf = Arrays.copyOf(slotOf, newCapacity);
+        Arrays.fill(slotOf, previous, newCapacity, NONE);
+    }
+
+    /**
+     * Planifie (ou replanifie) un identifiant pour un tick donné.
+     * Un tick déjà passé expire au prochain tick.
+     */
+    public void schedule(int id, long tick) {
+        cancel(id);
+        expiry[id] = Math.max(tick, currentTick + 1);
+        place(id);
+        scheduled++;
+    }
+
+    /**
+     * Retire un identifiant de la roue s'il y est planifié
+     */
+    public void cancel(int id) {
+        if (id >= slotOf.length || slotOf[id] == NONE) {
+            return;
+        }
+        unlink(id);
+        scheduled--;
+    }
+
+    /**
+     * Indique si un identifiant est planifié
+     */
+    public boolean isScheduled(int id) {
+        return id < slotOf.length && slotOf[id] != NONE;
+    }
+
+    /**
+     * Avance la roue jusqu'au tick donné et signale les identifiants arrivés à échéance,
+     * dans l'ordre de leurs ticks
+     * @param tick Tick cible
+     * @param expired Action appelée pour chaque identifiant expiré
+     */
+    public void advanceTo(long tick, IntConsumer expired) {
+        while (currentTick < tick) {
+            if (scheduled == 0) {
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+
+            // Faire descendre les cases des niveaux supérieurs qui arrivent à échéance
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                long mask = (1L << (SLOT_BITS * level)) - 1;
+                if ((currentTick & mask) == 0) {
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+
+            // Déclencher la case courante du niveau 0
+            int slot = (int) (currentTick & SLOT_MASK);
+            int id = heads[slot];
+            heads[slot] = NONE;
+            while (id != NONE) {
+                int following = next[id];
+                slotOf[id] = NONE;
+                scheduled--;
+                expired.accept(id);
+                id = following;
+            }
+        }
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Nombre d'identifiants actuellement planifiés
+     */
+    public int size() {
+        return scheduled;
+    }
+
+    private void cascade(int level, int slot) {
+        int index = level * SLOTS + slot;
+        int id = heads[index];
+        heads[index] = NONE;
+        while (id != NONE) {
+            int following = next[id];
+            place(id);
+            id = following;
+        }
+    }
+
+    private void place(int id) {
+        long tick = expiry[id];
+        int level = 0;
+        while (level < LEVELS - 1
+                && (tick >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        int head = heads[index];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[index] = id;
+        slotOf[id] = index;
+    }
+
+    private void unlink(int id) {
+        int index = slotOf[id];
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[index] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        slotOf[id] = NONE;
+    }
+}
@@ -0,0 +1,411 @@
+package com.alertfire.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'événements structuré et asynchrone, une ligne JSON par événement.
+ *
+ * Les événements sont écrits dans un anneau d'enregistrements préalloués : l'émetteur
+ * réserve une case, y copie ses champs (types primitifs, chaînes ou UUID déjà existants),
+ * puis la publie, sans allocation ni entrée-sortie. Un thread d'écriture unique vide
+ * l'anneau dans le fichier. Si l'anneau est plein, l'événement est perdu et compté :
+ * le journal ne ralentit jamais la simulation.
+ *
+ * Utilisation :
+ * <pre>
+ *   EventLog.getInstance().event(LogLevel.INFO, EventType.TREE_BURNT)
+ *           .field("row", r).field("col", c).commit();
+ * </pre>
+ * Un événement filtré (niveau, échantillonnage, journal fermé) renvoie un enregistrement
+ * inerte dont les méthodes ne font rien.
+ */
+public class EventLog {
+
+    private static final int MAX_FIELDS = 8;
+    private static final int MAX_SPINS = 1000;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final EventLog INSTANCE = new EventLog();
+
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte TEXT = 3;
+
+    // Anneau : réservation par les émetteurs, lecture par le thread d'écriture
+    private Record[] ring = new Record[0];
+    private int mask = 0;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed = 0;
+
+    // Filtrage
+    private volatile boolean enabled = false;
+    private volatile LogLevel minimumLevel = LogLevel.INFO;
+    private final int[] sampling = new int[EventType.values().length];
+    private final AtomicLongArray occurrences = new AtomicLongArray(EventType.values().length);
+
+    // Écriture
+    private Writer out;
+    private boolean mirrorToConsole;
+    private Thread writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private boolean unflushed = false;
+
+    // Statistiques
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private volatile long written = 0;
+
+    private final Record disabled = new Record() {
+        @Override
+        public Record field(String key, long value) {
+            return this;
+        }
+
+        @Override
+        public Record field(String key, double value) {
+            return this;
+        }
+
+        @Override
+        public Record field(String key, boolean value) {
+            return this;
+        }
+
+        @Override
+        public Record field(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public void commit() {
+        }
+    };
+
+    private EventLog() {
+        for (EventType type : EventType.values()) {
+            sampling[type.ordinal()] = type.getDefaultSampling();
+        }
+    }
+
+    public static EventLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ouvre le journal et démarre le thread d'écriture ; sans effet s'il est déjà ouvert
+     * @param file Fichier de destination (ajout en fin de fichier)
+     * @param level Niveau minimal des événements conservés
+     * @param capacity Nombre d'événements en attente au maximum (arrondi à une puissance de deux)
+     * @param console Recopie aussi chaque ligne sur la sortie standard
+     */
+    public synchronized void open(Path file, LogLevel level, int capacity, boolean console) throws IOException {
+        if (writer != null) {
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16);
+        mirrorToConsole = console;
+
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        ring = new Record[size];
+        for (int k = 0; k < size; k++) {
+            ring[k] = new Record();
+        }
+        mask = size - 1;
+        claimed.set(0);
+        consumed = 0;
+        minimumLevel = level;
+
+        writer = new Thread(this::drainLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        enabled = true;
+    }
+
+    /**
+     * Écrit les événements en attente et ferme le fichier
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        enabled = false;
+        writer.interrupt();
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.out.println("Erreur à la fermeture du journal d'événements: " + e.getMessage());
+        }
+        System.out.println("Journal d'événements: " + written + " écrits, " + sampledOut.get()
+                + " écartés par échantillonnage, " + dropped.get() + " perdus");
+    }
+
+    /**
+     * Vrai si un événement de ce niveau serait conservé (avant échantillonnage)
+     */
+    public boolean isEnabled(LogLevel level) {
+        return enabled && level.compareTo(minimumLevel) >= 0;
+    }
+
+    /**
+     * Commence un événement ; il n'est visible qu'après {@link Record#commit()}, qui doit
+     * toujours être appelé (le thread d'écriture attend chaque case dans l'ordre)
+     */
+    public Record event(LogLevel level, EventType type) {
+        if (!isEnabled(level)) {
+            return disabled;
+        }
+        int rate = sampling[type.ordinal()];
+        if (rate > 1 && occurrences.getAndIncrement(type.ordinal()) % rate != 0) {
+            sampledOut.incrementAndGet();
+            return disabled;
+        }
+
+        // Réserver une case libre, ou abandonner l'événement si l'anneau est plein
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed > mask) {
+                dropped.incrementAndGet();
+                return disabled;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Record record = ring[(int) sequence & mask];
+        record.begin(sequence, level, type, rate);
+        return record;
+    }
+
+    /**
+     * Modifie l'échantillonnage d'un type d'événement (1 : tout garder)
+     */
+    public void setSampling(EventType type, int rate) {
+        sampling[type.ordinal()] = Math.max(1, rate);
+    }
+
+    public void setMinimumLevel(LogLevel level) {
+        this.minimumLevel = level;
+    }
+
+    private void drainLoop() {
+        boolean stopping = false;
+        int spins = 0;
+        while (true) {
+            long next = consumed;
+            Record record = ring[(int) next & mask];
+            if (record.published == next) {
+                format(record);
+                consumed = next + 1;
+                spins = 0;
+                continue;
+            }
+            if (next < claimed.get() && spins++ < MAX_SPINS) {
+                // Case réservée mais pas encore publiée : l'émetteur termine sa copie
+                Thread.onSpinWait();
+                continue;
+            }
+            spins = 0;
+            // Anneau vide (ou émetteur interrompu pendant sa copie) : vider le tampon du fichier
+            flush();
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            if (Thread.interrupted()) {
+                // Dernier passage pour les événements déjà publiés
+                stopping = true;
+            }
+        }
+    }
+
+    private void format(Record record) {
+        line.setLength(0);
+        line.append("{\"ts\":").append(record.timestamp)
+                .append(",\"level\":\"").append(record.level.name())
+                .append("\",\"event\":\"").append(record.type.getJsonName())
+                .append("\",\"thread\":\"");
+        appendEscaped(record.thread);
+        line.append('"');
+        if (record.sampling > 1) {
+            line.append(",\"sample\":").append(record.sampling);
+        }
+        for (int k = 0; k < record.fieldCount; k++) {
+            line.append(",\"").append(record.keys[k]).append("\":");
+            switch (record.kinds[k]) {
+                case LONG -> line.append(record.longs[k]);
+                case DOUBLE -> {
+                    double value = record.doubles[k];
+                    if (Double.isFinite(value)) {
+                        line.append(value);
+                    } else {
+                        line.append("null");
+                    }
+                }
+                case BOOLEAN -> line.append(record.longs[k] != 0);
+                default -> {
+                    Object value = record.objects[k];
+                    if (value == null) {
+                        line.append("null");
+                    } else {
+                        line.append('"');
+                        appendEscaped(value.toString());
+                        line.append('"');
+                    }
+                }
+            }
+            record.objects[k] = null;
+        }
+        line.append("}\n");
+
+        try {
+            out.append(line);
+            written++;
+            unflushed = true;
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+        }
+        if (mirrorToConsole) {
+            System.out.print(line);
+        }
+    }
+
+    private void appendEscaped(String text) {
+        for (int k = 0; k < text.length(); k++) {
+            char ch = text.charAt(k);
+            if (ch == '"' || ch == '\\') {
+                line.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                line.append(String.format("\\u%04x", (int) ch));
+            } else {
+                line.append(ch);
+            }
+        }
+    }
+
+    private void flush() {
+        if (!unflushed) {
+            return;
+        }
+        unflushed = false;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Erreur du journal d'événements: " + e.getMessage());
+        }
+    }
+
+    // Statistiques
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * Événements perdus parce que l'anneau était plein
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.get();
+    }
+
+    /**
+     * Événement en cours de construction, réutilisé d'un tour d'anneau à l'autre
+     */
+    public static class Record {
+        private volatile long published = -1;
+        private long sequence;
+        private long timestamp;
+        private LogLevel level;
+        private EventType type;
+        private int sampling;
+        private String thread;
+        private int fieldCount;
+        private final String[] keys = new String[MAX_FIELDS];
+        private final byte[] kinds = new byte[MAX_FIELDS];
+        private final long[] longs = new long[MAX_FIELDS];
+        private final double[] doubles = new double[MAX_FIELDS];
+        private final Object[] objects = new Object[MAX_FIELDS];
+
+        private Record() {
+        }
+
+        private void begin(long sequence, LogLevel level, EventType type, int sampling) {
+            this.sequence = sequence;
+            this.timestamp = System.currentTimeMillis();
+            this.level = level;
+            this.type = type;
+            this.sampling = sampling;
+            this.thread = Thread.currentThread().getName();
+            this.fieldCount = 0;
+        }
+
+        /**
+         * Champ suivant, ou -1 si l'événement en a déjà le maximum (les suivants sont ignorés)
+         */
+        private int next(String key, byte kind) {
+            if (fieldCount == MAX_FIELDS) {
+                return -1;
+            }
+            keys[fieldCount] = key;
+            kinds[fieldCount] = kind;
+            return fieldCount++;
+        }
+
+        public Record field(String key, long value) {
+            int k = next(key, LONG);
+            if (k >= 0) longs[k] = value;
+            return this;
+        }
+
+        public Record field(String key, double value) {
+            int k = next(key, DOUBLE);
+            if (k >= 0) doubles[k] = value;
+            return this;
+        }
+
+        public Record field(String key, boolean value) {
+            int k = next(key, BOOLEAN);
+            if (k >= 0) longs[k] = value ? 1 : 0;
+            return this;
+        }
+
+        /**
+         * Champ texte ; la valeur n'est convertie en chaîne que par le thread d'écriture
+         */
+        public Record field(String key, Object value) {
+            int k = next(key, TEXT);
+            if (k >= 0) objects[k] = value;
+            return this;
+        }
+
+        /**
+         * Publie l'événement pour le thread d'écriture
+         */
+        public void commit() {
+            published = sequence;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.alertfire.log;
+
+/**
+ * Types d'événements du journal, avec leur nom dans le fichier et leur échantillonnage par défaut.
+ *
+ * Un échantillonnage de N ne garde qu'un événement sur N de ce type ; les événements très
+ * fréquents peuvent ainsi rester tracés sans ralentir la simulation.
+ */
+public enum EventType {
+    TREE_BURNT("tree_burnt", 64),            // une cellule finit de brûler
+    MESSAGE_DELIVERED("message_delivered", 16), // un message LoRa arrive à un maître
+    FIRE_ALERT("fire_alert", 1),             // une alerte feu est reçue
+    PERFORMANCE("performance", 1);           // mesures de performance : un résumé et une ligne par phase, chaque seconde
+
+    private final String jsonName;
+    private final int defaultSampling;
+
+    EventType(String jsonName, int defaultSampling) {
+        this.jsonName = jsonName;
+        this.defaultSampling = defaultSampling;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public int getDefaultSampling() {
+        return defaultSampling;
+    }
+}
@@ -0,0 +1,11 @@
+package com.alertfire.log;
+
+/**
+ * Niveaux de gravité du journal d'événements, du plus bavard au plus grave
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
@@ -0,0 +1,184 @@
+package com.alertfire.metrics;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mesure la latence entre l'allumage d'un feu et l'alerte reçue par le réseau.
+ *
+ * Deux distributions sont tenues, en millisecondes de temps simulé :
+ * - la latence de première détection de chaque incendie (depuis son premier foyer) ;
+ * - la latence de chaque alerte par rapport à l'allumage du foyer le plus proche du
+ *   capteur, globalement et par nombre de sauts radio.
+ * Pour chaque incendie, le capteur et le nombre de sauts de la première alerte sont
+ * conservés. Le coût par alerte est constant.
+ *
+ * Les alertes arrivent sur le thread d'un abonné du bus LoRa : les méthodes qui lisent
+ * ou modifient les mesures sont synchronisées.
+ */
+public class DetectionLatencyRecorder {
+
+    private static final int MAX_TRACKED_HOPS = 16;
+
+    private final LatencyHistogram firstDetection = new LatencyHistogram();
+    private final LatencyHistogram alertLatency = new LatencyHistogram();
+    private final LatencyHistogram[] alertLatencyByHops = new LatencyHistogram[MAX_TRACKED_HOPS + 1];
+    private final Map<UUID, Long> alertsBySensor = new HashMap<>();
+
+    // Incendies : temps d'allumage, position d'origine et première détection
+    private int incidentCount = 0;
+    private double[] incidentStart = new double[64];
+    private int[] incidentRow = new int[64];
+    private int[] incidentCol = new int[64];
+    private double[] incidentDetectedAt = new double[64];
+    private int[] incidentHops = new int[64];
+    private UUID[] incidentSensor = new UUID[64];
+
+    public DetectionLatencyRecorder() {
+        for (int h = 0; h <= MAX_TRACKED_HOPS; h++) {
+            alertLatencyByHops[h] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Ouvre un nouvel incendie
+     * @param ignitionTime Temps simulé de l'allumage
+     * @return Identifiant de l'incendie
+     */
+    public synchronized int openIncident(double ignitionTime, int row, int col) {
+        if (incidentCount == incidentStart.length) {
+            int capacity = incidentCount * 2;
+            incidentStart = Arrays.copyOf(incidentStart, capacity);
+            incidentRow = Arrays.copyOf(incidentRow, capacity);
+            incidentCol = Arrays.copyOf(incidentCol, capacity);
+            incidentDetectedAt = Arrays.copyOf(incidentDetectedAt, capacity);
+            incidentHops = Arrays.copyOf(incidentHops, capacity);
+            incidentSensor = Arrays.copyOf(incidentSensor, capacity);
+        }
+        int id = incidentCount++;
+        incidentStart[id] = ignitionTime;
+        incidentRow[id] = row;
+        incidentCol[id] = col;
+        incidentDetectedAt[id] = Double.NaN;
+        incidentHops[id] = -1;
+        incidentSensor[id] = null;
+        return id;
+    }
+
+    /**
+     * Enregistre une alerte reçue ; les messages sans feu détecté sont ignorés
+     */
+    public synchronized void onMessage(LoRaMessage message) {
+        if (!message.isFireDetected() || Double.isNaN(message.getIgnitionTime())) {
+            return;
+        }
+
+        double received = message.getReceivedTime();
+        long latencyMs = toMillis(received - message.getIgnitionTime());
+        int hops = Math.min(MAX_TRACKED_HOPS, message.getHopCount());
+        alertLatency.record(latencyMs);
+        alertLatencyByHops[hops].record(latencyMs);
+        alertsBySensor.merge(message.getUuid(), 1L, Long::sum);
+
+        int id = message.getIncidentId();
+        if (id >= 0 && id < incidentCount && Double.isNaN(incidentDetectedAt[id])) {
+            incidentDetectedAt[id] = received;
+            incidentHops[id] = message.getHopCount();
+            incidentSensor[id] = message.getUuid();
+            firstDetection.record(toMillis(received - incidentStart[id]));
+        }
+    }
+
+    /**
+     * Efface toutes les mesures (nouvelle exécution)
+     */
+    public synchronized void reset() {
+        firstDetection.reset();
+        alertLatency.reset();
+        for (LatencyHistogram histogram : alertLatencyByHops) {
+            histogram.reset();
+        }
+        alertsBySensor.clear();
+        Arrays.fill(incidentSensor, 0, incidentCount, null);
+        incidentCount = 0;
+    }
+
+    /**
+     * Copie de la distribution des latences de première détection
+     */
+    public synchronized LatencyHistogram getFirstDetection() {
+        return copy(firstDetection);
+    }
+
+    /**
+     * Copie de la distribution des latences de toutes les alertes
+     */
+    public synchronized LatencyHistogram getAlertLatency() {
+        return copy(alertLatency);
+    }
+
+    public synchronized int getIncidentCount() {
+        return incidentCount;
+    }
+
+    /**
+     * Écrit le rapport de l'exécution au format CSV (latences en millisecondes simulées)
+     */
+    public synchronized void writeReport(Writer out) throws IOException {
+        out.append(LatencyHistogram.csvHeader("series"));
+        firstDetection.writeCsvRow(out, "first_detection");
+        alertLatency.writeCsvRow(out, "alert");
+        for (int h = 0; h <= MAX_TRACKED_HOPS; h++) {
+            if (alertLatencyByHops[h].getCount() > 0) {
+                alertLatencyByHops[h].writeCsvRow(out, "alert_hops_" + h + (h == MAX_TRACKED_HOPS ? "+" : ""));
+            }
+        }
+
+        out.append('\n').append("incident,ignition_s,row,col,detected_s,latency_ms,hops,sensor\n");
+        for (int id = 0; id < incidentCount; id++) {
+            boolean detected = !Double.isNaN(incidentDetectedAt[id]);
+            out.append(Integer.toString(id)).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", incidentStart[id])).append(',')
+                    .append(Integer.toString(incidentRow[id])).append(',')
+                    .append(Integer.toString(incidentCol[id])).append(',')
+                    .append(detected ? String.format(Locale.ROOT, "%.3f", incidentDetectedAt[id]) : "").append(',')
+                    .append(detected ? Long.toString(toMillis(incidentDetectedAt[id] - incidentStart[id])) : "").append(',')
+                    .append(detected ? Integer.toString(incidentHops[id]) : "").append(',')
+                    .append(detected ? incidentSensor[id].toString() : "").append('\n');
+        }
+
+        out.append('\n').append("sensor,alerts\n");
+        for (Map.Entry<UUID, Long> entry : alertsBySensor.entrySet()) {
+            out.append(entry.getKey().toString()).append(',').append(entry.getValue().toString()).append('\n');
+        }
+    }
+
+    /**
+     * Écrit le rapport dans un fichier
+     */
+    public void exportCsv(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeReport(out);
+        }
+    }
+
+    private static LatencyHistogram copy(LatencyHistogram histogram) {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(histogram);
+        return copy;
+    }
+
+    private static long toMillis(double seconds) {
+        return Math.round(seconds * 1000.0);
+    }
+}
@@ -0,0 +1,137 @@
+package com.alertfire.metrics;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Histogramme de latences à buckets log-linéaires, pour valeurs entières positives.
+ *
+ * Chaque puissance de deux est découpée en 32 sous-buckets : l'erreur relative sur un
+ * percentile est inférieure à ~3 %. L'enregistrement est en O(1), sans allocation ;
+ * un seul thread doit écrire, la lecture depuis un autre thread donne une vue
+ * approximative mais cohérente en ordre de grandeur.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    /**
+     * Enregistre une valeur (les valeurs négatives sont ramenées à 0)
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Ajoute le contenu d'un autre histogramme
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Retourne la valeur au percentile donné (0-100), ou 0 si l'histogramme est vide
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * totalCount);
+        rank = Math.max(1, Math.min(totalCount, rank));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, upperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Écrit une ligne CSV : libellé, nombre, min, moyenne, p50, p90, p99, p99.9, max
+     */
+    public void writeCsvRow(Appendable out, String label) throws IOException {
+        out.append(label).append(',')
+                .append(Long.toString(totalCount)).append(',')
+                .append(Long.toString(getMin())).append(',')
+                .append(String.format(Locale.ROOT, "%.1f", getMean())).append(',')
+                .append(Long.toString(percentile(50))).append(',')
+                .append(Long.toString(percentile(90))).append(',')
+                .append(Long.toString(percentile(99))).append(',')
+                .append(Long.toString(percentile(99.9))).append(',')
+                .append(Long.toString(max)).append('\n');
+    }
+
+    /**
+     * En-tête correspondant à {@link #writeCsvRow(Appendable, String)}
+     */
+    public static String csvHeader(String labelColumn) {
+        return labelColumn + ",count,min,mean,p50,p90,p99,p999,max\n";
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int sub = (int) (value >>> (magnitude - 1)) & (SUB_BUCKETS - 1);
+        return magnitude * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (magnitude == 0) {
+            return sub;
+        }
+        return (((long) (sub + SUB_BUCKETS)) << (magnitude - 1)) + (1L << (magnitude - 1)) - 1;
+    }
+}
@@ -0,0 +1,258 @@
+package com.alertfire.metrics;
+
+import com.alertfire.log.EventLog;
+import com.alertfire.log.EventType;
+import com.alertfire.log.LogLevel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mesures de performance de la simulation et de l'affichage.
+ *
+ * Chaque phase garde ses {@link #WINDOW} dernières durées dans un anneau écrit par un seul
+ * thread (le thread de simulation, ou le thread JavaFX pour le rendu) ; les percentiles
+ * sont calculés à la demande sur cette fenêtre glissante. Mesurer une phase coûte une
+ * lecture de {@link System#nanoTime()} et une écriture de tableau, sans allocation ni
+ * verrou : les mesures peuvent rester actives sans fausser ce qu'elles mesurent.
+ *
+ * Un {@link Snapshot} donne en plus les cadences (étapes et images par seconde) depuis le
+ * précédent, la taille du front actif, le tas et le débit d'allocation des deux threads.
+ */
+public class PerformanceMonitor {
+
+    /**
+     * Phases mesurées : celles d'une étape de simulation, la publication de l'image et son rendu
+     */
+    public enum Phase {
+        HISTORY("historique"),
+        PROPAGATION("propagation"),
+        SENSORS("capteurs"),
+        WEATHER("météo"),
+        PUBLISH("publication"),
+        RENDER("rendu");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final int WINDOW = 256;
+    private static final int PHASES = Phase.values().length;
+
+    // Anneaux de durées (ns) et nombre total d'écritures par phase
+    private final long[][] samples = new long[PHASES][WINDOW];
+    private final AtomicLongArray written = new AtomicLongArray(PHASES);
+
+    // Compteurs, chacun écrit par un seul thread
+    private volatile long steps = 0;
+    private volatile long frames = 0;
+    private volatile int activeFront = 0;
+    private volatile Thread simulationThread;
+    private volatile Thread renderThread;
+
+    // État du précédent instantané (thread lecteur)
+    private long lastSnapshotNanos = System.nanoTime();
+    private long lastSteps = 0;
+    private long lastFrames = 0;
+    private final long[] lastAllocated = {-1, -1}; // threads de simulation et de rendu
+    private final long[] sorted = new long[WINDOW];
+
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    public PerformanceMonitor() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean hotspot = null;
+        if (bean instanceof com.sun.management.ThreadMXBean candidate
+                && candidate.isThreadAllocatedMemorySupported()) {
+            candidate.setThreadAllocatedMemoryEnabled(true);
+            hotspot = candidate;
+        }
+        this.allocationBean = hotspot;
+    }
+
+    /**
+     * Enregistre la durée d'une phase commencée à {@code start}
+     * @return L'instant de fin, qui peut servir de début à la phase suivante
+     */
+    public long record(Phase phase, long start) {
+        long now = System.nanoTime();
+        int index = phase.ordinal();
+        long count = written.get(index);
+        samples[index][(int) (count % WINDOW)] = now - start;
+        written.lazySet(index, count + 1);
+        return now;
+    }
+
+    /**
+     * Signale la fin d'une étape de simulation (thread de simulation)
+     * @param burningCells Taille du front actif après l'étape
+     */
+    public void stepCompleted(int burningCells) {
+        if (simulationThread == null) {
+            simulationThread = Thread.currentThread();
+        }
+        activeFront = burningCells;
+        steps++;
+    }
+
+    /**
+     * Signale une image affichée (thread JavaFX)
+     */
+    public void frameRendered() {
+        if (renderThread == null) {
+            renderThread = Thread.currentThread();
+        }
+        frames++;
+    }
+
+    /**
+     * Mesures depuis le précédent instantané ; à appeler depuis un seul thread
+     */
+    public Snapshot snapshot() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastSnapshotNanos) / 1e9);
+        long stepCount = steps;
+        long frameCount = frames;
+
+        Snapshot snapshot = new Snapshot();
+        snapshot.stepsPerSecond = (stepCount - lastSteps) / seconds;
+        snapshot.framesPerSecond = (frameCount - lastFrames) / seconds;
+        snapshot.activeFront = activeFront;
+        for (Phase phase : Phase.values()) {
+            fillPercentiles(phase, snapshot);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        snapshot.heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        snapshot.heapMax = runtime.maxMemory();
+
+        snapshot.allocationRate = allocationBean == null ? Double.NaN
+                : (allocatedSince(0, simulationThread) + allocatedSince(1, renderThread)) / seconds;
+
+        lastSnapshotNanos = now;
+        lastSteps = stepCount;
+        lastFrames = frameCount;
+        return snapshot;
+    }
+
+    private void fillPercentiles(Phase phase, Snapshot snapshot) {
+        int index = phase.ordinal();
+        int count = (int) Math.min(WINDOW, written.get(index));
+        System.arraycopy(samples[index], 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        snapshot.p50[index] = percentile(count, 50);
+        snapshot.p95[index] = percentile(count, 95);
+        snapshot.p99[index] = percentile(count, 99);
+    }
+
+    private long percentile(int count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    /**
+     * Octets alloués par un thread depuis le précédent instantané (0 au premier)
+     */
+    private long allocatedSince(int slot, Thread thread) {
+        if (thread == null) {
+            return 0;
+        }
+        long bytes = allocationBean.getThreadAllocatedBytes(thread.getId());
+        long previous = lastAllocated[slot];
+        lastAllocated[slot] = bytes;
+        return previous < 0 || bytes < previous ? 0 : bytes - previous;
+    }
+
+    /**
+     * Mesures à un instant donné
+     */
+    public static class Snapshot {
+        private double stepsPerSecond;
+        private double framesPerSecond;
+        private int activeFront;
+        private final long[] p50 = new long[PHASES];
+        private final long[] p95 = new long[PHASES];
+        private final long[] p99 = new long[PHASES];
+        private long heapUsed;
+        private long heapMax;
+        private double allocationRate;
+
+        public double getStepsPerSecond() {
+            return stepsPerSecond;
+        }
+
+        public double getFramesPerSecond() {
+            return framesPerSecond;
+        }
+
+        /**
+         * Nombre de cellules en feu après la dernière étape
+         */
+        public int getActiveFront() {
+            return activeFront;
+        }
+
+        /**
+         * Durée d'une phase au percentile donné (50, 95 ou 99), en nanosecondes
+         */
+        public long getPercentile(Phase phase, int percentile) {
+            return switch (percentile) {
+                case 50 -> p50[phase.ordinal()];
+                case 95 -> p95[phase.ordinal()];
+                case 99 -> p99[phase.ordinal()];
+                default -> throw new IllegalArgumentException("Percentile non suivi: " + percentile);
+            };
+        }
+
+        public long getHeapUsed() {
+            return heapUsed;
+        }
+
+        public long getHeapMax() {
+            return heapMax;
+        }
+
+        /**
+         * Octets alloués par seconde par les threads de simulation et de rendu (NaN si indisponible)
+         */
+        public double getAllocationRate() {
+            return allocationRate;
+        }
+
+        /**
+         * Écrit l'instantané dans le journal ({@link EventType#PERFORMANCE}) : un événement de
+         * cadences et de mémoire, puis un par phase, chacun dans la limite de champs d'un événement
+         */
+        public void log(EventLog log) {
+            log.event(LogLevel.DEBUG, EventType.PERFORMANCE)
+                    .field("steps_per_s", stepsPerSecond)
+                    .field("fps", framesPerSecond)
+                    .field("active_front", activeFront)
+                    .field("heap_used", heapUsed)
+                    .field("alloc_rate", allocationRate)
+                    .commit();
+            for (Phase phase : Phase.values()) {
+                int index = phase.ordinal();
+                log.event(LogLevel.DEBUG, EventType.PERFORMANCE)
+                        .field("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .field("p50_ns", p50[index])
+                        .field("p95_ns", p95[index])
+                        .field("p99_ns", p99[index])
+                        .commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.alertfire.model;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble des cellules de la grille dont l'état a changé depuis le dernier passage
+ * (affichage, ou synchronisation de la carte des distances au feu).
+ *
+ * Les cellules sont gardées à la fois dans une liste (pour les parcourir dans l'ordre
+ * de leur modification) et dans une table de bits (pour ne pas les ajouter deux fois).
+ * Le coût d'un passage suit ainsi le nombre de cellules modifiées, et non la taille de
+ * la grille.
+ *
+ * Indépendamment de l'affichage, l'ensemble note aussi les lignes modifiées depuis le
+ * dernier enregistrement du scénario, pour n'écrire que celles-ci.
+ */
+public class DirtyCellSet {
+
+    private final int width;
+    private final int height;
+    private final long[] marked;
+    private int[] cells = new int[256];
+    private int size = 0;
+    private boolean full = true;
+    private final long[] unsavedRows;
+    private boolean allUnsaved = true;
+
+    public DirtyCellSet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.marked = new long[(width * height + 63) >>> 6];
+        this.unsavedRows = new long[(height + 63) >>> 6];
+    }
+
+    /**
+     * Signale une cellule modifiée
+     */
+    public void mark(int row, int col) {
+        unsavedRows[row >>> 6] |= 1L << row;
+        if (full) {
+            return;
+        }
+        int cell = row * width + col;
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+        if ((marked[word] & bit) != 0) {
+            return;
+        }
+        marked[word] |= bit;
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+        }
+        cells[size++] = cell;
+    }
+
+    /**
+     * Demande de tout redessiner (réinitialisation, génération, redimensionnement)
+     */
+    public void markAll() {
+        clear();
+        full = true;
+        allUnsaved = true;
+    }
+
+    /**
+     * Vrai si toute la grille est à reprendre (réinitialisation, génération)
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Nombre de cellules signalées
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indice ({@code row * width + col}) de la k-ième cellule signalée
+     */
+    public int get(int k) {
+        return cells[k];
+    }
+
+    /**
+     * Vide l'ensemble après un affichage
+     */
+    public void clear() {
+        // Effacer seulement les mots touchés, tant que la liste est courte
+        if (size < marked.length / 8) {
+            for (int k = 0; k < size; k++) {
+                marked[cells[k] >>> 6] = 0;
+            }
+        } else {
+            Arrays.fill(marked, 0);
+        }
+        size = 0;
+        full = false;
+    }
+
+    /**
+     * Vrai si une cellule de la ligne a changé depuis le dernier enregistrement
+     */
+    public boolean isRowUnsaved(int row) {
+        return allUnsaved || (unsavedRows[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Vrai si toute la grille a changé depuis le dernier enregistrement
+     */
+    public boolean isAllUnsaved() {
+        return allUnsaved;
+    }
+
+    /**
+     * Oublie les lignes modifiées, une fois la grille enregistrée ou chargée
+     */
+    public void clearUnsaved() {
+        Arrays.fill(unsavedRows, 0);
+        allUnsaved = false;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
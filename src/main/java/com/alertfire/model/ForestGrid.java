@@ -0,0 +1,101 @@
+package com.alertfire.model;
+
+import com.alertfire.model.enums.NodeState;
+
+import java.util.Random;
+
+/**
+ * Grille de cellules de la forêt, propriété du thread de simulation.
+ *
+ * Chaque changement d'état d'un nœud est noté dans un {@link DirtyCellSet}, vidé à chaque
+ * image publiée pour l'affichage. Les allumages et extinctions sont en outre notés dans un
+ * second ensemble, vidé à chaque synchronisation de la carte des distances au feu.
+ */
+public class ForestGrid {
+
+    private final int width;
+    private final int height;
+    private final TreeNode[][] grid;
+    private final DirtyCellSet dirtyCells;
+    private final DirtyCellSet fireChanges;
+    private final Random random = new Random();
+
+    /**
+     * @param width Largeur de la grille en cellules
+     * @param height Hauteur de la grille en cellules
+     */
+    public ForestGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.grid = new TreeNode[height][width];
+        this.dirtyCells = new DirtyCellSet(width, height);
+        this.fireChanges = new DirtyCellSet(width, height);
+
+        // Initialiser la grille avec des cellules vides
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid[row][col] = new TreeNode(row, col);
+                grid[row][col].setDirtyCells(dirtyCells);
+                grid[row][col].setFireChanges(fireChanges);
+            }
+        }
+    }
+
+    /**
+     * Réinitialise la grille à son état initial (toutes les cellules vides)
+     */
+    public void reset() {
+        dirtyCells.markAll();
+        fireChanges.markAll();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid[row][col].setState(NodeState.EMPTY);
+            }
+        }
+    }
+
+    /**
+     * Génère une forêt aléatoire avec une densité donnée
+     * @param density Densité de la forêt (0.0 - 1.0)
+     */
+    public void generateRandomForest(double density) {
+        reset();
+
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (random.nextDouble() < density) {
+                    grid[row][col].setState(NodeState.TREE);
+
+                    // Variation aléatoire de l'humidité
+                    grid[row][col].setHumidity(30 + random.nextDouble() * 40); // 30-70% d'humidité
+                }
+            }
+        }
+    }
+
+    public TreeNode[][] getGrid() {
+        return grid;
+    }
+
+    /**
+     * Cellules modifiées depuis la dernière image publiée
+     */
+    public DirtyCellSet getDirtyCells() {
+        return dirtyCells;
+    }
+
+    /**
+     * Cellules allumées ou éteintes depuis la dernière synchronisation (toutes après une réinitialisation)
+     */
+    public DirtyCellSet getFireChanges() {
+        return fireChanges;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -14,6 +14,18 @@ public class LoRaMessage {
     private boolean fireDetected;
     private long timestamp;
 
+    // Instrumentation de la latence de détection (temps simulé, en secondes)
+    private double simulationTime;
+    private double ignitionTime;
+    private int incidentId;
+    private int hopCount = 0;
+    private double receivedTime;
+
+    // Identité courte de l'émetteur, pour le codage binaire (voir LoRaFrameCodec)
+    private int deviceId = -1;
+    private int sequence = 0;
+    private boolean fromMaster = false;
+
     /**
      * Crée un nouveau message LoRa
      *
@@ -25,6 +37,18 @@ public class LoRaMessage {
      * @param fireDetected Indique si un feu a été détecté
      */
     public LoRaMessage(UUID uuid, int row, int col, double temperature, double co2Level, boolean fireDetected) {
+        this(uuid, row, col, temperature, co2Level, fireDetected, 0.0, Double.NaN, -1);
+    }
+
+    /**
+     * Crée un nouveau message LoRa avec les informations de latence de détection
+     *
+     * @param simulationTime Temps simulé à l'émission
+     * @param ignitionTime Temps simulé d'allumage du foyer le plus proche (NaN si aucun)
+     * @param incidentId Identifiant de l'incendie auquel appartient ce foyer (-1 si aucun)
+     */
+    public LoRaMessage(UUID uuid, int row, int col, double temperature, double co2Level, boolean fireDetected,
+                       double simulationTime, double ignitionTime, int incidentId) {
         this.uuid = uuid;
         this.row = row;
         this.col = col;
@@ -32,6 +56,10 @@ public class LoRaMessage {
         this.co2Level = co2Level;
         this.fireDetected = fireDetected;
         this.timestamp = System.currentTimeMillis();
+        this.simulationTime = simulationTime;
+        this.ignitionTime = ignitionTime;
+        this.incidentId = incidentId;
+        this.receivedTime = simulationTime; // livraison immédiate par défaut
     }
 
     public UUID getUuid() {
@@ -62,15 +90,61 @@ public class LoRaMessage {
         return timestamp;
     }
 
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public double getIgnitionTime() {
+        return ignitionTime;
+    }
+
+    public int getIncidentId() {
+        return incidentId;
+    }
+
+    public int getHopCount() {
+        return hopCount;
+    }
+
+    /**
+     * Compte un saut radio supplémentaire (relais par un autre projet)
+     */
+    public void incrementHopCount() {
+        hopCount++;
+    }
+
+    public double getReceivedTime() {
+        return receivedTime;
+    }
+
+    /**
+     * Enregistre le temps simulé de réception par le destinataire final
+     */
+    public void markReceived(double receivedTime) {
+        this.receivedTime = receivedTime;
+    }
+
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public boolean isFromMaster() {
+        return fromMaster;
+    }
+
     /**
-     * Convertit le message en format JSON pour l'API
+     * Renseigne l'identifiant court et le numéro de séquence de l'émetteur
+     * @param deviceId Identifiant court du projet émetteur
+     * @param sequence Numéro de séquence du message pour cet émetteur
+     * @param fromMaster Vrai si l'émetteur est un maître
      */
-    public String toJson() {
-        return "{"
-                + "\"uuid\":\"" + uuid + "\","
-                + "\"temperature\":" + temperature + ","
-                + "\"co2_level\":" + co2Level + ","
-                + "\"source\":\"simulated\""
-                + "}";
+    public void setSource(int deviceId, int sequence, boolean fromMaster) {
+        this.deviceId = deviceId;
+        this.sequence = sequence;
+        this.fromMaster = fromMaster;
     }
 }
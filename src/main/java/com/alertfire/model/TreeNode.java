@@ -1,13 +1,15 @@
 package com.alertfire.model;
 
 import com.alertfire.model.enums.NodeState;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
 
 /**
- * Représente un nœud dans la grille de simulation
+ * Représente un nœud dans la grille de simulation.
+ * Le nœud ne porte que l'état de la cellule ; son affichage est assuré par la vue de la grille.
  */
-public class TreeNode extends Rectangle {
+public class TreeNode {
+
+    // Niveaux d'intensité du feu distingués à l'affichage
+    public static final int INTENSITY_LEVELS = 8;
 
     private NodeState state;
     private double fireIntensity;
@@ -15,20 +17,16 @@ public class TreeNode extends Rectangle {
     private double burningTime;
     private int row;
     private int col;
+    private DirtyCellSet dirtyCells; // cellules à redessiner (aucune pour une copie d'historique)
+    private DirtyCellSet fireChanges; // cellules allumées ou éteintes depuis la dernière synchronisation
 
-    public TreeNode(int row, int col, double width, double height) {
-        super(width, height);
+    public TreeNode(int row, int col) {
         this.row = row;
         this.col = col;
         this.state = NodeState.EMPTY;
         this.fireIntensity = 0.0;
         this.humidity = 50.0; // valeur par défaut d'humidité (%)
         this.burningTime = 0.0;
-
-        // Style initial
-        setStroke(Color.BLACK);
-        setStrokeWidth(0.5);
-        updateColor();
     }
 
     public NodeState getState() {
@@ -36,8 +34,29 @@ public class TreeNode extends Rectangle {
     }
 
     public void setState(NodeState state) {
+        if (state != this.state) {
+            if (dirtyCells != null) {
+                dirtyCells.mark(row, col);
+            }
+            if (fireChanges != null && (state == NodeState.BURNING || this.state == NodeState.BURNING)) {
+                fireChanges.mark(row, col);
+            }
+        }
         this.state = state;
-        updateColor();
+    }
+
+    /**
+     * Rattache le nœud à l'ensemble des cellules à redessiner de la grille affichée
+     */
+    public void setDirtyCells(DirtyCellSet dirtyCells) {
+        this.dirtyCells = dirtyCells;
+    }
+
+    /**
+     * Rattache le nœud à l'ensemble des cellules dont la combustion a changé
+     */
+    public void setFireChanges(DirtyCellSet fireChanges) {
+        this.fireChanges = fireChanges;
     }
 
     public double getFireIntensity() {
@@ -45,9 +64,25 @@ public class TreeNode extends Rectangle {
     }
 
     public void setFireIntensity(double fireIntensity) {
+        // Une cellule en feu est à redessiner quand son niveau d'intensité change
+        if (state == NodeState.BURNING && dirtyCells != null
+                && levelOf(fireIntensity) != levelOf(this.fireIntensity)) {
+            dirtyCells.mark(row, col);
+        }
         this.fireIntensity = fireIntensity;
     }
 
+    /**
+     * Intensité du feu ramenée à un niveau entre 0 et {@link #INTENSITY_LEVELS} - 1
+     */
+    public int getIntensityLevel() {
+        return levelOf(fireIntensity);
+    }
+
+    private static int levelOf(double intensity) {
+        return Math.max(0, Math.min(INTENSITY_LEVELS - 1, (int) (intensity * INTENSITY_LEVELS)));
+    }
+
     public double getHumidity() {
         return humidity;
     }
@@ -72,26 +107,6 @@ public class TreeNode extends Rectangle {
         return col;
     }
 
-    /**
-     * Met à jour la couleur du nœud en fonction de son état
-     */
-    private void updateColor() {
-        switch (state) {
-            case EMPTY:
-                setFill(Color.LIGHTGRAY);
-                break;
-            case TREE:
-                setFill(Color.GREEN);
-                break;
-            case BURNING:
-                setFill(Color.RED);
-                break;
-            case BURNT:
-                setFill(Color.BROWN); // Changé de BLACK à BROWN pour les arbres brûlés
-                break;
-        }
-    }
-
     /**
      * Incrémente le temps de combustion et vérifie si l'arbre est complètement brûlé
      * @param elapsedTime Temps écoulé en secondes
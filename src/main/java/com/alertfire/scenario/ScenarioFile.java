@@ -0,0 +1,361 @@
+package com.alertfire.scenario;
+
+import com.alertfire.device.Placement;
+import com.alertfire.device.SensorArray;
+import com.alertfire.model.DirtyCellSet;
+import com.alertfire.model.ForestGrid;
+import com.alertfire.model.TreeNode;
+import com.alertfire.model.enums.NodeState;
+import com.alertfire.model.enums.ProjectType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fichier binaire de scénario : grille, projets et météo.
+ *
+ * Disposition (gros-boutiste) :
+ * <pre>
+ * en-tête (64 octets) : "AFSC", version, largeur, hauteur, vent (vitesse, direction),
+ *                       humidité ambiante, nombre de projets, position des projets
+ * plan des états      : un octet par cellule (ordinal de {@link NodeState}), ligne par ligne
+ * plan des humidités  : un entier court par cellule, en centièmes de pour cent
+ * projets             : ligne, colonne et type (ordinal de {@link ProjectType}), 12 octets chacun
+ * </pre>
+ * Les octets éventuels après la liste des projets sont ignorés.
+ *
+ * Les plans sont lus et écrits par bandes de lignes projetées en mémoire et copiées d'un
+ * bloc ligne par ligne. Un fichier chargé ou enregistré reste associé à la grille : un
+ * nouvel enregistrement n'écrit que les lignes modifiées depuis (voir
+ * {@link DirtyCellSet#isRowUnsaved}), plus l'en-tête et la liste des projets.
+ */
+public class ScenarioFile {
+
+    public static final String EXTENSION = "afs";
+
+    private static final int MAGIC = 0x41465343; // "AFSC"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int PROJECT_SIZE = 12;
+    private static final long BAND_BYTES = 1 << 24; // taille maximale d'une projection
+    // Un foyer chargé reprend comme un allumage manuel
+    private static final double LOADED_FIRE_INTENSITY = 0.5;
+
+    private final Path path;
+    private int width;
+    private int height;
+    private double windSpeed;
+    private double windDirection;
+    private double humidity;
+    private List<Placement> placements = new ArrayList<>();
+    // Vrai quand le fichier correspond à la grille, hors lignes modifiées depuis
+    private boolean synced = false;
+
+    public ScenarioFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Ouvre un scénario existant : lit l'en-tête et les projets, sans toucher à la grille
+     * @throws IOException Si le fichier est illisible, d'une autre version ou tronqué
+     */
+    public static ScenarioFile open(Path path) throws IOException {
+        ScenarioFile file = new ScenarioFile(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file.readHeader(channel);
+        }
+        return file;
+    }
+
+    private void readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Fichier de scénario invalide: " + path);
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Version de scénario non prise en charge: " + version);
+        }
+        header.getShort();
+        width = header.getInt();
+        height = header.getInt();
+        windSpeed = header.getDouble();
+        windDirection = header.getDouble();
+        humidity = header.getDouble();
+        int projectCount = header.getInt();
+        header.getInt();
+        long projectOffset = header.getLong();
+        if (width <= 0 || height <= 0 || projectCount < 0 || projectOffset != planesEnd()
+                || channel.size() < projectOffset + (long) projectCount * PROJECT_SIZE) {
+            throw new IOException("Fichier de scénario tronqué: " + path);
+        }
+
+        ByteBuffer projects = ByteBuffer.allocate(projectCount * PROJECT_SIZE);
+        readFully(channel, projects, projectOffset);
+        ProjectType[] types = ProjectType.values();
+        placements = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            int row = projects.getInt();
+            int col = projects.getInt();
+            int type = projects.getInt();
+            if (row < 0 || row >= height || col < 0 || col >= width || type < 0 || type >= types.length) {
+                throw new IOException("Projet invalide dans le scénario: " + path);
+            }
+            placements.add(new Placement(row, col, types[type]));
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Fin de fichier inattendue");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Copie les plans d'états et d'humidités dans la grille, de mêmes dimensions que le scénario
+     */
+    public void readCells(ForestGrid forest) throws IOException {
+        checkSize(forest);
+        NodeState[] states = NodeState.values();
+        TreeNode[][] grid = forest.getGrid();
+        byte[] stateRow = new byte[width];
+        short[] humidityRow = new short[width];
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int bandRows = bandRows();
+            for (int first = 0; first < height; first += bandRows) {
+                int rows = Math.min(bandRows, height - first);
+                MappedByteBuffer statePlane = channel.map(FileChannel.MapMode.READ_ONLY,
+                        stateOffset(first), (long) rows * width);
+                ShortBuffer humidityPlane = channel.map(FileChannel.MapMode.READ_ONLY,
+                        humidityOffset(first), (long) rows * width * 2).asShortBuffer();
+
+                for (int r = first; r < first + rows; r++) {
+                    statePlane.get(stateRow);
+                    humidityPlane.get(humidityRow);
+                    for (int c = 0; c < width; c++) {
+                        int code = stateRow[c];
+                        if (code < 0 || code >= states.length) {
+                            throw new IOException("État invalide en (" + r + "," + c + ") dans " + path);
+                        }
+                        TreeNode node = grid[r][c];
+                        node.setState(states[code]);
+                        node.setFireIntensity(states[code] == NodeState.BURNING ? LOADED_FIRE_INTENSITY : 0.0);
+                        node.setBurningTime(0.0);
+                        node.setHumidity(humidityRow[c] / 100.0);
+                    }
+                }
+            }
+        }
+        forest.getDirtyCells().clearUnsaved();
+        synced = true;
+    }
+
+    /**
+     * Enregistre la grille, les projets et la météo ; seulement les lignes modifiées si le
+     * fichier correspond déjà à la grille
+     * @return Nombre de lignes de la grille écrites
+     */
+    public int save(ForestGrid forest, SensorArray sensors, double windSpeed, double windDirection,
+                    double humidity) throws IOException {
+        DirtyCellSet unsaved = forest.getDirtyCells();
+        boolean incremental = synced && !unsaved.isAllUnsaved()
+                && width == forest.getWidth() && height == forest.getHeight();
+        this.width = forest.getWidth();
+        this.height = forest.getHeight();
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.humidity = humidity;
+        placements = new ArrayList<>(sensors.size());
+        for (int i = 0; i < sensors.size(); i++) {
+            placements.add(new Placement(sensors.getRow(i), sensors.getCol(i), sensors.getType(i)));
+        }
+
+        int written;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < planesEnd()) {
+                incremental = false;
+            }
+            // Raccourcir avant toute projection : Windows refuse de tronquer un fichier projeté
+            long end = planesEnd() + (long) placements.size() * PROJECT_SIZE;
+            if (channel.size() > end) {
+                shrink(channel, end);
+            }
+            synced = false;
+            written = writeCells(channel, forest, incremental);
+            writeProjects(channel);
+            writeHeader(channel);
+            channel.force(false);
+        }
+        unsaved.clearUnsaved();
+        synced = true;
+        return written;
+    }
+
+    private int writeCells(FileChannel channel, ForestGrid forest, boolean incremental) throws IOException {
+        DirtyCellSet unsaved = forest.getDirtyCells();
+        TreeNode[][] grid = forest.getGrid();
+        byte[] stateRow = new byte[width];
+        short[] humidityRow = new short[width];
+        int written = 0;
+
+        int bandRows = bandRows();
+        for (int first = 0; first < height; first += bandRows) {
+            int rows = Math.min(bandRows, height - first);
+            if (incremental && !anyUnsaved(unsaved, first, rows)) {
+                continue;
+            }
+            MappedByteBuffer statePlane = channel.map(FileChannel.MapMode.READ_WRITE,
+                    stateOffset(first), (long) rows * width);
+            MappedByteBuffer humidityBand = channel.map(FileChannel.MapMode.READ_WRITE,
+                    humidityOffset(first), (long) rows * width * 2);
+            ShortBuffer humidityPlane = humidityBand.asShortBuffer();
+
+            for (int r = first; r < first + rows; r++) {
+                if (incremental && !unsaved.isRowUnsaved(r)) {
+                    continue;
+                }
+                for (int c = 0; c < width; c++) {
+                    TreeNode node = grid[r][c];
+                    stateRow[c] = (byte) node.getState().ordinal();
+                    humidityRow[c] = (short) Math.round(Math.max(0, Math.min(100, node.getHumidity())) * 100);
+                }
+                statePlane.put((r - first) * width, stateRow);
+                humidityPlane.put((r - first) * width, humidityRow);
+                written++;
+            }
+            statePlane.force();
+            humidityBand.force();
+        }
+        return written;
+    }
+
+    private static boolean anyUnsaved(DirtyCellSet unsaved, int first, int rows) {
+        for (int r = first; r < first + rows; r++) {
+            if (unsaved.isRowUnsaved(r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tronque le fichier après la liste des projets ; si une projection d'une opération
+     * précédente est encore ouverte et l'empêche, les octets en trop restent (ignorés à la lecture)
+     */
+    private void shrink(FileChannel channel, long end) {
+        try {
+            channel.truncate(end);
+        } catch (IOException e) {
+            System.out.println("Scénario non raccourci (" + e.getMessage() + "), fin du fichier ignorée");
+        }
+    }
+
+    private void writeProjects(FileChannel channel) throws IOException {
+        ByteBuffer projects = ByteBuffer.allocate(placements.size() * PROJECT_SIZE);
+        for (Placement placement : placements) {
+            projects.putInt(placement.getRow());
+            projects.putInt(placement.getCol());
+            projects.putInt(placement.getType().ordinal());
+        }
+        projects.flip();
+        writeFully(channel, projects, planesEnd());
+    }
+
+    private void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putInt(width);
+        header.putInt(height);
+        header.putDouble(windSpeed);
+        header.putDouble(windDirection);
+        header.putDouble(humidity);
+        header.putInt(placements.size());
+        header.putInt(0);
+        header.putLong(planesEnd());
+        header.position(HEADER_SIZE);
+        header.flip();
+        writeFully(channel, header, 0);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private void checkSize(ForestGrid forest) throws IOException {
+        if (forest.getWidth() != width || forest.getHeight() != height) {
+            throw new IOException("Le scénario fait " + width + "x" + height + ", la grille "
+                    + forest.getWidth() + "x" + forest.getHeight());
+        }
+    }
+
+    /**
+     * Lignes par projection, pour que la bande du plan des humidités tienne dans {@link #BAND_BYTES}
+     */
+    private int bandRows() {
+        return (int) Math.max(1, Math.min(height, BAND_BYTES / (2L * width)));
+    }
+
+    private long stateOffset(int row) {
+        return HEADER_SIZE + (long) row * width;
+    }
+
+    private long humidityOffset(int row) {
+        return HEADER_SIZE + (long) width * height + 2L * row * width;
+    }
+
+    private long planesEnd() {
+        return HEADER_SIZE + 3L * width * height;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    /**
+     * Humidité ambiante (pourcentage)
+     */
+    public double getHumidity() {
+        return humidity;
+    }
+
+    /**
+     * Projets du scénario, dans l'ordre
+     */
+    public List<Placement> getPlacements() {
+        return placements;
+    }
+}
@@ -0,0 +1,163 @@
+package com.alertfire.simulation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Masque de disque précalculé pour un rayon de détection donné (en cellules).
+ *
+ * Le disque est décrit ligne par ligne par sa demi-largeur, et l'influence du feu
+ * (1 - distance / rayon) est tabulée par carré de distance entière : aucun calcul de
+ * distance flottant n'est fait pendant la détection. Les masques sont partagés par
+ * tous les capteurs de même rayon via {@link #forRadius(double)}.
+ */
+public final class DiscMask {
+
+    private static final Map<Double, DiscMask> CATALOGUE = new ConcurrentHashMap<>();
+
+    private final int reach;
+    private final int radiusSq;
+    private final int[] halfWidths;
+    private final double[] weights;
+
+    private DiscMask(double radius) {
+        this.reach = (int) Math.floor(radius);
+        this.radiusSq = (int) Math.floor(radius * radius);
+
+        // Demi-largeur de chaque ligne du disque, indexée par dy + reach
+        this.halfWidths = new int[2 * reach + 1];
+        for (int dy = -reach; dy <= reach; dy++) {
+            int half = 0;
+            while ((half + 1) * (half + 1) + dy * dy <= radiusSq) {
+                half++;
+            }
+            halfWidths[dy + reach] = half;
+        }
+
+        // Influence du feu en fonction du carré de la distance
+        this.weights = new double[radiusSq + 1];
+        for (int d = 0; d <= radiusSq; d++) {
+            weights[d] = radius > 0 ? 1.0 - Math.sqrt(d) / radius : 1.0;
+        }
+    }
+
+    /**
+     * Retourne le masque partagé pour un rayon donné
+     * @param radius Rayon en cellules
+     */
+    public static DiscMask forRadius(double radius) {
+        return CATALOGUE.computeIfAbsent(radius, DiscMask::new);
+    }
+
+    /**
+     * Indique si un carré de distance est dans le disque
+     */
+    public boolean contains(int distanceSq) {
+        return distanceSq <= radiusSq;
+    }
+
+    /**
+     * Influence d'un feu situé à un carré de distance donné (0 hors du disque)
+     */
+    public double influence(int distanceSq) {
+        return distanceSq <= radiusSq ? weights[distanceSq] : 0.0;
+    }
+
+    /**
+     * Somme des influences de toutes les cellules en feu du disque centré sur (row, col).
+     * Chaque ligne du disque est un intervalle parcouru mot par mot sur les lignes de
+     * feu compactées, en ne visitant que les bits à 1.
+     * @param fireRows Lignes de feu compactées (64 cellules par mot)
+     * @param wordsPerRow Nombre de mots par ligne
+     * @param width Largeur de la grille
+     * @param height Hauteur de la grille
+     */
+    public double weightedSum(long[] fireRows, int wordsPerRow, int width, int height, int row, int col) {
+        double sum = 0.0;
+        int rowStart = Math.max(0, row - reach);
+        int rowEnd = Math.min(height - 1, row + reach);
+
+        for (int r = rowStart; r <= rowEnd; r++) {
+            int dy = r - row;
+            int half = halfWidths[dy + reach];
+            int c0 = Math.max(0, col - half);
+            int c1 = Math.min(width - 1, col + half);
+            if (c0 > c1) continue;
+
+            int base = r * wordsPerRow;
+            int firstWord = c0 >>> 6;
+            int lastWord = c1 >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long bits = fireRows[base + w];
+                if (w == firstWord) bits &= -1L << (c0 & 63);
+                if (w == lastWord) bits &= -1L >>> (63 - (c1 & 63));
+
+                while (bits != 0) {
+                    int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    int dx = c - col;
+                    sum += weights[dy * dy + dx * dx];
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Compte les cellules marquées dans {@code cells} mais pas dans {@code covered}
+     * à l'intérieur du disque centré sur (row, col)
+     */
+    public int countUncovered(long[] cells, long[] covered, int wordsPerRow, int width, int height,
+                              int row, int col) {
+        int count = 0;
+        int rowStart = Math.max(0, row - reach);
+        int rowEnd = Math.min(height - 1, row + reach);
+
+        for (int r = rowStart; r <= rowEnd; r++) {
+            int half = halfWidths[r - row + reach];
+            int c0 = Math.max(0, col - half);
+            int c1 = Math.min(width - 1, col + half);
+            if (c0 > c1) continue;
+
+            int base = r * wordsPerRow;
+            int firstWord = c0 >>> 6;
+            int lastWord = c1 >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long bits = cells[base + w] & ~covered[base + w];
+                if (w == firstWord) bits &= -1L << (c0 & 63);
+                if (w == lastWord) bits &= -1L >>> (63 - (c1 & 63));
+                count += Long.bitCount(bits);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Marque dans {@code covered} toutes les cellules du disque centré sur (row, col)
+     */
+    public void cover(long[] covered, int wordsPerRow, int width, int height, int row, int col) {
+        int rowStart = Math.max(0, row - reach);
+        int rowEnd = Math.min(height - 1, row + reach);
+
+        for (int r = rowStart; r <= rowEnd; r++) {
+            int half = halfWidths[r - row + reach];
+            int c0 = Math.max(0, col - half);
+            int c1 = Math.min(width - 1, col + half);
+            if (c0 > c1) continue;
+
+            int base = r * wordsPerRow;
+            int firstWord = c0 >>> 6;
+            int lastWord = c1 >>> 6;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long bits = -1L;
+                if (w == firstWord) bits &= -1L << (c0 & 63);
+                if (w == lastWord) bits &= -1L >>> (63 - (c1 & 63));
+                covered[base + w] |= bits;
+            }
+        }
+    }
+
+    public int getRadiusSq() {
+        return radiusSq;
+    }
+}
@@ -1,5 +1,8 @@
 package com.alertfire.simulation;
 
+import com.alertfire.log.EventLog;
+import com.alertfire.log.EventType;
+import com.alertfire.log.LogLevel;
 import com.alertfire.model.TreeNode;
 import com.alertfire.model.enums.NodeState;
 import java.util.ArrayList;
@@ -92,7 +95,8 @@ public class FastPropagationStrategy implements PropagationStrategy {
                     // Si le temps de combustion dépasse le seuil, l'arbre devient brûlé
                     if (node.getBurningTime() > BURN_TIME) {
                         node.setState(NodeState.BURNT);
-                        System.out.println("Arbre brûlé en position (" + r + "," + c + ")");
+                        EventLog.getInstance().event(LogLevel.INFO, EventType.TREE_BURNT)
+                                .field("row", r).field("col", c).commit();
                     }
                 }
             }
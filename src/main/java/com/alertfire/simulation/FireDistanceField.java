@@ -0,0 +1,280 @@
+package com.alertfire.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Carte des distances au foyer le plus proche, mise à jour de façon incrémentale.
+ *
+ * Chaque cellule retient l'indice du foyer actif le plus proche et le carré de sa
+ * distance (en cellules). Les allumages déclenchent une vague descendante qui ne
+ * parcourt que les cellules dont la distance diminue ; les extinctions déclenchent
+ * une vague montante qui efface les cellules orphelines puis les recalcule depuis
+ * leur frontière. Les distances sont bornées à {@code maxDistance} cellules : au-delà,
+ * aucun capteur ne peut voir le feu et rien n'est propagé.
+ *
+ * Les cellules en feu sont aussi tenues dans des lignes compactées (64 cellules par
+ * mot), parcourues par les masques de disque des capteurs. Chaque foyer retient son
+ * temps d'allumage et l'incendie auquel il appartient, pour mesurer la latence de
+ * détection.
+ */
+public class FireDistanceField {
+
+    private static final int NO_FIRE = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int[] NEIGHBOUR_DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] NEIGHBOUR_DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    private final int width;
+    private final int height;
+    private final int maxDistanceSq;
+
+    private final boolean[] burning;
+    private final int wordsPerRow;
+    private final long[] fireRows;
+    private final int[] nearest;
+    private final int[] distanceSq;
+    private final float[] ignitionTime;
+    private final int[] incident;
+    private int burningCount = 0;
+
+    private final IntQueue raiseQueue = new IntQueue();
+    private final IntQueue lowerQueue = new IntQueue();
+
+    /**
+     * @param width Largeur de la grille en cellules
+     * @param height Hauteur de la grille en cellules
+     * @param maxDistance Distance maximale suivie, en cellules
+     */
+    public FireDistanceField(int width, int height, double maxDistance) {
+        this.width = width;
+        this.height = height;
+        int bound = (int) Math.ceil(maxDistance);
+        this.maxDistanceSq = bound * bound;
+
+        int size = width * height;
+        this.burning = new boolean[size];
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.fireRows = new long[wordsPerRow * height];
+        this.nearest = new int[size];
+        this.distanceSq = new int[size];
+        this.ignitionTime = new float[size];
+        this.incident = new int[size];
+        clear();
+    }
+
+    /**
+     * Efface tous les foyers
+     */
+    public void clear() {
+        Arrays.fill(burning, false);
+        Arrays.fill(fireRows, 0L);
+        Arrays.fill(nearest, NO_FIRE);
+        Arrays.fill(distanceSq, UNREACHED);
+        Arrays.fill(incident, -1);
+        burningCount = 0;
+        raiseQueue.clear();
+        lowerQueue.clear();
+    }
+
+    /**
+     * Signale qu'une cellule vient de prendre feu
+     * @param time Temps simulé de l'allumage
+     * @param incidentId Incendie auquel appartient ce foyer
+     */
+    public void markIgnited(int row, int col, double time, int incidentId) {
+        int index = row * width + col;
+        if (burning[index]) {
+            return;
+        }
+        burning[index] = true;
+        burningCount++;
+        ignitionTime[index] = (float) time;
+        incident[index] = incidentId;
+        fireRows[row * wordsPerRow + (col >>> 6)] |= 1L << (col & 63);
+        nearest[index] = index;
+        distanceSq[index] = 0;
+        lowerQueue.add(index);
+    }
+
+    /**
+     * Signale qu'une cellule ne brûle plus (éteinte ou consumée)
+     */
+    public void markExtinguished(int row, int col) {
+        int index = row * width + col;
+        if (!burning[index]) {
+            return;
+        }
+        burning[index] = false;
+        burningCount--;
+        fireRows[row * wordsPerRow + (col >>> 6)] &= ~(1L << (col & 63));
+        nearest[index] = NO_FIRE;
+        distanceSq[index] = UNREACHED;
+        raiseQueue.add(index);
+    }
+
+    /**
+     * Applique les changements signalés depuis le dernier appel.
+     * Le coût est proportionnel au nombre de cellules dont le foyer le plus proche change.
+     */
+    public void propagate() {
+        // Vague montante : effacer les cellules dont le foyer a disparu
+        while (!raiseQueue.isEmpty()) {
+            int index = raiseQueue.poll();
+            int row = index / width;
+            int col = index % width;
+            for (int k = 0; k < NEIGHBOUR_DR.length; k++) {
+                int nr = row + NEIGHBOUR_DR[k];
+                int nc = col + NEIGHBOUR_DC[k];
+                if (nr < 0 || nr >= height || nc < 0 || nc >= width) continue;
+
+                int neighbour = nr * width + nc;
+                int site = nearest[neighbour];
+                if (site == NO_FIRE) continue;
+
+                if (!burning[site]) {
+                    nearest[neighbour] = NO_FIRE;
+                    distanceSq[neighbour] = UNREACHED;
+                    raiseQueue.add(neighbour);
+                } else {
+                    // Cellule frontière encore valide : elle réalimentera la zone effacée
+                    lowerQueue.add(neighbour);
+                }
+            }
+        }
+
+        // Vague descendante : diffuser les foyers valides tant que la distance diminue
+        while (!lowerQueue.isEmpty()) {
+            int index = lowerQueue.poll();
+            int site = nearest[index];
+            if (site == NO_FIRE || !burning[site]) continue;
+
+            int siteRow = site / width;
+            int siteCol = site % width;
+            int row = index / width;
+            int col = index % width;
+            for (int k = 0; k < NEIGHBOUR_DR.length; k++) {
+                int nr = row + NEIGHBOUR_DR[k];
+                int nc = col + NEIGHBOUR_DC[k];
+                if (nr < 0 || nr >= height || nc < 0 || nc >= width) continue;
+
+                int dr = nr - siteRow;
+                int dc = nc - siteCol;
+                int candidate = dr * dr + dc * dc;
+                int neighbour = nr * width + nc;
+                if (candidate <= maxDistanceSq && candidate < distanceSq[neighbour]) {
+                    distanceSq[neighbour] = candidate;
+                    nearest[neighbour] = site;
+                    lowerQueue.add(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indique si une cellule est actuellement en feu
+     */
+    public boolean isBurning(int row, int col) {
+        return burning[row * width + col];
+    }
+
+    /**
+     * Nombre de cellules en feu (front actif de l'incendie)
+     */
+    public int getBurningCount() {
+        return burningCount;
+    }
+
+    /**
+     * Retourne le carré de la distance (en cellules) au foyer le plus proche,
+     * ou {@link Integer#MAX_VALUE} si aucun foyer n'est à portée
+     */
+    public int distanceSq(int row, int col) {
+        return distanceSq[row * width + col];
+    }
+
+    /**
+     * Retourne la distance (en cellules) au foyer le plus proche,
+     * ou {@link Double#POSITIVE_INFINITY} si aucun foyer n'est à portée
+     */
+    public double distance(int row, int col) {
+        int d = distanceSq[row * width + col];
+        return d == UNREACHED ? Double.POSITIVE_INFINITY : Math.sqrt(d);
+    }
+
+    /**
+     * Retourne l'indice (row * width + col) du foyer le plus proche, ou -1
+     */
+    public int nearestFire(int row, int col) {
+        return nearest[row * width + col];
+    }
+
+    /**
+     * Temps simulé d'allumage d'un foyer
+     * @param site Indice du foyer (voir {@link #nearestFire(int, int)})
+     */
+    public double ignitionTime(int site) {
+        return ignitionTime[site];
+    }
+
+    /**
+     * Incendie auquel appartient un foyer, ou -1
+     */
+    public int incidentOf(int site) {
+        return site < 0 ? -1 : incident[site];
+    }
+
+    /**
+     * Somme des influences des cellules en feu dans le disque d'un capteur
+     * @param mask Masque du rayon de détection
+     */
+    public double weightedFireSum(DiscMask mask, int row, int col) {
+        return mask.weightedSum(fireRows, wordsPerRow, width, height, row, col);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * File d'entiers circulaire extensible, sans boxing
+     */
+    private static final class IntQueue {
+        private int[] items = new int[256];
+        private int head = 0;
+        private int size = 0;
+
+        void add(int value) {
+            if (size == items.length) {
+                int[] grown = new int[items.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = items[(head + i) % items.length];
+                }
+                items = grown;
+                head = 0;
+            }
+            items[(head + size) % items.length] = value;
+            size++;
+        }
+
+        int poll() {
+            int value = items[head];
+            head = (head + 1) % items.length;
+            size--;
+            return value;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
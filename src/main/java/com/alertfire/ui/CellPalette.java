@@ -0,0 +1,111 @@
+package com.alertfire.ui;
+
+import com.alertfire.model.TreeNode;
+import com.alertfire.model.enums.NodeState;
+
+/**
+ * Table des couleurs des cellules, au format ARGB prémultiplié (couleurs opaques).
+ *
+ * Une cellule est résumée par un code ({@link #codeOf}) : son état et, en feu, le niveau
+ * d'intensité ({@link TreeNode#INTENSITY_LEVELS}). Seules les cellules en feu varient avec
+ * l'intensité, de l'orange au rouge vif. Une zone de plusieurs cellules, vue de loin, prend
+ * la couleur de son feu le plus intense, ou à défaut un mélange selon ses parts d'arbres et
+ * de cellules brûlées.
+ */
+public final class CellPalette {
+
+    public static final int GRID_LINE = 0xFF000000;
+    public static final int BACKGROUND = 0xFF303030; // hors de la grille
+
+    private static final int LEVELS = TreeNode.INTENSITY_LEVELS;
+    private static final int[] COLORS = new int[NodeState.values().length * LEVELS];
+    // Zones sans feu : parts d'arbres et de brûlé quantifiées sur 16 niveaux chacune
+    private static final int[] ZONES = new int[16 * 16];
+
+    static {
+        for (int level = 0; level < LEVELS; level++) {
+            COLORS[NodeState.EMPTY.ordinal() * LEVELS + level] = 0xFFD3D3D3;  // gris clair
+            COLORS[NodeState.TREE.ordinal() * LEVELS + level] = 0xFF008000;   // vert
+            COLORS[NodeState.BURNT.ordinal() * LEVELS + level] = 0xFFA52A2A;  // brun
+            // En feu : le vert décroît avec l'intensité (orange → rouge)
+            int green = 0x8C - level * 0x8C / (LEVELS - 1);
+            COLORS[NodeState.BURNING.ordinal() * LEVELS + level] = 0xFFFF0000 | (green << 8);
+        }
+        int empty = colorOf(NodeState.EMPTY);
+        int tree = colorOf(NodeState.TREE);
+        int burnt = colorOf(NodeState.BURNT);
+        for (int t = 0; t < 16; t++) {
+            for (int b = 0; b < 16; b++) {
+                int trees = Math.min(15, t);
+                int burned = Math.min(15 - trees, b);
+                int rest = 15 - trees - burned;
+                int color = 0xFF000000;
+                for (int shift = 0; shift < 24; shift += 8) {
+                    int channel = (((empty >> shift) & 0xFF) * rest + ((tree >> shift) & 0xFF) * trees
+                            + ((burnt >> shift) & 0xFF) * burned) / 15;
+                    color |= channel << shift;
+                }
+                ZONES[t << 4 | b] = color;
+            }
+        }
+    }
+
+    private CellPalette() {
+    }
+
+    /**
+     * Code d'une cellule : état, et niveau d'intensité pour une cellule en feu
+     */
+    public static int codeOf(TreeNode node) {
+        NodeState state = node.getState();
+        return state.ordinal() * LEVELS + (state == NodeState.BURNING ? node.getIntensityLevel() : 0);
+    }
+
+    /**
+     * État correspondant à un code
+     */
+    public static NodeState stateOf(int code) {
+        return NodeState.values()[code / LEVELS];
+    }
+
+    /**
+     * Niveau d'intensité du feu correspondant à un code
+     */
+    public static int intensityOf(int code) {
+        return code % LEVELS;
+    }
+
+    /**
+     * Couleur d'un code de cellule
+     */
+    public static int colorOfCode(int code) {
+        return COLORS[code];
+    }
+
+    /**
+     * Couleur d'une cellule
+     */
+    public static int colorOf(TreeNode node) {
+        return COLORS[codeOf(node)];
+    }
+
+    /**
+     * Couleur d'un état, à l'intensité maximale pour une cellule en feu
+     */
+    public static int colorOf(NodeState state) {
+        return COLORS[state.ordinal() * LEVELS + LEVELS - 1];
+    }
+
+    /**
+     * Couleur d'une zone de plusieurs cellules
+     * @param fireLevel Intensité maximale du feu dans la zone, ou -1 sans feu
+     * @param trees Part d'arbres (0 à 255)
+     * @param burnt Part de cellules brûlées (0 à 255)
+     */
+    public static int colorOfZone(int fireLevel, int trees, int burnt) {
+        if (fireLevel >= 0) {
+            return COLORS[NodeState.BURNING.ordinal() * LEVELS + fireLevel];
+        }
+        return ZONES[(trees >> 4) << 4 | (burnt >> 4)];
+    }
+}
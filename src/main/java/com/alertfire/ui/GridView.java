@@ -1,155 +1,400 @@
 package com.alertfire.ui;
 
-import com.alertfire.model.TreeNode;
-import com.alertfire.model.enums.NodeState;
-import com.alertfire.device.ProjectNode;
+import com.alertfire.controller.SimulationFrame;
 
-import javafx.scene.layout.GridPane;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseButton;
 import javafx.scene.layout.Pane;
-import java.util.Random;
+import javafx.scene.shape.Rectangle;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 
 /**
- * Affichage graphique de la grille de simulation
+ * Affichage graphique de la grille de simulation, avec déplacement et zoom.
+ *
+ * La vue est une fenêtre sur la grille : son image a la taille de la zone affichée, quelle
+ * que soit la taille de la grille. Les pixels sont écrits directement dans un tampon
+ * ({@link PixelBuffer}) partagé avec la texture. Selon le zoom, chaque pixel lit le niveau
+ * de la {@link TilePyramid} dont un texel couvre un ou deux pixels : de près, une cellule
+ * est un bloc de pixels bordé de quadrillage ; de loin, une zone prend la couleur de son
+ * feu le plus intense ou le mélange de ses arbres et cellules brûlées.
+ *
+ * La vue ne lit pas la grille de la simulation, qui appartient au thread de simulation :
+ * elle applique à sa pyramide les images ({@link SimulationFrame}) qu'il publie, puis ne
+ * redessine que les tuiles visibles qui ont changé au niveau affiché. Un déplacement ou un
+ * zoom redessine toute la fenêtre. La molette zoome autour du pointeur, un glissé déplace
+ * la vue, et un clic sans déplacement est ramené à sa cellule. Les capteurs sont dessinés
+ * par-dessus, sur une seule couche ({@link SensorOverlay}).
  */
 public class GridView {
 
-    private GridPane gridPane;
-    private TreeNode[][] grid;
+    /**
+     * Reçoit les clics sur une cellule de la grille
+     */
+    public interface CellClickHandler {
+        void onCellClicked(int row, int col);
+    }
+
+    // À partir de cette taille (pixels par cellule), les cellules sont bordées de quadrillage
+    private static final double MIN_OUTLINED_CELL = 4;
+    private static final double MAX_ZOOM = 64;
+    private static final double ZOOM_STEP = 1.25;
+
+    private final Pane root;
+    private final ImageView imageView;
+    private final SensorOverlay sensorOverlay;
+    private final TilePyramid pyramid;
     private int width;
     private int height;
     private double cellSize;
-    private Random random = new Random();
+    private CellClickHandler clickHandler;
+
+    // Vue : pixels par cellule et cellule (fractionnaire) au coin supérieur gauche
+    private double zoom;
+    private double offsetX;
+    private double offsetY;
+    private int level;
+    private boolean fitted = false;
+    private boolean viewChanged = true;
+    private double pressX;
+    private double pressY;
+    private double pressOffsetX;
+    private double pressOffsetY;
+
+    // Image de la fenêtre, recréée quand sa taille change
+    private int viewWidth;
+    private int viewHeight;
+    private IntBuffer pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+
+    // Pour chaque colonne (ligne) de pixels : texel lu (-1 hors grille) et quadrillage
+    private int[] columnTexel = new int[0];
+    private boolean[] columnLine = new boolean[0];
+    private int[] rowTexel = new int[0];
+    private boolean[] rowLine = new boolean[0];
+
+    // Rectangles des tuiles à redessiner (x0, y0, x1, y1 en pixels)
+    private int[] tileRects = new int[64];
 
     /**
      * Constructeur de la vue de grille
      * @param width Largeur de la grille en cellules
      * @param height Hauteur de la grille en cellules
-     * @param cellSize Taille de chaque cellule en pixels
+     * @param cellSize Taille d'une cellule en pixels au zoom initial, si la grille entière tient dans la vue
      */
     public GridView(int width, int height, double cellSize) {
         this.width = width;
         this.height = height;
         this.cellSize = cellSize;
+        this.zoom = cellSize;
+        this.pyramid = new TilePyramid(width, height);
+
+        imageView = new ImageView();
+        imageView.setSmooth(false);
 
-        gridPane = new GridPane();
-        grid = new TreeNode[height][width];
+        sensorOverlay = new SensorOverlay();
 
-        // Initialiser la grille
-        initGrid();
+        root = new Pane(imageView, sensorOverlay.getNode());
+        root.setStyle("-fx-border-color: black; -fx-border-width: 1px;");
+        root.setMinSize(0, 0);
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(root.widthProperty());
+        clip.heightProperty().bind(root.heightProperty());
+        root.setClip(clip);
+
+        root.widthProperty().addListener((obs, oldVal, newVal) -> resize());
+        root.heightProperty().addListener((obs, oldVal, newVal) -> resize());
+        setupMouse();
     }
 
     /**
-     * Initialise la grille avec des cellules vides
+     * Molette : zoom ; glissé : déplacement ; clic immobile : action sur la cellule
      */
-    private void initGrid() {
-        for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                TreeNode node = new TreeNode(row, col, cellSize, cellSize);
+    private void setupMouse() {
+        root.setOnScroll(e -> {
+            if (e.getDeltaY() != 0) {
+                zoomAt(e.getX(), e.getY(), e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP);
+            }
+        });
+        root.setOnMousePressed(e -> {
+            pressX = e.getX();
+            pressY = e.getY();
+            pressOffsetX = offsetX;
+            pressOffsetY = offsetY;
+        });
+        root.setOnMouseDragged(e -> setView(zoom,
+                pressOffsetX - (e.getX() - pressX) / zoom,
+                pressOffsetY - (e.getY() - pressY) / zoom));
+        root.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.isStillSincePress()) {
+                handleCanvasClick(e.getX(), e.getY());
+            }
+        });
+    }
 
-                // Ajouter la cellule à la grille
-                grid[row][col] = node;
-                gridPane.add(node, col, row);
+    /**
+     * Ramène un clic sur la vue à la cellule correspondante
+     */
+    private void handleCanvasClick(double x, double y) {
+        int col = (int) Math.floor(offsetX + x / zoom);
+        int row = (int) Math.floor(offsetY + y / zoom);
+        if (clickHandler != null && row >= 0 && row < height && col >= 0 && col < width) {
+            clickHandler.onCellClicked(row, col);
+        }
+    }
 
-                // Ajouter un gestionnaire d'événements de clic
-                final int r = row;
-                final int c = col;
-                node.setOnMouseClicked(e -> handleCellClick(r, c));
-            }
+    /**
+     * Zoome en gardant fixe la cellule sous le point donné
+     * @param x Abscisse du point dans la vue, en pixels
+     * @param y Ordonnée du point dans la vue, en pixels
+     * @param factor Facteur de zoom (supérieur à 1 pour rapprocher)
+     */
+    public void zoomAt(double x, double y, double factor) {
+        double newZoom = clampZoom(zoom * factor);
+        double cellX = offsetX + x / zoom;
+        double cellY = offsetY + y / zoom;
+        setView(newZoom, cellX - x / newZoom, cellY - y / newZoom);
+    }
+
+    /**
+     * Affiche toute la grille, sans dépasser la taille de cellule initiale
+     */
+    public void fitToView() {
+        if (viewWidth == 0 || viewHeight == 0) {
+            return;
         }
+        double fit = clampZoom(Math.min(cellSize, Math.min((double) viewWidth / width, (double) viewHeight / height)));
+        setView(fit, (width - viewWidth / fit) / 2, (height - viewHeight / fit) / 2);
+    }
 
-        // Ajouter une bordure et un padding pour mieux visualiser la grille
-        gridPane.setStyle("-fx-border-color: black; -fx-border-width: 1px;");
-        gridPane.setHgap(1);
-        gridPane.setVgap(1);
+    private double clampZoom(double value) {
+        // Au plus loin, la grille occupe la moitié de la vue
+        double minZoom = Math.min(MAX_ZOOM, 0.5 * Math.min((double) Math.max(1, viewWidth) / width,
+                (double) Math.max(1, viewHeight) / height));
+        return Math.max(minZoom, Math.min(MAX_ZOOM, value));
+    }
+
+    private void setView(double newZoom, double newOffsetX, double newOffsetY) {
+        // Garder le centre de la vue sur la grille
+        double halfWidth = viewWidth / (2 * newZoom);
+        double halfHeight = viewHeight / (2 * newZoom);
+        zoom = newZoom;
+        offsetX = Math.max(-halfWidth, Math.min(width - halfWidth, newOffsetX));
+        offsetY = Math.max(-halfHeight, Math.min(height - halfHeight, newOffsetY));
+        viewChanged = true;
+        refresh();
     }
 
     /**
-     * Gère le clic sur une cellule de la grille
+     * Recrée l'image à la nouvelle taille de la vue
      */
-    private void handleCellClick(int row, int col) {
-        // Cette méthode est maintenant gérée par SimulationMenu
-        System.out.println("Clic sur la cellule (" + row + ", " + col + ")");
+    private void resize() {
+        int newWidth = (int) Math.floor(root.getWidth());
+        int newHeight = (int) Math.floor(root.getHeight());
+        if (newWidth <= 0 || newHeight <= 0 || (newWidth == viewWidth && newHeight == viewHeight)) {
+            return;
+        }
+        viewWidth = newWidth;
+        viewHeight = newHeight;
+        pixels = IntBuffer.allocate(viewWidth * viewHeight);
+        pixelBuffer = new PixelBuffer<>(viewWidth, viewHeight, pixels, PixelFormat.getIntArgbPreInstance());
+        imageView.setImage(new WritableImage(pixelBuffer));
+        sensorOverlay.resize(viewWidth, viewHeight);
+
+        if (!fitted) {
+            fitted = true;
+            fitToView();
+        } else {
+            setView(clampZoom(zoom), offsetX, offsetY);
+        }
     }
 
     /**
-     * Réinitialise la grille à son état initial (toutes les cellules vides)
+     * Dessine une image publiée par la simulation (thread JavaFX)
      */
-    public void resetGrid() {
-        for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                grid[row][col].setState(NodeState.EMPTY);
+    public void render(SimulationFrame frame) {
+        if (frame.isFull()) {
+            pyramid.setAll(frame.getCodes());
+        } else {
+            for (int k = 0; k < frame.getDirtyCount(); k++) {
+                pyramid.set(frame.getDirtyCell(k), frame.getDirtyCode(k));
             }
         }
+        sensorOverlay.update(frame);
+        refresh();
     }
 
     /**
-     * Met à jour l'interface utilisateur
+     * Anime les capteurs ; appelé à chaque image de l'écran, même sans nouvelle image de la simulation
+     * @param now Instant de l'image (nanosecondes)
      */
-    public void updateUI() {
-        // Rien à faire ici car les nœuds mettent à jour leur propre couleur
+    public void animate(long now) {
+        sensorOverlay.draw(now);
     }
 
     /**
-     * Génère une forêt aléatoire avec une densité donnée
-     * @param density Densité de la forêt (0.0 - 1.0)
+     * Redessine toute la vue si elle a bougé, sinon les tuiles visibles modifiées
      */
-    public void generateRandomForest(double density) {
-        resetGrid();
-
-        for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                if (random.nextDouble() < density) {
-                    grid[row][col].setState(NodeState.TREE);
+    private void refresh() {
+        if (pixelBuffer == null) {
+            return;
+        }
+        if (viewChanged) {
+            viewChanged = false;
+            prepareView();
+            pyramid.clearTiles(level);
+            pixelBuffer.updateBuffer(buffer -> {
+                writeRect(0, 0, viewWidth, viewHeight);
+                return null; // toute l'image
+            });
+            sensorOverlay.setView(zoom, offsetX, offsetY);
+            return;
+        }
 
-                    // Variation aléatoire de l'humidité
-                    grid[row][col].setHumidity(30 + random.nextDouble() * 40); // 30-70% d'humidité
+        // Tuiles visibles du niveau affiché : une tuile couvre 2^shift cellules de côté
+        int shift = TilePyramid.TILE_SHIFT + level;
+        int firstCol = Math.max(0, (int) Math.floor(offsetX));
+        int lastCol = Math.min(width - 1, (int) Math.floor(offsetX + viewWidth / zoom));
+        int firstRow = Math.max(0, (int) Math.floor(offsetY));
+        int lastRow = Math.min(height - 1, (int) Math.floor(offsetY + viewHeight / zoom));
+        if (firstCol > lastCol || firstRow > lastRow) {
+            return;
+        }
+        int count = 0;
+        for (int ty = firstRow >> shift; ty <= lastRow >> shift; ty++) {
+            for (int tx = firstCol >> shift; tx <= lastCol >> shift; tx++) {
+                if (!pyramid.isTileDirty(level, tx, ty)) {
+                    continue;
                 }
+                pyramid.clearTile(level, tx, ty);
+                if (4 * count + 4 > tileRects.length) {
+                    tileRects = Arrays.copyOf(tileRects, tileRects.length * 2);
+                }
+                tileRects[4 * count] = toScreen(((long) tx << shift) - offsetX, viewWidth);
+                tileRects[4 * count + 1] = toScreen(((long) ty << shift) - offsetY, viewHeight);
+                tileRects[4 * count + 2] = toScreen(((long) (tx + 1) << shift) - offsetX, viewWidth);
+                tileRects[4 * count + 3] = toScreen(((long) (ty + 1) << shift) - offsetY, viewHeight);
+                count++;
             }
         }
+        if (count > 0) {
+            int rects = count;
+            pixelBuffer.updateBuffer(buffer -> writeTiles(rects));
+        }
     }
 
     /**
-     * Ajoute un projet à la grille
-     * @param project Le projet à ajouter
-     * @param row La ligne
-     * @param col La colonne
+     * Position en pixels d'une distance en cellules depuis le bord de la vue, bornée à la vue
      */
-    public void addProject(ProjectNode project, int row, int col) {
-        // Créer un conteneur pour le projet
-        Pane projectPane = new Pane();
-        projectPane.getChildren().add(project);
+    private int toScreen(double cells, int limit) {
+        return (int) Math.max(0, Math.min(limit, Math.ceil(cells * zoom - 0.5)));
+    }
 
-        // Positionner le projet au centre de la cellule
-        project.setCenterX(cellSize / 2);
-        project.setCenterY(cellSize / 2);
+    /**
+     * Réécrit les tuiles modifiées
+     * @return Rectangle de l'image à transmettre à la texture
+     */
+    private Rectangle2D writeTiles(int count) {
+        int minX = viewWidth;
+        int minY = viewHeight;
+        int maxX = 0;
+        int maxY = 0;
+        for (int k = 0; k < count; k++) {
+            int x0 = tileRects[4 * k];
+            int y0 = tileRects[4 * k + 1];
+            int x1 = tileRects[4 * k + 2];
+            int y1 = tileRects[4 * k + 3];
+            writeRect(x0, y0, x1, y1);
+            minX = Math.min(minX, x0);
+            minY = Math.min(minY, y0);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+        }
+        if (maxX <= minX || maxY <= minY) {
+            return Rectangle2D.EMPTY;
+        }
+        return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+    }
 
-        // Ajouter le projet à la grille
-        gridPane.add(projectPane, col, row);
+    /**
+     * Choisit le niveau de la pyramide et calcule, pour chaque colonne et ligne de pixels, le texel lu
+     */
+    private void prepareView() {
+        // Niveau le plus grossier dont un texel couvre encore au moins un pixel
+        int maxLevel = pyramid.getLevelCount() - 1;
+        level = zoom >= 1 ? 0 : Math.min(maxLevel, (int) Math.floor(Math.log(1 / zoom) / Math.log(2)));
+        boolean outlined = level == 0 && zoom >= MIN_OUTLINED_CELL;
 
-        // S'assurer que le projet est visible au-dessus des cellules
-        projectPane.toFront();
+        if (columnTexel.length != viewWidth) {
+            columnTexel = new int[viewWidth];
+            columnLine = new boolean[viewWidth];
+        }
+        if (rowTexel.length != viewHeight) {
+            rowTexel = new int[viewHeight];
+            rowLine = new boolean[viewHeight];
+        }
+        mapAxis(columnTexel, columnLine, offsetX, width, outlined);
+        mapAxis(rowTexel, rowLine, offsetY, height, outlined);
+    }
+
+    private void mapAxis(int[] texels, boolean[] lines, double offset, int size, boolean outlined) {
+        for (int p = 0; p < texels.length; p++) {
+            int cell = (int) Math.floor(offset + (p + 0.5) / zoom);
+            texels[p] = cell >= 0 && cell < size ? cell >> level : -1;
+            // Dernier pixel d'une cellule : ligne de quadrillage
+            lines[p] = outlined && (int) Math.floor(offset + (p + 1.5) / zoom) != cell;
+        }
     }
 
     /**
-     * Supprime tous les projets de la grille
+     * Écrit un rectangle de pixels de la vue
      */
-    public void clearProjects() {
-        // Conserver uniquement les TreeNodes dans la grille
-        gridPane.getChildren().removeIf(node -> node instanceof ProjectNode);
+    private void writeRect(int x0, int y0, int x1, int y1) {
+        int[] data = pixels.array();
+        for (int y = y0; y < y1; y++) {
+            int ty = rowTexel[y];
+            int base = y * viewWidth;
+            if (ty < 0) {
+                Arrays.fill(data, base + x0, base + x1, CellPalette.BACKGROUND);
+                continue;
+            }
+            boolean line = rowLine[y];
+            int previous = -1;
+            int color = 0;
+            for (int x = x0; x < x1; x++) {
+                int tx = columnTexel[x];
+                if (tx < 0) {
+                    data[base + x] = CellPalette.BACKGROUND;
+                } else if (line || columnLine[x]) {
+                    data[base + x] = CellPalette.GRID_LINE;
+                } else {
+                    // Les pixels voisins lisent souvent le même texel
+                    if (tx != previous) {
+                        color = pyramid.color(level, tx, ty);
+                        previous = tx;
+                    }
+                    data[base + x] = color;
+                }
+            }
+        }
     }
 
     /**
-     * Retourne le panneau de grille
+     * Définit l'action déclenchée par un clic sur une cellule
      */
-    public GridPane getGridPane() {
-        return gridPane;
+    public void setOnCellClicked(CellClickHandler handler) {
+        this.clickHandler = handler;
     }
 
     /**
-     * Retourne la grille de nœuds
+     * Retourne le conteneur graphique de la grille (image et capteurs)
      */
-    public TreeNode[][] getGrid() {
-        return grid;
+    public Pane getView() {
+        return root;
     }
 
     /**
@@ -165,4 +410,11 @@ public class GridView {
     public int getHeight() {
         return height;
     }
+
+    /**
+     * Zoom courant, en pixels par cellule
+     */
+    public double getZoom() {
+        return zoom;
+    }
 }
@@ -0,0 +1,89 @@
+package com.alertfire.ui;
+
+import com.alertfire.log.EventLog;
+import com.alertfire.log.EventType;
+import com.alertfire.metrics.PerformanceMonitor;
+import com.alertfire.metrics.PerformanceMonitor.Phase;
+import com.alertfire.metrics.PerformanceMonitor.Snapshot;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+/**
+ * Panneau des mesures de performance, affiché au-dessus de la grille.
+ *
+ * Une fois par seconde, il prend un instantané du {@link PerformanceMonitor} : cadences,
+ * percentiles de chaque phase, front actif et mémoire. Le même instantané est écrit dans
+ * le journal d'événements ({@link EventType#PERFORMANCE}), que le panneau soit visible ou non.
+ */
+public class PerformanceHud {
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final PerformanceMonitor monitor;
+    private final Label label;
+    private final Timeline timeline;
+    private final StringBuilder text = new StringBuilder(512);
+
+    public PerformanceHud(PerformanceMonitor monitor) {
+        this.monitor = monitor;
+
+        label = new Label();
+        label.setFont(Font.font("Monospaced", 12));
+        label.setStyle("-fx-text-fill: white; -fx-background-color: rgba(0, 0, 0, 0.6);");
+        label.setPadding(new Insets(6));
+        label.setMouseTransparent(true);
+        label.setVisible(false);
+
+        timeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+    }
+
+    /**
+     * Nœud à placer au-dessus de la grille
+     */
+    public Node getNode() {
+        return label;
+    }
+
+    public void setVisible(boolean visible) {
+        label.setVisible(visible);
+    }
+
+    public boolean isVisible() {
+        return label.isVisible();
+    }
+
+    private void refresh() {
+        Snapshot snapshot = monitor.snapshot();
+        snapshot.log(EventLog.getInstance());
+        if (!label.isVisible()) {
+            return;
+        }
+
+        text.setLength(0);
+        text.append(String.format("Étapes/s %7.1f   Images/s %5.1f%n",
+                snapshot.getStepsPerSecond(), snapshot.getFramesPerSecond()));
+        text.append(String.format("Front actif %d cellules%n", snapshot.getActiveFront()));
+        text.append(String.format("%-12s %8s %8s %8s%n", "phase (ms)", "p50", "p95", "p99"));
+        for (Phase phase : Phase.values()) {
+            text.append(String.format("%-12s %8.3f %8.3f %8.3f%n", phase.getLabel(),
+                    millis(snapshot, phase, 50), millis(snapshot, phase, 95), millis(snapshot, phase, 99)));
+        }
+        text.append(String.format("Tas %.0f / %.0f Mo", snapshot.getHeapUsed() / MB, snapshot.getHeapMax() / MB));
+        if (!Double.isNaN(snapshot.getAllocationRate())) {
+            text.append(String.format("   Allocations %.1f Mo/s", snapshot.getAllocationRate() / MB));
+        }
+        label.setText(text.toString());
+    }
+
+    private static double millis(Snapshot snapshot, Phase phase, int percentile) {
+        return snapshot.getPercentile(phase, percentile) / 1e6;
+    }
+}
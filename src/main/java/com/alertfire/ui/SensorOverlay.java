@@ -0,0 +1,260 @@
+package com.alertfire.ui;
+
+import com.alertfire.controller.SimulationFrame;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import java.util.Arrays;
+
+/**
+ * Couche d'affichage de tous les capteurs au-dessus de la grille.
+ *
+ * Les capteurs ne sont pas des nœuds JavaFX : ils sont dessinés d'un seul passage sur un
+ * canevas, groupés par couleur (type et état d'activation) pour ne changer de couleur que
+ * quatre fois. Ce canevas n'est redessiné que si la vue ou l'état des capteurs change.
+ *
+ * Les émissions sont animées sur un second canevas : chaque impulsion est un halo qui
+ * grandit et s'efface en une seconde. L'état des impulsions est gardé dans des tableaux
+ * préalloués, une au plus par capteur (une nouvelle émission relance la sienne) et
+ * {@link #MAX_PULSES} en tout : une rafale d'alertes ne crée aucun objet.
+ */
+public class SensorOverlay {
+
+    private static final int MAX_PULSES = 4096;
+    private static final long PULSE_NANOS = 1_000_000_000L;
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    // En dessous de ce rayon (pixels), les capteurs ne sont pas cerclés de noir
+    private static final double MIN_OUTLINED_RADIUS = 3;
+
+    private static final Color MASTER = Color.PINK;
+    private static final Color MASTER_ACTIVE = Color.rgb(255, 150, 200); // rose plus vif
+    private static final Color SLAVE = Color.LIGHTBLUE;
+    private static final Color SLAVE_ACTIVE = Color.rgb(150, 200, 255);  // bleu plus vif
+    private static final Color HALO = Color.rgb(255, 255, 210);
+
+    private final Pane root;
+    private final Canvas sensorCanvas;
+    private final Canvas pulseCanvas;
+
+    // Vue
+    private double zoom = 1;
+    private double offsetX;
+    private double offsetY;
+    private boolean sensorsChanged = true;
+
+    // Capteurs, recopiés de l'image quand la liste change
+    private long projectVersion = -1;
+    private int count;
+    private int[] rows = new int[0];
+    private int[] cols = new int[0];
+    private boolean[] master = new boolean[0];
+    private boolean[] active = new boolean[0];
+
+    // Impulsions en cours : capteur et début (NOT_STARTED jusqu'au prochain dessin)
+    private final int[] pulseSensor = new int[MAX_PULSES];
+    private final long[] pulseStart = new long[MAX_PULSES];
+    private int pulseCount = 0;
+    private int[] pulseOf = new int[0]; // impulsion de chaque capteur, ou -1
+    private boolean pulsesDrawn = false;
+    private long droppedPulses = 0;
+
+    public SensorOverlay() {
+        sensorCanvas = new Canvas();
+        pulseCanvas = new Canvas();
+        root = new Pane(sensorCanvas, pulseCanvas);
+        root.setMouseTransparent(true);
+        root.setPickOnBounds(false);
+        root.setManaged(false);
+    }
+
+    /**
+     * Nœud à placer au-dessus de la grille
+     */
+    public Node getNode() {
+        return root;
+    }
+
+    public void resize(double width, double height) {
+        root.resize(width, height);
+        sensorCanvas.setWidth(width);
+        sensorCanvas.setHeight(height);
+        pulseCanvas.setWidth(width);
+        pulseCanvas.setHeight(height);
+        sensorsChanged = true;
+    }
+
+    /**
+     * Nouvelle vue : pixels par cellule et cellule au coin supérieur gauche
+     */
+    public void setView(double zoom, double offsetX, double offsetY) {
+        this.zoom = zoom;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        sensorsChanged = true;
+    }
+
+    /**
+     * Reprend l'état des capteurs et les émissions d'une image publiée
+     */
+    public void update(SimulationFrame frame) {
+        int n = frame.getProjectCount();
+        if (frame.getProjectVersion() != projectVersion) {
+            projectVersion = frame.getProjectVersion();
+            if (rows.length < n) {
+                int capacity = Math.max(n, rows.length * 2);
+                rows = Arrays.copyOf(rows, capacity);
+                cols = Arrays.copyOf(cols, capacity);
+                master = Arrays.copyOf(master, capacity);
+                active = Arrays.copyOf(active, capacity);
+                pulseOf = Arrays.copyOf(pulseOf, capacity);
+            }
+            for (int i = 0; i < n; i++) {
+                rows[i] = frame.getProjectRow(i);
+                cols[i] = frame.getProjectCol(i);
+                master[i] = frame.isProjectMaster(i);
+            }
+            count = n;
+            // Les indices ont pu changer de capteur : abandonner les impulsions en cours
+            pulseCount = 0;
+            Arrays.fill(pulseOf, -1);
+            sensorsChanged = true;
+        }
+        for (int i = 0; i < n; i++) {
+            boolean isActive = frame.isProjectActive(i);
+            if (active[i] != isActive) {
+                active[i] = isActive;
+                sensorsChanged = true;
+            }
+        }
+        for (int k = 0; k < frame.getPulseCount(); k++) {
+            startPulse(frame.getPulse(k));
+        }
+    }
+
+    private void startPulse(int sensor) {
+        int slot = pulseOf[sensor];
+        if (slot < 0) {
+            if (pulseCount == MAX_PULSES) {
+                droppedPulses++;
+                return;
+            }
+            slot = pulseCount++;
+            pulseSensor[slot] = sensor;
+            pulseOf[sensor] = slot;
+        }
+        pulseStart[slot] = NOT_STARTED;
+    }
+
+    /**
+     * Dessine ce qui a changé : capteurs si la vue ou leur état a changé, impulsions à chaque appel tant qu'il y en a
+     * @param now Instant de l'image (nanosecondes)
+     */
+    public void draw(long now) {
+        if (sensorsChanged) {
+            sensorsChanged = false;
+            drawSensors();
+        }
+        if (pulseCount > 0 || pulsesDrawn) {
+            drawPulses(now);
+        }
+    }
+
+    private void drawSensors() {
+        GraphicsContext gc = sensorCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, sensorCanvas.getWidth(), sensorCanvas.getHeight());
+        double radius = radius();
+        boolean outlined = radius >= MIN_OUTLINED_RADIUS;
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1.0);
+
+        // Un passage par couleur
+        for (int group = 0; group < 4; group++) {
+            boolean isMaster = group >= 2;
+            boolean isActive = (group & 1) != 0;
+            gc.setFill(isMaster ? (isActive ? MASTER_ACTIVE : MASTER) : (isActive ? SLAVE_ACTIVE : SLAVE));
+            for (int i = 0; i < count; i++) {
+                if (master[i] != isMaster || active[i] != isActive) {
+                    continue;
+                }
+                double x = (cols[i] + 0.5 - offsetX) * zoom;
+                double y = (rows[i] + 0.5 - offsetY) * zoom;
+                if (!isVisible(x, y, radius)) {
+                    continue;
+                }
+                gc.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+                if (outlined) {
+                    gc.strokeOval(x - radius, y - radius, 2 * radius, 2 * radius);
+                }
+            }
+        }
+    }
+
+    private void drawPulses(long now) {
+        GraphicsContext gc = pulseCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, pulseCanvas.getWidth(), pulseCanvas.getHeight());
+        double radius = radius();
+        gc.setFill(HALO);
+
+        int k = 0;
+        while (k < pulseCount) {
+            if (pulseStart[k] == NOT_STARTED) {
+                pulseStart[k] = now;
+            }
+            double progress = (double) (now - pulseStart[k]) / PULSE_NANOS;
+            if (progress >= 1) {
+                removePulse(k);
+                continue;
+            }
+            int sensor = pulseSensor[k];
+            double x = (cols[sensor] + 0.5 - offsetX) * zoom;
+            double y = (rows[sensor] + 0.5 - offsetY) * zoom;
+            double halo = radius * (1 + 2 * progress);
+            if (isVisible(x, y, halo)) {
+                gc.setGlobalAlpha(0.8 * (1 - progress));
+                gc.fillOval(x - halo, y - halo, 2 * halo, 2 * halo);
+            }
+            k++;
+        }
+        gc.setGlobalAlpha(1.0);
+        pulsesDrawn = pulseCount > 0;
+    }
+
+    /**
+     * Retire une impulsion terminée en la remplaçant par la dernière
+     */
+    private void removePulse(int slot) {
+        pulseOf[pulseSensor[slot]] = -1;
+        int last = --pulseCount;
+        if (slot != last) {
+            pulseSensor[slot] = pulseSensor[last];
+            pulseStart[slot] = pulseStart[last];
+            pulseOf[pulseSensor[slot]] = slot;
+        }
+    }
+
+    private double radius() {
+        return Math.max(2, zoom / 2);
+    }
+
+    private boolean isVisible(double x, double y, double radius) {
+        return x > -radius && x < sensorCanvas.getWidth() + radius
+                && y > -radius && y < sensorCanvas.getHeight() + radius;
+    }
+
+    /**
+     * Nombre d'impulsions en cours d'animation
+     */
+    public int getPulseCount() {
+        return pulseCount;
+    }
+
+    /**
+     * Émissions non animées parce que toutes les impulsions étaient occupées
+     */
+    public long getDroppedPulses() {
+        return droppedPulses;
+    }
+}
@@ -1,21 +1,30 @@
 package com.alertfire.ui;
 
 import com.alertfire.controller.SimulationController;
-import com.alertfire.model.TreeNode;
 import com.alertfire.model.enums.NodeState;
 import com.alertfire.model.enums.ProjectType;
+import com.alertfire.scenario.ScenarioFile;
 import com.alertfire.simulation.PropagationFactory;
 
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.nio.file.Path;
 
 /**
- * Interface utilisateur pour contrôler la simulation
+ * Interface utilisateur pour contrôler la simulation.
+ *
+ * Les actions sont transmises au contrôleur, qui les exécute sur le thread de simulation :
+ * leur effet apparaît avec l'image suivante.
  */
 public class SimulationMenu {
 
@@ -23,6 +32,7 @@ public class SimulationMenu {
     private BorderPane root;
     private GridView gridView;
     private Label statusLabel;
+    private PerformanceHud performanceHud;
     private ToggleGroup toolGroup;
     private NodeState currentAction = NodeState.EMPTY;
     private ProjectType projectType = ProjectType.SLAVE;
@@ -31,6 +41,8 @@ public class SimulationMenu {
     public SimulationMenu(SimulationController controller) {
         this.controller = controller;
         this.gridView = controller.getGridView();
+        this.performanceHud = new PerformanceHud(controller.getPerformanceMonitor());
+        performanceHud.setVisible(controller.getConfig().isPerformanceHud());
 
         root = new BorderPane();
 
@@ -55,8 +67,11 @@ public class SimulationMenu {
         toolbarContainer.getChildren().addAll(mainToolbar, cellToolbar, weatherToolbar);
         root.setTop(toolbarContainer);
 
-        // Ajouter la grille au centre
-        root.setCenter(gridView.getGridPane());
+        // Ajouter la grille au centre, avec les mesures de performance par-dessus
+        StackPane center = new StackPane(gridView.getView(), performanceHud.getNode());
+        StackPane.setAlignment(performanceHud.getNode(), Pos.TOP_LEFT);
+        StackPane.setMargin(performanceHud.getNode(), new Insets(8));
+        root.setCenter(center);
 
         root.setBottom(statusBar);
 
@@ -68,47 +83,33 @@ public class SimulationMenu {
      * Configure les événements de clic sur la grille
      */
     private void setupGridClickEvents() {
-        // Récupérer toutes les cellules de la grille
-        TreeNode[][] grid = gridView.getGrid();
-
-        for (int row = 0; row < grid.length; row++) {
-            for (int col = 0; col < grid[0].length; col++) {
-                TreeNode node = grid[row][col];
-                final int r = row;
-                final int c = col;
-
-                // Ajouter un gestionnaire d'événements de clic pour chaque cellule
-                node.setOnMouseClicked(e -> {
-                    if (placingProject) {
-                        // Placement d'un projet (maître ou esclave)
-                        controller.addProject(r, c, projectType);
-                        updateStatus("Projet " + projectType + " ajouté en position (" + r + "," + c + ")");
-                    } else {
-                        // Modification de l'état de la cellule
-                        switch (currentAction) {
-                            case EMPTY:
-                                node.setState(NodeState.EMPTY);
-                                updateStatus("Cellule vidée en position (" + r + "," + c + ")");
-                                break;
-                            case TREE:
-                                node.setState(NodeState.TREE);
-                                updateStatus("Arbre ajouté en position (" + r + "," + c + ")");
-                                break;
-                            case BURNING:
-                                if (node.getState() == NodeState.TREE) {
-                                    controller.startFire(r, c);
-                                    updateStatus("Feu démarré en position (" + r + "," + c + ")");
-                                } else {
-                                    updateStatus("Impossible de démarrer un feu ici - besoin d'un arbre");
-                                }
-                                break;
-                            default:
-                                break;
-                        }
-                    }
-                });
+        // Un seul gestionnaire pour toute la grille : la vue fournit la cellule cliquée
+        gridView.setOnCellClicked((r, c) -> {
+            if (placingProject) {
+                // Placement d'un projet (maître ou esclave)
+                controller.addProject(r, c, projectType);
+                updateStatus("Projet " + projectType + " ajouté en position (" + r + "," + c + ")");
+            } else {
+                // Modification de l'état de la cellule
+                switch (currentAction) {
+                    case EMPTY:
+                        controller.setCellState(r, c, NodeState.EMPTY);
+                        updateStatus("Cellule vidée en position (" + r + "," + c + ")");
+                        break;
+                    case TREE:
+                        controller.setCellState(r, c, NodeState.TREE);
+                        updateStatus("Arbre ajouté en position (" + r + "," + c + ")");
+                        break;
+                    case BURNING:
+                        // Sans arbre à cet endroit, le contrôleur refuse l'allumage
+                        controller.startFire(r, c);
+                        updateStatus("Allumage demandé en position (" + r + "," + c + ")");
+                        break;
+                    default:
+                        break;
+                }
             }
-        }
+        });
     }
 
     /**
@@ -174,12 +175,51 @@ public class SimulationMenu {
                             " (propagation limitée, combustion lente)"));
         });
 
+        // Export des latences de détection de l'exécution
+        Button latencyBtn = new Button("Exporter latences");
+        latencyBtn.setOnAction(e -> {
+            Path path = Path.of("latences-" + System.currentTimeMillis() + ".csv");
+            controller.exportLatencyReport(path);
+            updateStatus("Latences exportées dans " + path);
+        });
+
+        // Scénarios : grille, projets et météo dans un fichier binaire
+        Button openScenarioBtn = new Button("Ouvrir scénario");
+        openScenarioBtn.setOnAction(e -> {
+            File file = createScenarioChooser().showOpenDialog(root.getScene().getWindow());
+            if (file != null) {
+                updateStatus("Chargement du scénario " + file.getName() + "...");
+                controller.loadScenario(file.toPath(), (success, message) -> updateStatus(message));
+            }
+        });
+
+        Button saveScenarioBtn = new Button("Enregistrer scénario");
+        saveScenarioBtn.setOnAction(e -> {
+            File file = createScenarioChooser().showSaveDialog(root.getScene().getWindow());
+            if (file != null) {
+                updateStatus("Enregistrement du scénario " + file.getName() + "...");
+                controller.saveScenario(file.toPath(), (success, message) -> updateStatus(message));
+            }
+        });
+
+        // Affichage des mesures de performance
+        ToggleButton hudBtn = new ToggleButton("Performances");
+        hudBtn.setSelected(performanceHud.isVisible());
+        hudBtn.setOnAction(e -> {
+            performanceHud.setVisible(hudBtn.isSelected());
+            updateStatus(hudBtn.isSelected() ? "Mesures de performance affichées" : "Mesures de performance masquées");
+        });
+
         toolbar.getItems().addAll(
                 playBtn, pauseBtn, stopBtn, stepBtn, resetBtn,
                 new Separator(),
                 densityLabel, densitySlider, generateBtn,
                 new Separator(),
-                strategyLabel, strategyCombo
+                strategyLabel, strategyCombo,
+                new Separator(),
+                openScenarioBtn, saveScenarioBtn,
+                new Separator(),
+                latencyBtn, hudBtn
         );
 
         return toolbar;
@@ -220,10 +260,33 @@ public class SimulationMenu {
             updateStatus("Placement d'un projet maître");
         });
 
+        // Placement automatique selon un budget de maîtres et d'esclaves
+        Spinner<Integer> masterBudget = new Spinner<>(0, 10000, 2);
+        masterBudget.setEditable(true);
+        masterBudget.setPrefWidth(80);
+        Spinner<Integer> slaveBudget = new Spinner<>(0, 100000, 8);
+        slaveBudget.setEditable(true);
+        slaveBudget.setPrefWidth(90);
+
+        Button optimizeBtn = new Button("Placement optimisé");
+        optimizeBtn.setOnAction(e -> {
+            updateStatus("Placement optimisé en cours...");
+            controller.optimizePlacement(masterBudget.getValue(), slaveBudget.getValue(), (placements, optimizer) -> {
+                double coverage = optimizer.getTreeCount() == 0 ? 0 :
+                        100.0 * optimizer.getCoveredTrees() / optimizer.getTreeCount();
+                updateStatus(placements.size() + " projets placés, couverture des arbres: " +
+                        String.format("%.1f", coverage) + "%");
+            });
+        });
+
         toolbar.getItems().addAll(
                 emptyBtn, treeBtn, fireBtn,
                 new Separator(),
-                slaveBtn, masterBtn
+                slaveBtn, masterBtn,
+                new Separator(),
+                new Label("Maîtres:"), masterBudget,
+                new Label("Esclaves:"), slaveBudget,
+                optimizeBtn
         );
 
         return toolbar;
@@ -270,17 +333,35 @@ public class SimulationMenu {
             updateStatus("Retour à l'état précédent");
         });
 
+        // Bouton pour revoir toute la grille après un zoom
+        Button fitButton = new Button("Vue entière");
+        fitButton.setOnAction(e -> {
+            gridView.fitToView();
+            updateStatus("Zoom: " + String.format("%.2f", gridView.getZoom()) + " pixels par cellule");
+        });
+
         toolbar.getItems().addAll(
                 windSpeedLabel, windSpeedSlider,
                 new Separator(),
                 windDirLabel, windDirSlider,
                 new Separator(),
-                backButton
+                backButton, fitButton
         );
 
         return toolbar;
     }
 
+    /**
+     * Crée un sélecteur de fichiers de scénario
+     */
+    private FileChooser createScenarioChooser() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Scénario");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Scénario AlertFire", "*." + ScenarioFile.EXTENSION));
+        return chooser;
+    }
+
     /**
      * Crée un bouton d'outil avec une couleur indicative
      */
@@ -0,0 +1,191 @@
+package com.alertfire.ui;
+
+import com.alertfire.model.TreeNode;
+import com.alertfire.model.enums.NodeState;
+
+import java.util.Arrays;
+
+/**
+ * Pyramide multi-résolution de l'état de la grille, pour l'affichage à toutes les échelles.
+ *
+ * Le niveau 0 garde le code ({@link CellPalette#codeOf}) de chaque cellule. Chaque niveau
+ * suivant divise la résolution par deux : un texel y résume 2 × 2 texels du niveau inférieur
+ * par l'intensité maximale du feu et les parts d'arbres et de cellules brûlées. Un
+ * changement de cellule ne remonte que le long de ses ancêtres, et s'arrête au premier
+ * résumé inchangé.
+ *
+ * Chaque niveau est découpé en tuiles de 64 × 64 texels, marquées quand leur contenu change :
+ * la vue ne redessine que les tuiles visibles modifiées au niveau qu'elle affiche.
+ */
+public class TilePyramid {
+
+    public static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    // Résumé d'un texel : feu (0 sans feu, sinon 1 + intensité) << 16 | arbres << 8 | brûlé
+    private static final int[] CODE_SUMMARY = new int[NodeState.values().length * TreeNode.INTENSITY_LEVELS];
+
+    static {
+        for (int code = 0; code < CODE_SUMMARY.length; code++) {
+            NodeState state = CellPalette.stateOf(code);
+            int fire = state == NodeState.BURNING ? 1 + CellPalette.intensityOf(code) : 0;
+            int trees = state == NodeState.TREE ? 255 : 0;
+            int burnt = state == NodeState.BURNT ? 255 : 0;
+            CODE_SUMMARY[code] = fire << 16 | trees << 8 | burnt;
+        }
+    }
+
+    private final int levelCount;
+    private final int[] widths;
+    private final int[] heights;
+    private final byte[] cells;
+    private final int[][] summaries;
+    private final int[] tilesAcross;
+    private final long[][] dirtyTiles;
+
+    public TilePyramid(int width, int height) {
+        // Des niveaux jusqu'à ce que le plus grossier tienne dans une tuile
+        int count = 1;
+        for (int w = width, h = height; Math.max(w, h) > TILE_SIZE; w = (w + 1) >> 1, h = (h + 1) >> 1) {
+            count++;
+        }
+        levelCount = count;
+        widths = new int[count];
+        heights = new int[count];
+        summaries = new int[count][];
+        tilesAcross = new int[count];
+        dirtyTiles = new long[count][];
+
+        int w = width;
+        int h = height;
+        for (int k = 0; k < count; k++) {
+            widths[k] = w;
+            heights[k] = h;
+            if (k > 0) {
+                summaries[k] = new int[w * h];
+            }
+            tilesAcross[k] = (w + TILE_SIZE - 1) >> TILE_SHIFT;
+            int tilesDown = (h + TILE_SIZE - 1) >> TILE_SHIFT;
+            dirtyTiles[k] = new long[(tilesAcross[k] * tilesDown + 63) >>> 6];
+            w = (w + 1) >> 1;
+            h = (h + 1) >> 1;
+        }
+        cells = new byte[width * height];
+    }
+
+    /**
+     * Remplace toute la grille et recalcule tous les niveaux
+     * @param codes Code de chaque cellule, ligne par ligne
+     */
+    public void setAll(byte[] codes) {
+        System.arraycopy(codes, 0, cells, 0, cells.length);
+        for (int k = 1; k < levelCount; k++) {
+            int[] level = summaries[k];
+            for (int y = 0; y < heights[k]; y++) {
+                for (int x = 0; x < widths[k]; x++) {
+                    level[y * widths[k] + x] = summarize(k, x, y);
+                }
+            }
+        }
+        for (long[] tiles : dirtyTiles) {
+            Arrays.fill(tiles, -1L);
+        }
+    }
+
+    /**
+     * Change le code d'une cellule et met à jour ses ancêtres
+     * @param cell Indice de la cellule ({@code row * width + col})
+     */
+    public void set(int cell, int code) {
+        if (cells[cell] == (byte) code) {
+            return;
+        }
+        cells[cell] = (byte) code;
+        int y = cell / widths[0];
+        int x = cell - y * widths[0];
+        markTile(0, x, y);
+        for (int k = 1; k < levelCount; k++) {
+            x >>= 1;
+            y >>= 1;
+            int summary = summarize(k, x, y);
+            int index = y * widths[k] + x;
+            if (summaries[k][index] == summary) {
+                return;
+            }
+            summaries[k][index] = summary;
+            markTile(k, x, y);
+        }
+    }
+
+    /**
+     * Résume les (jusqu'à) quatre texels du niveau inférieur couverts par un texel
+     */
+    private int summarize(int level, int x, int y) {
+        int below = level - 1;
+        int width = widths[below];
+        int xEnd = Math.min(2 * x + 2, width);
+        int yEnd = Math.min(2 * y + 2, heights[below]);
+        int fire = 0;
+        int trees = 0;
+        int burnt = 0;
+        int n = 0;
+        for (int cy = 2 * y; cy < yEnd; cy++) {
+            for (int cx = 2 * x; cx < xEnd; cx++) {
+                int child = below == 0 ? CODE_SUMMARY[cells[cy * width + cx]] : summaries[below][cy * width + cx];
+                fire = Math.max(fire, child >>> 16);
+                trees += (child >> 8) & 0xFF;
+                burnt += child & 0xFF;
+                n++;
+            }
+        }
+        return fire << 16 | ((trees + n / 2) / n) << 8 | ((burnt + n / 2) / n);
+    }
+
+    /**
+     * Couleur d'un texel
+     */
+    public int color(int level, int x, int y) {
+        if (level == 0) {
+            return CellPalette.colorOfCode(cells[y * widths[0] + x]);
+        }
+        int summary = summaries[level][y * widths[level] + x];
+        return CellPalette.colorOfZone((summary >>> 16) - 1, (summary >> 8) & 0xFF, summary & 0xFF);
+    }
+
+    private void markTile(int level, int x, int y) {
+        int tile = (y >> TILE_SHIFT) * tilesAcross[level] + (x >> TILE_SHIFT);
+        dirtyTiles[level][tile >>> 6] |= 1L << tile;
+    }
+
+    /**
+     * Vrai si la tuile a changé depuis qu'elle a été effacée
+     */
+    public boolean isTileDirty(int level, int tileX, int tileY) {
+        int tile = tileY * tilesAcross[level] + tileX;
+        return (dirtyTiles[level][tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    public void clearTile(int level, int tileX, int tileY) {
+        int tile = tileY * tilesAcross[level] + tileX;
+        dirtyTiles[level][tile >>> 6] &= ~(1L << tile);
+    }
+
+    /**
+     * Efface les marques de toutes les tuiles d'un niveau (après l'avoir redessiné entièrement)
+     */
+    public void clearTiles(int level) {
+        Arrays.fill(dirtyTiles[level], 0);
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getLevelWidth(int level) {
+        return widths[level];
+    }
+
+    public int getLevelHeight(int level) {
+        return heights[level];
+    }
+}
@@ -0,0 +1,126 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regroupement des alertes feu : première alerte transmise, suivantes résumées une fois par fenêtre
+ */
+class AlertAggregatorTest {
+
+    private static final int CLUSTER = 10;
+    private static final double WINDOW = 30.0;
+
+    private final AlertAggregator aggregator = new AlertAggregator(CLUSTER, WINDOW);
+    private final List<String> summaries = new ArrayList<>();
+    private final UUID hottest = UUID.randomUUID();
+
+    @Test
+    void firstAlertPassesThroughAndLaterOnesAreAbsorbed() {
+        assertFalse(aggregator.absorb(alert(UUID.randomUUID(), 1, 12, 15, 80, 2000, 10.0)));
+        assertTrue(aggregator.absorb(alert(hottest, 2, 14, 18, 120, 3000, 12.0)));
+        assertTrue(aggregator.absorb(alert(UUID.randomUUID(), 3, 19, 11, 100, 1000, 15.0)));
+        // Zone voisine : sa propre première alerte passe
+        assertFalse(aggregator.absorb(alert(UUID.randomUUID(), 4, 12, 25, 90, 2000, 16.0)));
+        // Les mesures sans feu ne sont jamais regroupées
+        assertFalse(aggregator.absorb(TestFrames.message(UUID.randomUUID(), 12, 15, 20, 400, false, 17.0)));
+
+        assertEquals(2, aggregator.getActiveCount());
+        assertEquals(2, aggregator.getAbsorbedCount());
+    }
+
+    @Test
+    void emitsExactlyOneSummaryPerWindow() {
+        aggregator.absorb(alert(UUID.randomUUID(), 1, 12, 15, 80, 2000, 10.0));
+        aggregator.absorb(alert(hottest, 2, 14, 18, 120, 3000, 12.0));
+        aggregator.absorb(alert(UUID.randomUUID(), 3, 19, 11, 100, 1000, 15.0));
+        aggregator.absorb(alert(UUID.randomUUID(), 2, 13, 13, 90, 2000, 16.0));
+
+        aggregator.flush(10.0 + WINDOW - 0.1, this::collect);
+        assertTrue(summaries.isEmpty());
+
+        aggregator.flush(10.0 + WINDOW, this::collect);
+        aggregator.flush(10.0 + WINDOW + 5.0, this::collect);
+
+        assertEquals(List.of("1,1 " + hottest + " 10.0-16.0 alerts=4 devices=3 ids=[1, 2, 3] t=120.0/97.5 co2=3000/2000"),
+                summaries);
+        assertEquals(1, aggregator.getSummaryCount());
+        assertEquals(0, aggregator.getActiveCount());
+
+        // La zone est libérée : une nouvelle fenêtre s'ouvre sur une alerte transmise
+        assertFalse(aggregator.absorb(alert(UUID.randomUUID(), 5, 12, 15, 80, 2000, 50.0)));
+    }
+
+    @Test
+    void lonelyFirstAlertClosesWithoutSummary() {
+        aggregator.absorb(alert(UUID.randomUUID(), 1, 12, 15, 80, 2000, 10.0));
+
+        aggregator.flush(100.0, this::collect);
+
+        assertTrue(summaries.isEmpty());
+        assertEquals(0, aggregator.getSummaryCount());
+        assertEquals(0, aggregator.getActiveCount());
+    }
+
+    @Test
+    void flushAllSummarisesEveryOpenZone() {
+        for (int zone = 0; zone < 3; zone++) {
+            int row = zone * CLUSTER;
+            aggregator.absorb(alert(UUID.randomUUID(), 1, row, 0, 80, 2000, 10.0));
+            aggregator.absorb(alert(hottest, 2, row + 1, 1, 90, 2000, 11.0));
+        }
+
+        aggregator.flushAll(this::collect);
+
+        assertEquals(3, summaries.size());
+        assertEquals(3, aggregator.getSummaryCount());
+        assertEquals(0, aggregator.getActiveCount());
+    }
+
+    @Test
+    void clearDropsOpenZonesWithoutSummary() {
+        aggregator.absorb(alert(UUID.randomUUID(), 1, 12, 15, 80, 2000, 10.0));
+        aggregator.absorb(alert(hottest, 2, 14, 18, 120, 3000, 12.0));
+
+        aggregator.clear();
+        aggregator.flushAll(this::collect);
+
+        assertTrue(summaries.isEmpty());
+        assertEquals(0, aggregator.getActiveCount());
+        assertFalse(aggregator.absorb(alert(UUID.randomUUID(), 1, 12, 15, 80, 2000, 20.0)));
+    }
+
+    private static LoRaMessage alert(UUID uuid, int deviceId, int row, int col, double temperature, double co2,
+                                     double time) {
+        LoRaMessage message = TestFrames.message(uuid, row, col, temperature, co2, true, time);
+        message.setSource(deviceId, 0, false);
+        return message;
+    }
+
+    /**
+     * Recopie le résumé, réutilisé par l'agrégateur d'un appel à l'autre
+     */
+    private void collect(AlertSummary summary) {
+        List<Integer> ids = new ArrayList<>();
+        for (int k = 0; k < summary.getListedCount(); k++) {
+            ids.add(summary.getDeviceId(k));
+        }
+        summaries.add(summary.getClusterRow() + "," + summary.getClusterCol()
+                + " " + summary.getHottestDevice()
+                + " " + summary.getWindowStartTenths() / 10.0 + "-" + summary.getWindowEndTenths() / 10.0
+                + " alerts=" + summary.getAlertCount()
+                + " devices=" + summary.getDeviceCount()
+                + " ids=" + ids
+                + " t=" + summary.getMaxTemperature() + "/" + summary.getMeanTemperature()
+                + " co2=" + summary.getMaxCO2() + "/" + summary.getMeanCO2());
+    }
+}
@@ -0,0 +1,115 @@
+package com.alertfire.communication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.alertfire.communication.TestFrames.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Journal persistant des alertes : ordre, segment préparé en arrière-plan et compaction
+ */
+class AlertOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID uuid = UUID.randomUUID();
+    private final ByteBuffer frame = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+
+    @Test
+    void keepsFireAlertsInOrderWhileTheNextSegmentIsPrepared() throws Exception {
+        AlertOutbox outbox = new AlertOutbox(directory, 2, 32);
+        try {
+            // Sans attendre le segment suivant : les alertes en trop attendent en mémoire
+            for (int sequence = 0; sequence < 7; sequence++) {
+                assertTrue(append(outbox, sequence, true));
+            }
+            assertEquals(7, outbox.getPendingCount());
+
+            List<Integer> read = drain(outbox, 7);
+            assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), read);
+            assertEquals(0, outbox.getPendingCount());
+        } finally {
+            outbox.close();
+        }
+    }
+
+    @Test
+    void refusesTelemetryNearTheLimitAndCompactsInTheBackground() throws Exception {
+        AlertOutbox outbox = new AlertOutbox(directory, 4, 4);
+        try {
+            // Trois segments de mesures et d'alertes feu alternées
+            for (int sequence = 0; sequence < 12; sequence++) {
+                if (sequence % 4 == 0 && sequence > 0) {
+                    await(outbox::isSpareReady);
+                }
+                boolean fire = sequence % 2 == 1;
+                boolean accepted = append(outbox, sequence, fire);
+                // Une fois le troisième segment ouvert, la limite moins un est atteinte : mesures refusées
+                assertEquals(fire || sequence < 10, accepted, "alerte " + sequence);
+            }
+            assertEquals(1, outbox.getRefusedCount());
+
+            // Le segment fermé non lu ne garde que ses alertes feu
+            await(() -> outbox.getCompactedCount() == 2);
+            List<Integer> read = drain(outbox, 9);
+            assertEquals(List.of(0, 1, 2, 3, 5, 7, 8, 9, 11), read);
+        } finally {
+            outbox.close();
+        }
+    }
+
+    @Test
+    void resumesUnacknowledgedAlertsAfterARestart() throws Exception {
+        AlertOutbox outbox = new AlertOutbox(directory, 4, 32);
+        for (int sequence = 0; sequence < 3; sequence++) {
+            assertTrue(append(outbox, sequence, sequence == 1));
+        }
+        assertEquals(1, outbox.read(1, (kind, payload) -> { }));
+        outbox.acknowledge(1);
+        outbox.close();
+
+        AlertOutbox reopened = new AlertOutbox(directory, 4, 32);
+        try {
+            assertEquals(2, reopened.getPendingCount());
+            assertEquals(List.of(1, 2), drain(reopened, 2));
+        } finally {
+            reopened.close();
+        }
+        assertFalse(reopened.append(uuid, frame, true));
+    }
+
+    private boolean append(AlertOutbox outbox, int sequence, boolean fire) {
+        TestFrames.encode(TestFrames.message(uuid, 1, 2, fire ? 90 : 20, 400, fire, sequence), 3, sequence, false, frame);
+        return outbox.append(uuid, frame, fire);
+    }
+
+    /**
+     * Lit et acquitte les alertes jusqu'à en avoir lu {@code expected}, en recopiant celles en attente
+     * @return Numéros de séquence lus, dans l'ordre
+     */
+    private static List<Integer> drain(AlertOutbox outbox, int expected) {
+        List<Integer> sequences = new ArrayList<>();
+        LoRaFrame decoded = new LoRaFrame();
+        await(() -> {
+            outbox.flushPending();
+            int count = outbox.read(16, (kind, payload) -> {
+                payload.position(payload.position() + 16); // UUID
+                LoRaFrameCodec.decode(payload, decoded);
+                sequences.add(decoded.getSequence());
+            });
+            outbox.acknowledge(count);
+            return sequences.size() >= expected;
+        });
+        return sequences;
+    }
+}
@@ -0,0 +1,113 @@
+package com.alertfire.communication;
+
+import com.alertfire.backend.EmbeddedBackend;
+import com.alertfire.config.SimulationConfig;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static com.alertfire.communication.TestFrames.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Liaison backend face au backend local, avec injection d'erreurs
+ */
+class BackendUplinkTest {
+
+    @TempDir
+    Path outboxDirectory;
+
+    private EmbeddedBackend backend;
+    private BackendUplink uplink;
+    private final UUID uuid = UUID.randomUUID();
+    private final ByteBuffer frame = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+    private int sequence = 0;
+
+    @BeforeEach
+    void start() throws Exception {
+        backend = new EmbeddedBackend(URI.create("http://localhost:0/api/receive-alert"), 2);
+        backend.start();
+
+        SimulationConfig config = new SimulationConfig();
+        config.setOutboxDirectory(outboxDirectory.toString());
+        config.setUplinkBatchWindowMs(5);
+        config.setUplinkMaxBatchSize(16);
+        uplink = new BackendUplink(backend.getUrl(), config);
+        uplink.start();
+    }
+
+    @AfterEach
+    void stop() {
+        uplink.shutdown();
+        backend.stop();
+    }
+
+    @Test
+    void deliversAndAcknowledgesAlerts() {
+        for (int i = 0; i < 40; i++) {
+            assertTrue(offer(i % 5 == 0));
+        }
+
+        await(() -> uplink.getSentAlerts() == 40);
+        assertEquals(40, backend.getAlertCount());
+        assertEquals(0, uplink.getQueueDepth());
+        assertEquals(0, uplink.getRejectedAlerts());
+    }
+
+    @Test
+    void retriesServerErrorsUntilTheBackendRecovers() {
+        backend.setErrorRate(1.0);
+        offer(true);
+        offer(false);
+
+        await(() -> uplink.getRetries() > 0);
+        assertEquals(0, uplink.getSentAlerts());
+        assertEquals(2, uplink.getQueueDepth());
+
+        backend.setErrorRate(0.0);
+        await(() -> uplink.getSentAlerts() == 2);
+        assertEquals(2, backend.getAlertCount());
+        assertEquals(0, uplink.getRejectedAlerts());
+    }
+
+    @Test
+    void dropsBatchesRejectedByTheBackendWithoutBlockingLaterAlerts() {
+        backend.setErrorStatus(400);
+        backend.setErrorRate(1.0);
+        offer(true);
+
+        await(() -> uplink.getRejectedAlerts() == 1);
+        assertEquals(0, uplink.getQueueDepth());
+        assertEquals(0, uplink.getRetries());
+
+        backend.setErrorRate(0.0);
+        offer(true);
+        await(() -> uplink.getSentAlerts() == 1);
+        assertEquals(1, backend.getAlertCount());
+    }
+
+    @Test
+    void classifiesRetryableStatuses() {
+        assertTrue(BackendUplink.isRetryable(500));
+        assertTrue(BackendUplink.isRetryable(503));
+        assertTrue(BackendUplink.isRetryable(408));
+        assertTrue(BackendUplink.isRetryable(429));
+        assertFalse(BackendUplink.isRetryable(400));
+        assertFalse(BackendUplink.isRetryable(413));
+    }
+
+    private boolean offer(boolean fire) {
+        TestFrames.encode(TestFrames.message(uuid, 3, 4, fire ? 95.0 : 21.5, fire ? 2500 : 410, fire, sequence),
+                7, sequence++, false, frame);
+        return uplink.offer(uuid, frame, fire);
+    }
+}
@@ -0,0 +1,118 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.alertfire.communication.TestFrames.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bus d'événements LoRa : capacité, abonné dépassé et lecture pendant la publication
+ */
+class LoRaEventBusTest {
+
+    private final UUID uuid = UUID.randomUUID();
+
+    @Test
+    void roundsTheCapacityUpToAPowerOfTwo() {
+        assertEquals(2, new LoRaEventBus(1).getCapacity());
+        assertEquals(2, new LoRaEventBus(2).getCapacity());
+        assertEquals(4, new LoRaEventBus(3).getCapacity());
+        assertEquals(64, new LoRaEventBus(64).getCapacity());
+        assertEquals(128, new LoRaEventBus(65).getCapacity());
+    }
+
+    @Test
+    void stalledSubscriberSkipsToTheOldestMessageStillPresent() throws Exception {
+        LoRaEventBus bus = new LoRaEventBus(16);
+        int capacity = bus.getCapacity();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> received = new ArrayList<>();
+
+        LoRaEventBus.Subscription subscription = bus.subscribe("test", message -> {
+            received.add(sequenceOf(message));
+            if (received.size() == 1) {
+                entered.countDown();
+                awaitLatch(release);
+            }
+        });
+        try {
+            bus.publish(message(0));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            // L'abonné est bloqué sur le premier message : le publicateur fait trois tours
+            for (int i = 1; i <= 3 * capacity; i++) {
+                bus.publish(message(i));
+            }
+            release.countDown();
+
+            long published = bus.getPublishedCount();
+            await(() -> subscription.getProcessedCount() + subscription.getSkippedCount() == published);
+            assertEquals(2L * capacity, subscription.getSkippedCount());
+            assertEquals(1L + capacity, subscription.getProcessedCount());
+            assertEquals(0, subscription.getLag());
+            assertStrictlyIncreasing(received);
+            assertEquals(published - 1, (long) received.get(received.size() - 1));
+        } finally {
+            subscription.close();
+        }
+    }
+
+    @Test
+    void slowSubscriberNeverSeesDuplicatesWhileThePublisherRuns() {
+        LoRaEventBus bus = new LoRaEventBus(8);
+        List<Long> received = new ArrayList<>();
+        LoRaEventBus.Subscription subscription = bus.subscribe("lent", message -> {
+            received.add(sequenceOf(message));
+            if (received.size() % 16 == 0) {
+                LockSupport.parkNanos(50_000);
+            }
+        });
+        try {
+            // Publication concurrente : des emplacements sont écrasés pendant leur lecture
+            for (int i = 0; i < 200_000; i++) {
+                bus.publish(message(i));
+            }
+
+            long published = bus.getPublishedCount();
+            await(() -> subscription.getProcessedCount() + subscription.getSkippedCount() == published);
+            assertEquals(subscription.getProcessedCount(), received.size());
+            assertStrictlyIncreasing(received);
+            assertEquals(published - 1, (long) received.get(received.size() - 1));
+        } finally {
+            subscription.close();
+        }
+    }
+
+    private LoRaMessage message(long sequence) {
+        return TestFrames.message(uuid, 0, 0, 20, 400, false, sequence);
+    }
+
+    private static long sequenceOf(LoRaMessage message) {
+        return (long) message.getSimulationTime();
+    }
+
+    private static void assertStrictlyIncreasing(List<Long> sequences) {
+        for (int k = 1; k < sequences.size(); k++) {
+            assertTrue(sequences.get(k) > sequences.get(k - 1),
+                    "message " + sequences.get(k) + " reçu après " + sequences.get(k - 1));
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
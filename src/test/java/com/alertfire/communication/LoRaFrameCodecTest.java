@@ -0,0 +1,154 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Codage binaire des trames LoRa
+ */
+class LoRaFrameCodecTest {
+
+    private static final UUID UUID_A = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Test
+    void roundTripKeepsEveryField() {
+        LoRaMessage message = message(12, 34, 21.5, 415, true, 123.4);
+        message.incrementHopCount();
+        message.incrementHopCount();
+
+        LoRaFrame frame = roundTrip(message, 0xABCDEF, 0x1234, true);
+
+        assertEquals(0xABCDEF, frame.getDeviceId());
+        assertEquals(0x1234, frame.getSequence());
+        assertTrue(frame.isFireDetected());
+        assertTrue(frame.isMaster());
+        assertEquals(215, frame.getTemperatureTenths());
+        assertEquals(415, frame.getCO2Level());
+        assertEquals(12, frame.getRow());
+        assertEquals(34, frame.getCol());
+        assertEquals(1234, frame.getSimulationTimeTenths());
+        assertEquals(2, frame.getHopCount());
+    }
+
+    @Test
+    void reEncodingADecodedFrameGivesTheSameBytes() {
+        ByteBuffer first = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+        LoRaFrameCodec.encode(message(7, 9, -3.2, 600, false, 5.0), 42, 65535, false, first);
+        first.flip();
+        LoRaFrame frame = new LoRaFrame();
+        LoRaFrameCodec.decode(first.duplicate(), frame);
+
+        ByteBuffer second = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE);
+        LoRaFrameCodec.encode(frame, second);
+        second.flip();
+
+        assertEquals(first, second);
+        assertFalse(frame.isFireDetected());
+        assertFalse(frame.isMaster());
+    }
+
+    @Test
+    void quantisesToTenthsAndWholePpm() {
+        LoRaFrame frame = roundTrip(message(0, 0, 21.46, 410.6, false, 12.34), 1, 0, false);
+
+        assertEquals(215, frame.getTemperatureTenths());
+        assertEquals(21.5, frame.getTemperature(), 1e-9);
+        assertEquals(411, frame.getCO2Level());
+        assertEquals(123, frame.getSimulationTimeTenths());
+    }
+
+    @Test
+    void clampsOutOfRangeValues() {
+        LoRaFrame high = roundTrip(message(70_000, 100_000, 5000.0, 1_000_000, true, 0), 1, 0, false);
+        assertEquals(Short.MAX_VALUE, high.getTemperatureTenths());
+        assertEquals(0xFFFF, high.getCO2Level());
+        assertEquals(0xFFFF, high.getRow());
+        assertEquals(0xFFFF, high.getCol());
+
+        LoRaFrame low = roundTrip(message(-5, -1, -5000.0, -20, true, -3.0), 1, 0, false);
+        assertEquals(Short.MIN_VALUE, low.getTemperatureTenths());
+        assertEquals(0, low.getCO2Level());
+        assertEquals(0, low.getRow());
+        assertEquals(0, low.getCol());
+        assertEquals(0, low.getSimulationTimeTenths());
+    }
+
+    @Test
+    void wrapsSequenceAndDeviceIdToTheirFieldWidths() {
+        LoRaFrame frame = roundTrip(message(0, 0, 20, 400, false, 0), 0x1FFFFFF, 0x10005, false);
+
+        assertEquals(0xFFFFFF, frame.getDeviceId());
+        assertEquals(5, frame.getSequence());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        ByteBuffer buffer = encode(message(1, 2, 20, 400, false, 0), 1, 0, false);
+        buffer.put(0, (byte) (((LoRaFrameCodec.VERSION + 1) << 4) | (buffer.get(0) & 0x0F)));
+
+        assertThrows(IllegalArgumentException.class, () -> LoRaFrameCodec.decode(buffer, new LoRaFrame()));
+    }
+
+    @Test
+    void checksBufferSize() {
+        ByteBuffer small = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE - 1);
+
+        assertThrows(BufferOverflowException.class,
+                () -> LoRaFrameCodec.encode(message(1, 2, 20, 400, false, 0), 1, 0, false, small));
+        assertThrows(BufferUnderflowException.class, () -> LoRaFrameCodec.decode(small, new LoRaFrame()));
+        assertEquals(0, small.position());
+    }
+
+    @Test
+    void writesAtTheCurrentPositionWithoutTouchingTheRest() {
+        ByteBuffer buffer = ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE + 4);
+        buffer.position(2);
+        LoRaFrameCodec.encode(message(1, 2, 20, 400, false, 0), 1, 0, false, buffer);
+
+        assertEquals(2 + LoRaFrameCodec.FRAME_SIZE, buffer.position());
+        buffer.position(2);
+        LoRaFrame frame = new LoRaFrame();
+        LoRaFrameCodec.decode(buffer, frame);
+        assertEquals(2, frame.getCol());
+        assertEquals(2 + LoRaFrameCodec.FRAME_SIZE, buffer.position());
+    }
+
+    @Test
+    void bridgesToJson() {
+        LoRaMessage message = message(12, 34, -0.5, 415, true, 123.4);
+        message.incrementHopCount();
+        LoRaFrame frame = roundTrip(message, 77, 9, false);
+
+        String json = LoRaFrameCodec.appendJson(frame, UUID_A, new StringBuilder()).toString();
+
+        assertEquals("{\"uuid\":\"123e4567-e89b-12d3-a456-426614174000\""
+                + ",\"device_id\":77,\"sequence\":9,\"row\":12,\"col\":34"
+                + ",\"temperature\":-0.5,\"co2_level\":415,\"fire_detected\":true"
+                + ",\"hops\":1,\"simulation_time\":123.4,\"source\":\"simulated\"}", json);
+    }
+
+    private static LoRaMessage message(int row, int col, double temperature, double co2, boolean fire, double time) {
+        return TestFrames.message(UUID_A, row, col, temperature, co2, fire, time);
+    }
+
+    private static ByteBuffer encode(LoRaMessage message, int deviceId, int sequence, boolean master) {
+        return TestFrames.encode(message, deviceId, sequence, master, ByteBuffer.allocate(LoRaFrameCodec.FRAME_SIZE));
+    }
+
+    private static LoRaFrame roundTrip(LoRaMessage message, int deviceId, int sequence, boolean master) {
+        LoRaFrame frame = new LoRaFrame();
+        LoRaFrameCodec.decode(encode(message, deviceId, sequence, master), frame);
+        return frame;
+    }
+}
@@ -0,0 +1,137 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Canal radio : temps d'antenne, facteur d'étalement, collisions et rapport cyclique
+ */
+class RadioChannelTest {
+
+    private static final double RANGE = 10.0;
+    private static final double DUTY_CYCLE = 0.01;
+
+    private final LoRaMesh mesh = new LoRaMesh(RANGE);
+    private final RadioChannel channel = new RadioChannel(mesh, DUTY_CYCLE);
+    private final List<LoRaMessage> received = new ArrayList<>();
+    private final List<Integer> receivers = new ArrayList<>();
+    private final List<Double> receivedAt = new ArrayList<>();
+
+    @BeforeEach
+    void placeNodes() {
+        mesh.addNode(0, 0, 0, false);
+        mesh.addNode(1, 0, 3, true);   // 0,3 de la portée de 0 et 2 : SF7
+        mesh.addNode(2, 0, 6, false);
+        mesh.addNode(3, 4, 9, false);  // 0,72 de la portée de 1 : SF10
+        mesh.addNode(4, 98, 0, false);
+        mesh.addNode(5, 88, 0, false); // 1,0 de la portée de 4 : SF12
+    }
+
+    @Test
+    void choosesTheSpreadingFactorFromTheRangeFraction() {
+        assertEquals(7, RadioChannel.spreadingFactorFor(0.0));
+        assertEquals(7, RadioChannel.spreadingFactorFor(0.5));
+        assertEquals(8, RadioChannel.spreadingFactorFor(0.55));
+        assertEquals(10, RadioChannel.spreadingFactorFor(0.75));
+        assertEquals(12, RadioChannel.spreadingFactorFor(0.95));
+        assertEquals(12, RadioChannel.spreadingFactorFor(1.5));
+    }
+
+    @Test
+    void loneTransmissionArrivesAfterItsAirtime() {
+        LoRaMessage message = message();
+        assertTrue(channel.transmit(message, 3, 1, 5.0));
+
+        double arrival = 5.0 + airtime(10);
+        channel.advanceTo(arrival - 1e-6, this::receive);
+        assertTrue(received.isEmpty());
+        assertEquals(1, channel.getInFlightCount());
+
+        channel.advanceTo(arrival + 1.0, this::receive);
+        assertEquals(1, received.size());
+        assertSame(message, received.get(0));
+        assertEquals(arrival, receivedAt.get(0), 1e-9);
+        assertEquals(1, channel.getReceptionCount());
+        assertEquals(1, (int) receivers.get(0));
+        assertEquals(1, channel.getTransmissionCount(10));
+        assertEquals(airtime(10), channel.getTotalAirtime(), 1e-9);
+        assertEquals(0, channel.getInFlightCount());
+    }
+
+    @Test
+    void overlappingTransmissionsToOneReceiverAreBothLost() {
+        assertTrue(channel.transmit(message(), 0, 1, 1.0));
+        assertTrue(channel.transmit(message(), 2, 1, 1.0 + airtime(7) / 2));
+
+        channel.advanceTo(10.0, this::receive);
+
+        assertTrue(received.isEmpty());
+        assertEquals(2, channel.getTransmissionCount(7));
+        assertEquals(2, channel.getCollisionCount());
+        assertEquals(0, channel.getReceptionCount());
+    }
+
+    @Test
+    void transmissionsThatDoNotOverlapAreBothReceived() {
+        assertTrue(channel.transmit(message(), 0, 1, 1.0));
+        assertTrue(channel.transmit(message(), 2, 1, 1.0 + airtime(7)));
+
+        channel.advanceTo(10.0, this::receive);
+
+        assertEquals(2, channel.getReceptionCount());
+        assertEquals(0, channel.getCollisionCount());
+    }
+
+    @Test
+    void senderPastItsDutyCycleIsDelayed() {
+        assertTrue(channel.transmit(message(), 0, 1, 0.0));
+        // Le projet doit se taire pendant airtime / rapport cyclique avant d'émettre de nouveau
+        assertTrue(channel.transmit(message(), 0, 1, 0.1));
+        double allowed = airtime(7) / DUTY_CYCLE;
+
+        channel.advanceTo(100.0, this::receive);
+
+        assertEquals(1, channel.getDutyCycleDelayedCount());
+        assertEquals(2, received.size());
+        assertEquals(airtime(7), receivedAt.get(0), 1e-9);
+        assertEquals(allowed + airtime(7), receivedAt.get(1), 1e-9);
+    }
+
+    @Test
+    void senderWaitingLongerThanTheMaximumIsDropped() {
+        // En SF12, le silence imposé dépasse MAX_DUTY_WAIT
+        assertTrue(channel.transmit(message(), 4, 5, 0.0));
+        assertFalse(channel.transmit(message(), 4, 5, 1.0));
+
+        channel.advanceTo(1000.0, this::receive);
+
+        assertEquals(1, channel.getDutyCycleDroppedCount());
+        assertEquals(1, channel.getTransmissionCount(12));
+        assertEquals(1, received.size());
+    }
+
+    private void receive(LoRaMessage message, int receiver, double time) {
+        received.add(message);
+        receivers.add(receiver);
+        receivedAt.add(time);
+    }
+
+    private static LoRaMessage message() {
+        return TestFrames.message(UUID.randomUUID(), 0, 0, 20, 400, false, 0);
+    }
+
+    private static double airtime(int spreadingFactor) {
+        return LoRaFrameCodec.airtimeSeconds(LoRaFrameCodec.FRAME_SIZE, spreadingFactor);
+    }
+}
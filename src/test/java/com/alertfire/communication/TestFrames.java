@@ -0,0 +1,66 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Outils communs aux tests de la communication : messages, trames codées et attente active
+ */
+final class TestFrames {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private TestFrames() {
+    }
+
+    /**
+     * Message de mesure au temps simulé donné, sans foyer associé
+     */
+    static LoRaMessage message(UUID uuid, int row, int col, double temperature, double co2, boolean fire,
+                               double time) {
+        return new LoRaMessage(uuid, row, col, temperature, co2, fire, time, Double.NaN, -1);
+    }
+
+    /**
+     * Code un message dans le tampon, vidé au préalable, et le prépare à la lecture
+     * @return Le tampon, contenant exactement une trame
+     */
+    static ByteBuffer encode(LoRaMessage message, int deviceId, int sequence, boolean master, ByteBuffer frame) {
+        frame.clear();
+        LoRaFrameCodec.encode(message, deviceId, sequence, master, frame);
+        assertEquals(LoRaFrameCodec.FRAME_SIZE, frame.position());
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Attend qu'une condition devienne vraie, en échouant après {@link #TIMEOUT_MS}
+     */
+    static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition non atteinte en " + TIMEOUT_MS + " ms");
+            }
+            pause();
+        }
+    }
+
+    /**
+     * Courte pause dans une boucle d'attente
+     */
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Attente interrompue");
+        }
+    }
+}
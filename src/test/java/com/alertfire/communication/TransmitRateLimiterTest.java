@@ -0,0 +1,105 @@
+package com.alertfire.communication;
+
+import com.alertfire.model.LoRaMessage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.alertfire.communication.TransmitRateLimiter.FIRE;
+import static com.alertfire.communication.TransmitRateLimiter.TELEMETRY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limitation du débit : seaux par projet, priorité des alertes feu et délestage des files pleines
+ */
+class TransmitRateLimiterTest {
+
+    private final UUID uuid = UUID.randomUUID();
+    private final List<Integer> released = new ArrayList<>();
+
+    @Test
+    void deviceBucketRefillsAtItsRate() {
+        // 1 message par seconde et par projet, rafale de 2, pas de limite globale
+        TransmitRateLimiter limiter = new TransmitRateLimiter(1.0, 2.0, 0, 0, 100);
+
+        assertTrue(limiter.offer(message(0, false, 0), 0.0));
+        assertTrue(limiter.offer(message(0, false, 1), 0.0));
+        assertFalse(limiter.offer(message(0, false, 2), 0.0));
+        // Un autre projet a son propre seau
+        assertTrue(limiter.offer(message(1, false, 3), 0.0));
+        assertFalse(limiter.offer(message(0, false, 4), 0.5));
+        assertTrue(limiter.offer(message(0, false, 5), 1.5));
+
+        assertEquals(6, limiter.getOfferedCount(TELEMETRY));
+        assertEquals(2, limiter.getDeviceLimitedCount(TELEMETRY));
+        assertEquals(4, limiter.getQueuedCount(TELEMETRY));
+    }
+
+    @Test
+    void fireAlertsBypassAnEmptyDeviceBucket() {
+        TransmitRateLimiter limiter = new TransmitRateLimiter(0.1, 1.0, 0, 0, 100);
+
+        assertTrue(limiter.offer(message(0, false, 0), 0.0));
+        assertFalse(limiter.offer(message(0, false, 1), 0.0));
+        assertTrue(limiter.offer(message(0, true, 2), 0.0));
+        assertTrue(limiter.offer(message(0, true, 3), 0.0));
+
+        assertEquals(0, limiter.getDeviceLimitedCount(FIRE));
+        assertEquals(1, limiter.getDeviceLimitedCount(TELEMETRY));
+        assertEquals(2, limiter.getQueuedCount(FIRE));
+        assertEquals(1, limiter.getQueuedCount(TELEMETRY));
+    }
+
+    @Test
+    void globalBudgetServesFireAlertsFirst() {
+        // 1 message par seconde au total, rafale de 2, pas de limite par projet
+        TransmitRateLimiter limiter = new TransmitRateLimiter(0, 0, 1.0, 2.0, 100);
+        limiter.offer(message(0, false, 0), 0.0);
+        limiter.offer(message(1, false, 1), 0.0);
+        limiter.offer(message(2, true, 2), 0.0);
+        limiter.offer(message(3, true, 3), 0.0);
+
+        limiter.drain(0.0, this::release);
+        assertEquals(List.of(2, 3), released);
+        assertEquals(2, limiter.getQueuedCount(TELEMETRY));
+
+        limiter.drain(1.0, this::release);
+        limiter.drain(2.0, this::release);
+        assertEquals(List.of(2, 3, 0, 1), released);
+        assertEquals(2, limiter.getReleasedCount(FIRE));
+        assertEquals(2, limiter.getReleasedCount(TELEMETRY));
+        assertEquals(0.0, limiter.getMaxQueueDelay(FIRE), 1e-9);
+        assertEquals(1.5, limiter.getMeanQueueDelay(TELEMETRY), 1e-9);
+        assertEquals(2.0, limiter.getMaxQueueDelay(TELEMETRY), 1e-9);
+    }
+
+    @Test
+    void fullQueueDropsItsOldestMessage() {
+        TransmitRateLimiter limiter = new TransmitRateLimiter(0, 0, 0, 0, 3);
+        for (int sequence = 0; sequence < 5; sequence++) {
+            assertTrue(limiter.offer(message(sequence, false, sequence), 0.0));
+        }
+
+        assertEquals(2, limiter.getOverflowDroppedCount(TELEMETRY));
+        assertEquals(3, limiter.getQueuedCount(TELEMETRY));
+        assertEquals(0, limiter.getOverflowDroppedCount(FIRE));
+
+        limiter.drain(0.0, this::release);
+        assertEquals(List.of(2, 3, 4), released);
+    }
+
+    private LoRaMessage message(int device, boolean fire, int sequence) {
+        LoRaMessage message = TestFrames.message(uuid, 0, 0, fire ? 90 : 20, 400, fire, 0);
+        message.setSource(device, sequence, false);
+        return message;
+    }
+
+    private void release(LoRaMessage message, double time) {
+        released.add(message.getSequence());
+    }
+}
@@ -0,0 +1,138 @@
+package com.alertfire.device;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Roue temporelle : échéances exactes à chaque niveau, descente des cases et replanification
+ */
+class TimerWheelTest {
+
+    private static final long LEVEL_1 = 64;
+    private static final long LEVEL_2 = 64 * 64;
+    private static final long LEVEL_3 = 64 * 64 * 64;
+    private static final long SPAN = 64L * 64 * 64 * 64;
+
+    private final TimerWheel wheel = new TimerWheel();
+    private final List<long[]> fired = new ArrayList<>(); // {identifiant, tick}
+
+    @Test
+    void firesFirstLevelTimersInTickOrder() {
+        wheel.ensureCapacity(4);
+        wheel.schedule(0, 63);
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 2);
+        wheel.schedule(3, 0); // déjà passé : prochain tick
+
+        wheel.advanceTo(100, this::record);
+
+        assertFired(new long[][] {{3, 1}, {2, 2}, {1, 5}, {0, 63}});
+        assertEquals(0, wheel.size());
+        assertEquals(100, wheel.getCurrentTick());
+    }
+
+    @Test
+    void cascadesFromUpperLevelsToTheExactTick() {
+        wheel.advanceTo(17, this::record); // roue vide : avance d'un bloc
+        long[] ticks = {
+                17 + LEVEL_1 + 3,
+                17 + LEVEL_2 + 7 * LEVEL_1 + 1,
+                LEVEL_3 - 1,
+                LEVEL_3,
+                2 * LEVEL_3 + 5 * LEVEL_2 + 11 * LEVEL_1 + 13
+        };
+        wheel.ensureCapacity(ticks.length);
+        for (int id = 0; id < ticks.length; id++) {
+            wheel.schedule(id, ticks[id]);
+        }
+        assertEquals(ticks.length, wheel.size());
+
+        wheel.advanceTo(3 * LEVEL_3, this::record);
+
+        long[][] expected = new long[ticks.length][];
+        for (int id = 0; id < ticks.length; id++) {
+            expected[id] = new long[] {id, ticks[id]};
+        }
+        assertFired(expected);
+    }
+
+    @Test
+    void reschedulingFromTheCallbackKeepsThePeriod() {
+        // Comme SensorArray.onTimer : chaque expiration replanifie le même identifiant
+        wheel.ensureCapacity(2);
+        wheel.schedule(0, 1);
+        wheel.schedule(1, LEVEL_1);
+        List<Long> fastTicks = new ArrayList<>();
+        List<Long> slowTicks = new ArrayList<>();
+
+        wheel.advanceTo(10 * LEVEL_1, id -> {
+            long now = wheel.getCurrentTick();
+            if (id == 0) {
+                fastTicks.add(now);
+                wheel.schedule(0, now + 1);
+            } else {
+                slowTicks.add(now);
+                // Même case du niveau 0 que la case en cours de déclenchement
+                wheel.schedule(1, now + LEVEL_1);
+            }
+        });
+
+        assertEquals(10 * LEVEL_1, fastTicks.size());
+        for (int k = 0; k < fastTicks.size(); k++) {
+            assertEquals(k + 1, (long) fastTicks.get(k));
+        }
+        assertEquals(10, slowTicks.size());
+        for (int k = 0; k < slowTicks.size(); k++) {
+            assertEquals((k + 1) * LEVEL_1, (long) slowTicks.get(k));
+        }
+        assertTrue(wheel.isScheduled(0));
+        assertTrue(wheel.isScheduled(1));
+    }
+
+    @Test
+    void delaysBeyondTheWheelSpanStillFireOnTime() {
+        wheel.advanceTo(100, this::record);
+        wheel.ensureCapacity(2);
+        wheel.schedule(0, 100 + SPAN + 1000);
+        wheel.schedule(1, 2 * SPAN + 5);
+
+        wheel.advanceTo(100 + SPAN + 999, this::record);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(3 * SPAN, this::record);
+        assertFired(new long[][] {{0, 100 + SPAN + 1000}, {1, 2 * SPAN + 5}});
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        wheel.ensureCapacity(3);
+        wheel.schedule(0, 10);
+        wheel.schedule(1, LEVEL_2 + 10);
+        wheel.schedule(2, 20);
+        wheel.cancel(1);
+        wheel.schedule(0, 30); // replanifié : l'ancienne échéance disparaît
+
+        assertFalse(wheel.isScheduled(1));
+        wheel.advanceTo(2 * LEVEL_2, this::record);
+
+        assertFired(new long[][] {{2, 20}, {0, 30}});
+    }
+
+    private void record(int id) {
+        fired.add(new long[] {id, wheel.getCurrentTick()});
+    }
+
+    private void assertFired(long[][] expected) {
+        assertEquals(expected.length, fired.size(), "nombre d'expirations");
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k][0], fired.get(k)[0], "identifiant n°" + k);
+            assertEquals(expected[k][1], fired.get(k)[1], "tick de l'identifiant " + expected[k][0]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.alertfire.metrics;
+
+import com.alertfire.log.EventLog;
+import com.alertfire.log.LogLevel;
+import com.alertfire.metrics.PerformanceMonitor.Phase;
+import com.alertfire.metrics.PerformanceMonitor.Snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mesures de performance : percentiles sur la fenêtre glissante et écriture dans le journal
+ */
+class PerformanceMonitorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void percentilesFollowTheLastSamples() {
+        PerformanceMonitor monitor = new PerformanceMonitor();
+        // 1000 durées de 1 à 1000 µs : seules les 256 dernières comptent
+        for (int i = 1; i <= 1000; i++) {
+            long now = System.nanoTime();
+            monitor.record(Phase.PROPAGATION, now - i * 1000L);
+            monitor.stepCompleted(i);
+        }
+
+        Snapshot snapshot = monitor.snapshot();
+
+        assertEquals(1000, snapshot.getActiveFront());
+        long p50 = snapshot.getPercentile(Phase.PROPAGATION, 50);
+        long p99 = snapshot.getPercentile(Phase.PROPAGATION, 99);
+        assertTrue(p50 >= 872_000 && p50 < 900_000, "p50 " + p50);
+        assertTrue(p99 >= 997_000 && p99 < 1_020_000, "p99 " + p99);
+        assertEquals(0, snapshot.getPercentile(Phase.RENDER, 50));
+    }
+
+    @Test
+    void logsEveryPhase() throws Exception {
+        PerformanceMonitor monitor = new PerformanceMonitor();
+        for (Phase phase : Phase.values()) {
+            monitor.record(phase, System.nanoTime() - (phase.ordinal() + 1) * 1000L);
+        }
+        monitor.stepCompleted(42);
+
+        Path file = directory.resolve("events.jsonl");
+        EventLog log = EventLog.getInstance();
+        log.open(file, LogLevel.DEBUG, 64, false);
+        try {
+            monitor.snapshot().log(log);
+        } finally {
+            log.close();
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> line.contains("\"event\":\"performance\""))
+                .collect(Collectors.toList());
+        assertEquals(1 + Phase.values().length, lines.size());
+        assertTrue(lines.get(0).contains("\"active_front\":42"), lines.get(0));
+        assertTrue(lines.get(0).contains("\"alloc_rate\":"), lines.get(0));
+        for (Phase phase : Phase.values()) {
+            String name = "\"phase\":\"" + phase.name().toLowerCase(Locale.ROOT) + "\"";
+            long matching = lines.stream()
+                    .filter(line -> line.contains(name) && line.contains("\"p50_ns\":")
+                            && line.contains("\"p95_ns\":") && line.contains("\"p99_ns\":"))
+                    .count();
+            assertEquals(1, matching, phase.name());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.alertfire.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carte des distances au foyer, comparée à un parcours exhaustif des foyers après chaque vague
+ */
+class FireDistanceFieldTest {
+
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 30;
+    private static final double MAX_DISTANCE = 8.5;
+    private static final int MAX_DISTANCE_SQ = 9 * 9; // distance arrondie à la cellule supérieure
+
+    private final FireDistanceField field = new FireDistanceField(WIDTH, HEIGHT, MAX_DISTANCE);
+    // Foyers actifs : indice -> incendie
+    private final Map<Integer, Integer> fires = new HashMap<>();
+
+    @Test
+    void singleIgnitionReachesEveryCellWithinTheBound() {
+        ignite(15, 20, 0);
+        field.propagate();
+
+        assertMatchesBruteForce();
+        assertEquals(0, field.distanceSq(15, 20));
+        assertEquals(MAX_DISTANCE_SQ, field.distanceSq(15, 29));
+        assertEquals(Integer.MAX_VALUE, field.distanceSq(15, 30));
+        assertEquals(-1, field.nearestFire(0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, field.distance(0, 0));
+        assertEquals(-1, field.incidentOf(field.nearestFire(0, 0)));
+    }
+
+    @Test
+    void twoFiresShareTheCellsBetweenThem() {
+        ignite(10, 10, 0);
+        field.propagate();
+        ignite(12, 17, 1);
+        field.propagate();
+
+        assertMatchesBruteForce();
+        assertEquals(0, field.incidentOf(field.nearestFire(10, 12)));
+        assertEquals(1, field.incidentOf(field.nearestFire(12, 15)));
+    }
+
+    @Test
+    void extinguishingTheNearestFireFallsBackToTheFartherOne() {
+        ignite(10, 10, 0);
+        ignite(10, 16, 1);
+        field.propagate();
+        assertEquals(1, field.incidentOf(field.nearestFire(10, 15)));
+
+        extinguish(10, 16);
+        field.propagate();
+
+        assertMatchesBruteForce();
+        assertEquals(0, field.incidentOf(field.nearestFire(10, 15)));
+        assertEquals(25, field.distanceSq(10, 15));
+        // Hors de portée du foyer restant : plus rien
+        assertEquals(-1, field.nearestFire(10, 22));
+    }
+
+    @Test
+    void extinguishingEveryFireClearsTheField() {
+        ignite(5, 5, 0);
+        ignite(6, 6, 0);
+        field.propagate();
+
+        extinguish(5, 5);
+        extinguish(6, 6);
+        field.propagate();
+
+        assertMatchesBruteForce();
+        assertEquals(0, field.getBurningCount());
+    }
+
+    @Test
+    void randomIgnitionsAndExtinctionsMatchABruteForceScan() {
+        Random random = new Random(42);
+        for (int step = 0; step < 200; step++) {
+            int changes = 1 + random.nextInt(6);
+            for (int k = 0; k < changes; k++) {
+                int row = random.nextInt(HEIGHT);
+                int col = random.nextInt(WIDTH);
+                if (fires.containsKey(row * WIDTH + col)) {
+                    extinguish(row, col);
+                } else {
+                    ignite(row, col, random.nextInt(4));
+                }
+            }
+            field.propagate();
+            assertMatchesBruteForce();
+        }
+    }
+
+    private void ignite(int row, int col, int incident) {
+        field.markIgnited(row, col, 0.0, incident);
+        fires.put(row * WIDTH + col, incident);
+    }
+
+    private void extinguish(int row, int col) {
+        field.markExtinguished(row, col);
+        fires.remove(row * WIDTH + col);
+    }
+
+    /**
+     * Pour chaque cellule : même distance au carré que le foyer le plus proche trouvé par
+     * parcours de tous les foyers, et un foyer retenu actif, à cette distance, du bon incendie
+     */
+    private void assertMatchesBruteForce() {
+        assertEquals(fires.size(), field.getBurningCount());
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int col = 0; col < WIDTH; col++) {
+                int expected = Integer.MAX_VALUE;
+                for (int site : fires.keySet()) {
+                    int d = distanceSq(site, row, col);
+                    if (d <= MAX_DISTANCE_SQ) {
+                        expected = Math.min(expected, d);
+                    }
+                }
+
+                String cell = "cellule (" + row + ", " + col + ")";
+                assertEquals(expected, field.distanceSq(row, col), cell);
+                int nearest = field.nearestFire(row, col);
+                if (expected == Integer.MAX_VALUE) {
+                    assertEquals(-1, nearest, cell);
+                } else {
+                    assertTrue(fires.containsKey(nearest), cell + " : foyer éteint " + nearest);
+                    assertEquals(expected, distanceSq(nearest, row, col), cell);
+                    assertEquals((int) fires.get(nearest), field.incidentOf(nearest), cell);
+                }
+            }
+        }
+    }
+
+    private static int distanceSq(int site, int row, int col) {
+        int dr = site / WIDTH - row;
+        int dc = site % WIDTH - col;
+        return dr * dr + dc * dc;
+    }
+}